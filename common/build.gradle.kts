@@ -1,3 +1,19 @@
 plugins {
     java
 }
+
+dependencyManagement {
+    imports {
+        mavenBom(org.springframework.boot.gradle.plugin.SpringBootPlugin.BOM_COORDINATES)
+    }
+}
+
+dependencies {
+    // VirtualThreadPinningMonitor and JfrRecordingEndpoint, auto-configured in both services
+    implementation("org.springframework.boot:spring-boot-autoconfigure")
+    // Both services bring actuator; the endpoint is only configured when it is there
+    compileOnly("org.springframework.boot:spring-boot-actuator")
+    implementation("io.micrometer:micrometer-core")
+    implementation("jakarta.annotation:jakarta.annotation-api")
+    implementation("org.slf4j:slf4j-api")
+}
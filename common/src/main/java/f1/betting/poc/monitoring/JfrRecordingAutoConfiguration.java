@@ -0,0 +1,29 @@
+package f1.betting.poc.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Flight recordings at {@code /actuator/jfr} in any service with actuator on the classpath.
+ * Recordings are named after {@code jfr.name}; the continuous one is configured by {@code jfr.continuous.*}.
+ */
+@AutoConfiguration
+@ConditionalOnClass(Endpoint.class)
+public class JfrRecordingAutoConfiguration {
+
+	@Bean
+	JfrRecordingEndpoint jfrRecordingEndpoint(
+			@Value("${jfr.name:application}") String name,
+			@Value("${jfr.continuous.enabled:true}") boolean continuousEnabled,
+			@Value("${jfr.continuous.max-age:30m}") Duration maxAge,
+			@Value("${jfr.continuous.max-size:100MB}") DataSize maxSize
+	) {
+		return new JfrRecordingEndpoint(name, continuousEnabled, maxAge, maxSize);
+	}
+}
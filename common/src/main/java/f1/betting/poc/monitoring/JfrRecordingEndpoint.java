@@ -0,0 +1,170 @@
+package f1.betting.poc.monitoring;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Flight recordings on demand at {@code /actuator/jfr}, for profiling under real load without attaching tools:
+ * <ul>
+ *     <li>{@code GET /actuator/jfr}: state of the continuous and the on-demand recording</li>
+ *     <li>{@code POST /actuator/jfr/start}: start an on-demand recording ({@code settings}: default or profile,
+ *     optional {@code duration}), replacing the previous one</li>
+ *     <li>{@code POST /actuator/jfr/stop}: stop the on-demand recording; it stays downloadable</li>
+ *     <li>{@code GET /actuator/jfr/on-demand} or {@code /actuator/jfr/continuous}: download a .jfr file</li>
+ * </ul>
+ * The continuous recording runs from startup with the low-overhead default settings and keeps the last
+ * {@code max-age} (or {@code max-size}) of events, including the service's own. Auto-configured in both services
+ * by {@link JfrRecordingAutoConfiguration}; the endpoint exposes internals, so each service keeps it local-only.
+ */
+@Endpoint(id = "jfr")
+@Slf4j
+public class JfrRecordingEndpoint {
+
+	public static final String CONTINUOUS = "continuous";
+	public static final String ON_DEMAND = "on-demand";
+
+	private final String name;
+	private final boolean continuousEnabled;
+	private final Duration maxAge;
+	private final DataSize maxSize;
+
+	private Recording continuous;
+	private Recording onDemand;
+
+	/**
+	 * @param name prefix of the recording and dump file names, e.g. the service name
+	 */
+	public JfrRecordingEndpoint(String name, boolean continuousEnabled, Duration maxAge, DataSize maxSize) {
+		this.name = name;
+		this.continuousEnabled = continuousEnabled;
+		this.maxAge = maxAge;
+		this.maxSize = maxSize;
+	}
+
+	@PostConstruct
+	void startContinuous() {
+		if (!continuousEnabled) return;
+		continuous = new Recording(configuration("default"));
+		continuous.setName(name + "-" + CONTINUOUS);
+		continuous.setToDisk(true);
+		continuous.setMaxAge(maxAge);
+		continuous.setMaxSize(maxSize.toBytes());
+		continuous.start();
+		log.info("Continuous flight recording started, keeping the last {}", maxAge);
+	}
+
+	@PreDestroy
+	synchronized void close() {
+		if (continuous != null) continuous.close();
+		if (onDemand != null) onDemand.close();
+	}
+
+	@ReadOperation
+	public synchronized Map<String, Object> recordings() {
+		Map<String, Object> recordings = new LinkedHashMap<>();
+		recordings.put(CONTINUOUS, describe(continuous));
+		recordings.put(ON_DEMAND, describe(onDemand));
+		return recordings;
+	}
+
+	@WriteOperation
+	public synchronized WebEndpointResponse<Map<String, Object>> control(
+			@Selector String action, @Nullable String settings, @Nullable Duration duration) {
+		switch (action) {
+			case "start" -> {
+				String name = settings == null ? "profile" : settings;
+				Configuration configuration;
+				try {
+					configuration = configuration(name);
+				} catch (IllegalArgumentException ex) {
+					return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+				}
+				if (onDemand != null) onDemand.close();
+				onDemand = new Recording(configuration);
+				onDemand.setName(name + "-" + ON_DEMAND);
+				onDemand.setToDisk(true);
+				if (duration != null) onDemand.setDuration(duration);
+				onDemand.start();
+				log.info("On-demand flight recording started with {} settings", name);
+			}
+			case "stop" -> {
+				if (onDemand == null || onDemand.getState() != RecordingState.RUNNING) {
+					return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+				}
+				onDemand.stop();
+				log.info("On-demand flight recording stopped");
+			}
+			default -> {
+				return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+			}
+		}
+		return new WebEndpointResponse<>(describe(onDemand));
+	}
+
+	/**
+	 * Dump a recording to a temporary file that is deleted once the response has been streamed.
+	 */
+	@ReadOperation(produces = "application/octet-stream")
+	public synchronized WebEndpointResponse<Resource> download(@Selector String recording) {
+		Recording source = switch (recording) {
+			case CONTINUOUS -> continuous;
+			case ON_DEMAND -> onDemand;
+			default -> null;
+		};
+		if (source == null || source.getState() == RecordingState.NEW || source.getState() == RecordingState.CLOSED) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+		}
+		try {
+			Path file = Files.createTempFile(name + "-" + recording + "-", ".jfr");
+			source.dump(file);
+			return new WebEndpointResponse<>(new InputStreamResource(
+					Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)));
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Could not dump the " + recording + " recording", ex);
+		}
+	}
+
+	private static Map<String, Object> describe(Recording recording) {
+		Map<String, Object> description = new LinkedHashMap<>();
+		if (recording == null) {
+			description.put("state", "NONE");
+			return description;
+		}
+		description.put("state", recording.getState().name());
+		description.put("startTime", recording.getStartTime());
+		description.put("stopTime", recording.getStopTime());
+		description.put("size", recording.getSize());
+		return description;
+	}
+
+	private static Configuration configuration(String name) {
+		try {
+			return Configuration.getConfiguration(name);
+		} catch (IOException | ParseException ex) {
+			throw new IllegalArgumentException("Unknown JFR settings '" + name + "'", ex);
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package f1.betting.poc.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+/**
+ * Watches for pinned virtual threads in any service running on them (spring.threads.virtual.enabled=true).
+ * Pinning shorter than {@code virtual-threads.pinned-threshold} (default 20ms) is ignored.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningAutoConfiguration {
+
+	@Bean
+	VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+			MeterRegistry meterRegistry,
+			@Value("${virtual-threads.pinned-threshold:20ms}") Duration threshold
+	) {
+		return new VirtualThreadPinningMonitor(meterRegistry, threshold);
+	}
+}
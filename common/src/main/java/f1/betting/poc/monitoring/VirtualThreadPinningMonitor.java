@@ -0,0 +1,71 @@
+package f1.betting.poc.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier (blocking inside synchronized or native frames),
+ * which silently turns the virtual-thread mode back into a small fixed pool.
+ * Listens to the JFR jdk.VirtualThreadPinned event in-process; pinning with one of our frames on the stack
+ * is logged with its stack trace, and every pinning is counted in jvm.threads.virtual.pinned by our top frame.
+ * Registered in both services by {@link VirtualThreadPinningAutoConfiguration}.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+	private static final String APP_PACKAGE = "f1.betting.poc.";
+
+	private final MeterRegistry meterRegistry;
+	private final Duration threshold;
+
+	private RecordingStream stream;
+
+	public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+		this.meterRegistry = meterRegistry;
+		this.threshold = threshold;
+	}
+
+	@PostConstruct
+	void start() {
+		stream = new RecordingStream();
+		stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+		stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+		stream.startAsync();
+		log.info("Watching for virtual threads pinned longer than {}", threshold);
+	}
+
+	@PreDestroy
+	void stop() {
+		stream.close();
+	}
+
+	void onPinned(RecordedEvent event) {
+		RecordedStackTrace stackTrace = event.getStackTrace();
+		RecordedFrame frame = stackTrace == null ? null : stackTrace.getFrames().stream()
+				.filter(f -> f.isJavaFrame() && f.getMethod().getType().getName().startsWith(APP_PACKAGE))
+				.findFirst()
+				.orElse(null);
+
+		String location = frame == null ? "other" : frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+		meterRegistry.counter("jvm.threads.virtual.pinned", "frame", location).increment();
+		if (frame != null) {
+			log.warn("Virtual thread pinned for {} ms in {}:{}\n{}", event.getDuration().toMillis(), location,
+					frame.getLineNumber(), format(stackTrace));
+		}
+	}
+
+	private static String format(RecordedStackTrace stackTrace) {
+		return stackTrace.getFrames().stream()
+				.map(f -> "\tat " + f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+				.collect(Collectors.joining("\n"));
+	}
+}
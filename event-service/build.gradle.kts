@@ -1,5 +1,7 @@
 plugins {
     id("org.springframework.boot")
+    id("org.springframework.boot.aot")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 dependencies {
@@ -7,7 +9,12 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-cache")
     implementation("com.github.ben-manes.caffeine:caffeine:3.1.8")
+    // Shared cache tier and OpenF1 rate budget across nodes (app.cache.shared.enabled)
+    implementation("org.springframework.boot:spring-boot-starter-data-redis")
     implementation("io.github.resilience4j:resilience4j-spring-boot3:2.2.0")
+    // Tracing: OpenTelemetry bridge, OTLP export when management.otlp.tracing.endpoint is set
+    implementation("io.micrometer:micrometer-tracing-bridge-otel")
+    runtimeOnly("io.opentelemetry:opentelemetry-exporter-otlp")
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-json")
     implementation("org.springframework.boot:spring-boot-starter-validation")
@@ -27,6 +34,55 @@ dependencies {
     testImplementation("org.testcontainers:junit-jupiter")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("net.datafaker:datafaker:2.3.1")
+    testImplementation("io.opentelemetry:opentelemetry-sdk-testing")
 
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
-}
\ No newline at end of file
+}
+
+// Microbenchmarks in src/jmh; ./gradlew :event-service:jmh writes build/results/jmh/results.json
+jmh {
+    jmhVersion = "1.37"
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    // -Pjmh.includes=serialize runs a subset
+    (project.findProperty("jmh.includes") as String?)?.let { includes = listOf(it) }
+}
+
+// Fast-start mode: Spring AOT initialization code (processAot, packaged into bootJar and used with
+// -Dspring.aot.enabled=true) and a CDS archive recorded by a training run that stops once the context is refreshed.
+// ./gradlew :event-service:cdsArchive leaves the extracted jar, lib/ and application.jsa in build/fast-start.
+// Bean conditions are evaluated at build time; -Paot.profiles=virtual-threads bakes that profile in.
+tasks.named<org.springframework.boot.gradle.tasks.aot.ProcessAot>("processAot") {
+    (project.findProperty("aot.profiles") as String?)?.let { args("--spring.profiles.active=$it") }
+}
+
+val fastStartDir = layout.buildDirectory.dir("fast-start")
+val fastStartJava = javaToolchains.launcherFor { languageVersion = JavaLanguageVersion.of(21) }
+
+val extractBootJar by tasks.registering(Exec::class) {
+    description = "Extracts the boot jar into build/fast-start (application jar plus lib/)."
+    group = "build"
+    dependsOn(tasks.bootJar)
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf("-Djarmode=tools", "-jar", tasks.bootJar.get().archiveFile.get().asFile.path,
+            "extract", "--destination", fastStartDir.get().asFile.path, "--force")
+    })
+    doFirst { executable(fastStartJava.get().executablePath.asFile) }
+}
+
+tasks.register<Exec>("cdsArchive") {
+    description = "Records build/fast-start/application.jsa from a training run of the AOT-processed application."
+    group = "build"
+    dependsOn(extractBootJar)
+    workingDir(fastStartDir)
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(
+            "-XX:ArchiveClassesAtExit=application.jsa",
+            "-Dspring.aot.enabled=true",
+            "-Dspring.context.exit=onRefresh",
+            "-Djfr.continuous.enabled=false",
+            "-jar", tasks.bootJar.get().archiveFileName.get()
+        )
+    })
+    doFirst { executable(fastStartJava.get().executablePath.asFile) }
+}
@@ -0,0 +1,145 @@
+package f1.betting.poc.provider.openf1;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import f1.betting.poc.AppConfig;
+import f1.betting.poc.domain.Driver;
+import f1.betting.poc.domain.EventDetails;
+import f1.betting.poc.provider.openf1.dto.DriverRawDto;
+import f1.betting.poc.provider.openf1.dto.SessionRawDto;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The event-service request path between the OpenF1 response bytes and the EventDetails response bytes,
+ * step by step and end to end. Inputs are a 2023 season session list (110 sessions) and a 20-driver roster
+ * shaped like OpenF1 /sessions and /drivers responses, including the fields we ignore.
+ * <p>
+ * Run with {@code ./gradlew :event-service:jmh}; the gc profiler reports allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenF1MappingBenchmark {
+
+	private ObjectMapper objectMapper;
+	private OpenF1Mapper mapper;
+
+	private byte[] sessionsJson;
+	private byte[] driversJson;
+	private byte[] singleSessionJson;
+
+	private SessionRawDto[] sessions;
+	private List<DriverRawDto> drivers;
+	private EventDetails event;
+	private List<EventDetails> season;
+
+	@Setup
+	public void setUp() throws IOException {
+		// Same ObjectMapper as the RestTemplate and the MVC converters use
+		objectMapper = new AppConfig().objectMapper();
+		mapper = Mappers.getMapper(OpenF1Mapper.class);
+
+		sessionsJson = read("openf1/sessions-2023.json");
+		driversJson = read("openf1/drivers-7779.json");
+
+		sessions = objectMapper.readValue(sessionsJson, SessionRawDto[].class);
+		singleSessionJson = objectMapper.writeValueAsBytes(new SessionRawDto[]{sessions[16]});
+		drivers = Arrays.asList(objectMapper.readValue(driversJson, DriverRawDto[].class));
+
+		event = toEventDetails(sessions[16]);
+		season = Arrays.stream(sessions).map(this::toEventDetails).toList();
+	}
+
+	@Benchmark
+	public SessionRawDto[] deserializeSeasonSessions() throws IOException {
+		return objectMapper.readValue(sessionsJson, SessionRawDto[].class);
+	}
+
+	@Benchmark
+	public DriverRawDto[] deserializeDrivers() throws IOException {
+		return objectMapper.readValue(driversJson, DriverRawDto[].class);
+	}
+
+	@Benchmark
+	public void mapSeasonSessions(Blackhole blackhole) {
+		for (SessionRawDto session : sessions) {
+			blackhole.consume(mapper.toEventDetails(session));
+		}
+	}
+
+	@Benchmark
+	public void parseSessionDates(Blackhole blackhole) {
+		for (SessionRawDto session : sessions) {
+			blackhole.consume(mapper.parseOffsetDateTime(session.getDateStart()));
+			blackhole.consume(mapper.parseOffsetDateTime(session.getDateEnd()));
+		}
+	}
+
+	@Benchmark
+	public List<Driver> mapDriversWithOdds() {
+		return mapDrivers(drivers);
+	}
+
+	@Benchmark
+	public byte[] serializeEvent() throws IOException {
+		return objectMapper.writeValueAsBytes(event);
+	}
+
+	@Benchmark
+	public byte[] serializeSeason() throws IOException {
+		return objectMapper.writeValueAsBytes(season);
+	}
+
+	/**
+	 * GET /api/events/{id} on a cache miss, minus the network: both OpenF1 responses in, response body out.
+	 */
+	@Benchmark
+	public byte[] eventRequestEndToEnd() throws IOException {
+		SessionRawDto session = objectMapper.readValue(singleSessionJson, SessionRawDto[].class)[0];
+		EventDetails details = mapper.toEventDetails(session);
+		details.setDrivers(mapDrivers(Arrays.asList(objectMapper.readValue(driversJson, DriverRawDto[].class))));
+		return objectMapper.writeValueAsBytes(details);
+	}
+
+	private EventDetails toEventDetails(SessionRawDto session) {
+		EventDetails details = mapper.toEventDetails(session);
+		details.setDrivers(mapDrivers(drivers));
+		return details;
+	}
+
+	// As in OpenF1ProviderAdapter
+	private List<Driver> mapDrivers(List<DriverRawDto> driverDtos) {
+		return mapper.toDriverList(driverDtos)
+				.stream()
+				.peek(d -> d.setOdds(ThreadLocalRandom.current().nextInt(2, 5)))
+				.collect(Collectors.toList());
+	}
+
+	private static byte[] read(String resource) throws IOException {
+		try (InputStream in = OpenF1MappingBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+			if (in == null) throw new IOException("Missing benchmark resource " + resource);
+			return in.readAllBytes();
+		}
+	}
+}
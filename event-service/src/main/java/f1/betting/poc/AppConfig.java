@@ -4,11 +4,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class AppConfig {
 
@@ -21,9 +28,26 @@ public class AppConfig {
 	}
 
 	@Bean
-	public RestTemplate restTemplate(ObjectMapper objectMapper) {
+	public RestTemplate restTemplate(
+			RestTemplateBuilder restTemplateBuilder,
+			ObjectMapper objectMapper,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+	) {
+		// JDK HttpClient instead of HttpURLConnection, whose internal locks pin virtual threads
+		HttpClient.Builder client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5));
+		if (virtualThreads) {
+			client.executor(Executors.newVirtualThreadPerTaskExecutor());
+		}
+
+		HttpClient httpClient = client.build();
+
+		// Built from Boot's builder so every call is observed and carries the trace context (traceparent header)
+		RestTemplate restTemplate = restTemplateBuilder
+				.requestFactory(() -> new JdkClientHttpRequestFactory(httpClient))
+				.build();
 		// Make RestTemplate use the customized ObjectMapper
-		RestTemplate restTemplate = new RestTemplate();
 		restTemplate.getMessageConverters().stream()
 				.filter(c -> c instanceof MappingJackson2HttpMessageConverter )
 				.map(c -> (MappingJackson2HttpMessageConverter) c)
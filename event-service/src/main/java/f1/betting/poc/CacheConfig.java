@@ -1,13 +1,28 @@
 package f1.betting.poc;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import f1.betting.poc.domain.EventDetails;
+import f1.betting.poc.domain.EventResult;
+import f1.betting.poc.provider.openf1.dto.DriverRawDto;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
@@ -17,6 +32,15 @@ public class CacheConfig {
 	@Value("${app.cache.ttl-minutes:60}")
 	private long ttlMinutes;
 
+	@Value("${app.cache.shared.enabled:false}")
+	private boolean shared;
+
+	@Value("${app.cache.shared.local-ttl:5m}")
+	private Duration localTtl;
+
+	@Value("${app.cache.shared.key-prefix:event-service}")
+	private String keyPrefix;
+
 	@Bean
 	public Caffeine<Object, Object> caffeineConfig() {
 		return Caffeine.newBuilder()
@@ -25,10 +49,49 @@ public class CacheConfig {
 	}
 
 	@Bean
-	public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
-		CaffeineCacheManager manager = new CaffeineCacheManager("driversBySession","events","eventById");
+	public CacheManager cacheManager(
+			Caffeine<Object, Object> caffeine,
+			ObservationRegistry observationRegistry,
+			StringRedisTemplate redis,
+			SharedRedisBreaker breaker,
+			ObjectMapper objectMapper
+	) {
+		if (shared) {
+			// Decided at runtime rather than by a bean condition, so AOT-processed builds can still switch it on
+			return new TwoTierCacheManager(valueTypes(objectMapper.getTypeFactory()), localTtl,
+					Duration.ofMinutes(ttlMinutes), redis, breaker, sharedObjectMapper(objectMapper), keyPrefix, observationRegistry);
+		}
+		// Lookups are observed, so traces show cache hits and misses
+		CaffeineCacheManager manager = new CaffeineCacheManager() {
+			@Override
+			protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+				return new ObservedCache(super.adaptCaffeineCache(name, cache), observationRegistry);
+			}
+		};
 		manager.setCaffeine(caffeine);
+		manager.setCacheNames(List.of("driversBySession", "events", "eventById", "winnerBySession"));
 		return manager;
 	}
-}
 
+	/**
+	 * What each cache holds, to read its entries back from the shared tier. @Cacheable stores the content of an
+	 * Optional, so winnerBySession holds EventResult.
+	 */
+	private static Map<String, JavaType> valueTypes(TypeFactory types) {
+		Map<String, JavaType> valueTypes = new LinkedHashMap<>();
+		valueTypes.put("driversBySession", types.constructCollectionType(List.class, DriverRawDto.class));
+		valueTypes.put("events", types.constructCollectionType(List.class, EventDetails.class));
+		valueTypes.put("eventById", types.constructType(EventDetails.class));
+		valueTypes.put("winnerBySession", types.constructType(EventResult.class));
+		return valueTypes;
+	}
+
+	/**
+	 * Dates as ISO strings with their offset, so entries read back from the shared tier equal the ones written.
+	 */
+	private static ObjectMapper sharedObjectMapper(ObjectMapper objectMapper) {
+		return objectMapper.copy()
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE);
+	}
+}
@@ -0,0 +1,63 @@
+package f1.betting.poc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Listens for cache changes announced by other nodes when the shared cache is on (see {@link TwoTierCacheManager}).
+ * Does nothing with local caches only.
+ */
+@Component
+@Slf4j
+class CacheInvalidationSubscriber implements SmartLifecycle {
+
+	private final CacheManager cacheManager;
+	private final RedisConnectionFactory connectionFactory;
+	private RedisMessageListenerContainer container;
+
+	CacheInvalidationSubscriber(CacheManager cacheManager, RedisConnectionFactory connectionFactory) {
+		this.cacheManager = cacheManager;
+		this.connectionFactory = connectionFactory;
+	}
+
+	@Override
+	public void start() {
+		if (!(cacheManager instanceof TwoTierCacheManager twoTier)) return;
+		RedisMessageListenerContainer listener = new RedisMessageListenerContainer();
+		listener.setConnectionFactory(connectionFactory);
+		listener.addMessageListener((message, pattern) -> twoTier.onInvalidation(
+				new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(twoTier.channel()));
+		listener.afterPropertiesSet();
+		try {
+			listener.start();
+		} catch (RuntimeException ex) {
+			// Local entries then only expire by app.cache.shared.local-ttl
+			log.warn("Could not subscribe to {}, other nodes' cache changes will be missed", twoTier.channel(), ex);
+		}
+		container = listener;
+	}
+
+	@Override
+	public void stop() {
+		if (container == null) return;
+		container.stop();
+		try {
+			container.destroy();
+		} catch (Exception ex) {
+			log.debug("Could not release the cache invalidation listener", ex);
+		}
+		container = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return container != null;
+	}
+}
@@ -0,0 +1,145 @@
+package f1.betting.poc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import f1.betting.poc.domain.EventDetails;
+import f1.betting.poc.provider.openf1.OpenF1Mapper;
+import f1.betting.poc.provider.openf1.dto.DriverRawDto;
+import f1.betting.poc.provider.openf1.dto.SessionRawDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Runs the event request path through the JIT before the node reports ready, so the first minute of real traffic
+ * is not served by the interpreter and C1 code. Each iteration
+ * <ul>
+ *     <li>deserializes and maps a synthetic OpenF1 session and driver roster, as a cache miss does</li>
+ *     <li>reads a synthetic event (negative session key) through {@link EventService} and the eventById cache</li>
+ *     <li>serializes it with the application's ObjectMapper, as the web layer does</li>
+ * </ul>
+ * OpenF1 is never called. The synthetic cache entries only go to this node's local tier (never to the shared cache)
+ * and are evicted afterwards. It stops after
+ * {@code app.jit-warmup.iterations} or {@code app.jit-warmup.max-duration}. Until then this "jitWarmUp" health,
+ * part of the readiness group, is OUT_OF_SERVICE.
+ */
+@Component
+@Slf4j
+public class JitWarmUp implements HealthIndicator {
+
+	private static final int EVENTS = 10;
+	private static final byte[] DRIVERS = driversJson();
+
+	private final EventService eventService;
+	private final OpenF1Mapper mapper;
+	private final CacheManager cacheManager;
+	private final ObjectMapper objectMapper;
+	private final boolean enabled;
+	private final int iterations;
+	private final Duration maxDuration;
+
+	private volatile boolean done;
+	private volatile int completed;
+	private volatile Duration took;
+	private Thread worker;
+
+	public JitWarmUp(
+			EventService eventService,
+			OpenF1Mapper mapper,
+			CacheManager cacheManager,
+			ObjectMapper objectMapper,
+			@Value("${app.jit-warmup.enabled:true}") boolean enabled,
+			@Value("${app.jit-warmup.iterations:5000}") int iterations,
+			@Value("${app.jit-warmup.max-duration:30s}") Duration maxDuration
+	) {
+		this.eventService = eventService;
+		this.mapper = mapper;
+		this.cacheManager = cacheManager;
+		this.objectMapper = objectMapper;
+		this.enabled = enabled;
+		this.iterations = iterations;
+		this.maxDuration = maxDuration;
+		this.done = !enabled;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	void start() {
+		if (!enabled) return;
+		worker = Thread.ofPlatform().name("jit-warmup").daemon().start(this::warmUp);
+	}
+
+	@PreDestroy
+	void stop() {
+		if (worker != null) worker.interrupt();
+	}
+
+	@Override
+	public Health health() {
+		Health.Builder health = done ? Health.up() : Health.outOfService();
+		health.withDetail("enabled", enabled).withDetail("iterations", completed);
+		if (took != null) health.withDetail("took", took.toString());
+		return health.build();
+	}
+
+	void warmUp() {
+		long start = System.nanoTime();
+		long deadline = start + maxDuration.toNanos();
+		Cache eventById = Objects.requireNonNull(cacheManager instanceof TwoTierCacheManager twoTier
+				? twoTier.getLocalCache("eventById")
+				: cacheManager.getCache("eventById"));
+		int i = 0;
+		try {
+			for (; i < iterations && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted(); i++) {
+				long sessionKey = -1 - i % EVENTS;
+				EventDetails event = mapper.toEventDetails(read(sessionJson(sessionKey), SessionRawDto[].class)[0]);
+				event.setDrivers(mapper.toDriverList(Arrays.asList(read(DRIVERS, DriverRawDto[].class))));
+				eventById.put(sessionKey, event);
+				objectMapper.writeValueAsBytes(eventService.getEvent(sessionKey));
+				completed = i + 1;
+			}
+		} catch (IOException ex) {
+			log.warn("JIT warm-up stopped after {} iterations", i, new UncheckedIOException(ex));
+		} catch (RuntimeException ex) {
+			log.warn("JIT warm-up stopped after {} iterations", i, ex);
+		} finally {
+			for (int e = 1; e <= EVENTS; e++) eventById.evict((long) -e);
+			took = Duration.ofNanos(System.nanoTime() - start);
+			done = true;
+			log.info("JIT warm-up ran {} event requests in {}", completed, took);
+		}
+	}
+
+	private <T> T read(byte[] json, Class<T> type) throws IOException {
+		return objectMapper.readValue(json, type);
+	}
+
+	private static byte[] sessionJson(long sessionKey) {
+		return ("[{\"session_key\":" + sessionKey + ",\"session_name\":\"Race\",\"session_type\":\"Race\","
+				+ "\"country_name\":\"Nowhere\",\"location\":\"Nowhere\",\"date_start\":\"2023-07-30T13:00:00+00:00\","
+				+ "\"date_end\":\"2023-07-30T15:00:00+00:00\",\"year\":2023}]").getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] driversJson() {
+		StringBuilder json = new StringBuilder("[");
+		for (int d = 1; d <= 20; d++) {
+			if (d > 1) json.append(',');
+			json.append("{\"driver_number\":").append(d).append(",\"full_name\":\"Warm-up Driver ").append(d)
+					.append("\",\"team_name\":\"Warm-up\",\"broadcast_name\":\"D ").append(d)
+					.append("\",\"country_code\":\"NWH\"}");
+		}
+		return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,119 @@
+package f1.betting.poc;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache decorator that records every lookup as a {@code cache.lookup} observation (a span when tracing is on),
+ * tagged with the cache name and whether it was a hit or a miss. On a miss the @Cacheable method runs after the
+ * lookup, so its own spans (OpenF1 calls, rate limiter waits) follow in the same trace.
+ */
+class ObservedCache implements Cache {
+
+	private final Cache delegate;
+	private final ObservationRegistry observationRegistry;
+
+	ObservedCache(Cache delegate, ObservationRegistry observationRegistry) {
+		this.delegate = delegate;
+		this.observationRegistry = observationRegistry;
+	}
+
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		Observation observation = lookup(key);
+		try {
+			ValueWrapper value = delegate.get(key);
+			observation.lowCardinalityKeyValue("result", value == null ? "miss" : "hit");
+			return value;
+		} catch (RuntimeException ex) {
+			observation.error(ex);
+			throw ex;
+		} finally {
+			observation.stop();
+		}
+	}
+
+	@Override
+	public <T> T get(Object key, Class<T> type) {
+		Observation observation = lookup(key);
+		try {
+			T value = delegate.get(key, type);
+			observation.lowCardinalityKeyValue("result", value == null ? "miss" : "hit");
+			return value;
+		} catch (RuntimeException ex) {
+			observation.error(ex);
+			throw ex;
+		} finally {
+			observation.stop();
+		}
+	}
+
+	@Override
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Observation observation = lookup(key);
+		boolean[] loaded = {false};
+		try (Observation.Scope scope = observation.openScope()) {
+			return delegate.get(key, () -> {
+				loaded[0] = true;
+				return valueLoader.call();
+			});
+		} catch (RuntimeException ex) {
+			observation.error(ex);
+			throw ex;
+		} finally {
+			observation.lowCardinalityKeyValue("result", loaded[0] ? "miss" : "hit");
+			observation.stop();
+		}
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		delegate.put(key, value);
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		return delegate.putIfAbsent(key, value);
+	}
+
+	@Override
+	public void evict(Object key) {
+		delegate.evict(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		return delegate.evictIfPresent(key);
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+	}
+
+	@Override
+	public boolean invalidate() {
+		return delegate.invalidate();
+	}
+
+	private Observation lookup(Object key) {
+		return Observation.createNotStarted("cache.lookup", observationRegistry)
+				.contextualName("cache " + delegate.getName())
+				.lowCardinalityKeyValue("cache", delegate.getName())
+				.highCardinalityKeyValue("key", String.valueOf(key))
+				.start();
+	}
+}
@@ -24,6 +24,12 @@ public class SecurityConfig {
 						.requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**").permitAll()
 						// Local-only endpoint (must be before broader permits)
 						.requestMatchers("/api/events/*/winner").access(localhostOnly())
+						// Flight recordings expose internals, so they are local-only too
+						.requestMatchers("/actuator/jfr", "/actuator/jfr/**").access(localhostOnly())
+						// Health and probes, for orchestrators and the startup benchmark
+						.requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+						// Cache warm-up progress (read-only)
+						.requestMatchers("/actuator/cachewarmup").permitAll()
 						// Public read-only event endpoints
 						.requestMatchers("/api/events").permitAll()
 						.requestMatchers("/api/events/*").permitAll()
@@ -0,0 +1,54 @@
+package f1.betting.poc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps callers of the shared Redis (the L2 cache tier, invalidation messages and the OpenF1 rate budget) from
+ * paying a connect or command timeout on every call while Redis is down.
+ * <p>
+ * After a failure Redis is skipped for {@code app.cache.shared.retry-after}, and callers use their local fallback
+ * straight away. Then a single caller tries Redis again: success closes the breaker, failure opens it for another
+ * period.
+ */
+@Component
+@Slf4j
+public class SharedRedisBreaker {
+
+	private final long retryAfterMillis;
+	// 0 while Redis is usable, otherwise when the next caller may try it again
+	private final AtomicLong unavailableUntil = new AtomicLong();
+
+	public SharedRedisBreaker(@Value("${app.cache.shared.retry-after:10s}") Duration retryAfter) {
+		this.retryAfterMillis = retryAfter.toMillis();
+	}
+
+	/**
+	 * Whether the caller should use Redis now. Once the period is over, only the first caller to ask gets true.
+	 */
+	public boolean allowCall() {
+		long until = unavailableUntil.get();
+		if (until == 0) return true;
+		long now = System.currentTimeMillis();
+		return now >= until && unavailableUntil.compareAndSet(until, now + retryAfterMillis);
+	}
+
+	public void succeeded() {
+		if (unavailableUntil.get() != 0 && unavailableUntil.getAndSet(0) != 0) {
+			log.info("Shared Redis is reachable again");
+		}
+	}
+
+	public void failed(DataAccessException ex) {
+		long previous = unavailableUntil.getAndSet(System.currentTimeMillis() + retryAfterMillis);
+		if (previous == 0) {
+			log.warn("Shared Redis unavailable, using local caches and rate limiter for at least {} ms: {}",
+					retryAfterMillis, ex.getMessage());
+		}
+	}
+}
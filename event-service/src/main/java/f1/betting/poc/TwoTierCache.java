@@ -0,0 +1,207 @@
+package f1.betting.poc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * A cache with a local Caffeine tier (L1) in front of a Redis tier (L2) shared by all event-service nodes.
+ * <ul>
+ *     <li>Reads try L1, then L2 (filling L1), so a value loaded from OpenF1 by one node is reused by every node</li>
+ *     <li>Writes go to both tiers; L2 entries expire after {@code app.cache.ttl-minutes}, L1 entries sooner</li>
+ *     <li>Writes and evictions are announced (see {@link TwoTierCacheManager}), so other nodes drop their L1 copy</li>
+ * </ul>
+ * Values are stored in L2 as JSON of the cache's value type. When Redis cannot be reached the cache works on L1 only,
+ * without waiting for Redis again until {@link SharedRedisBreaker} lets a call through.
+ */
+class TwoTierCache implements Cache {
+
+	private final Cache local;
+	private final TwoTierCacheManager manager;
+	private final StringRedisTemplate redis;
+	private final SharedRedisBreaker breaker;
+	private final ObjectMapper objectMapper;
+	private final JavaType valueType;
+	private final Duration ttl;
+	private final String keyPrefix;
+
+	TwoTierCache(Cache local, TwoTierCacheManager manager, StringRedisTemplate redis, SharedRedisBreaker breaker,
+				 ObjectMapper objectMapper, JavaType valueType, Duration ttl, String keyPrefix) {
+		this.local = local;
+		this.manager = manager;
+		this.redis = redis;
+		this.breaker = breaker;
+		this.objectMapper = objectMapper;
+		this.valueType = valueType;
+		this.ttl = ttl;
+		this.keyPrefix = keyPrefix + ":cache:" + local.getName() + ":";
+	}
+
+	@Override
+	public String getName() {
+		return local.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return local.getNativeCache();
+	}
+
+	/**
+	 * The local tier alone, for entries that must not leave this node.
+	 */
+	Cache local() {
+		return local;
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		ValueWrapper value = local.get(key);
+		if (value != null) return value;
+		String json = sharedGet(key);
+		if (json == null) return null;
+		Object shared = read(json);
+		local.put(key, shared);
+		return new SimpleValueWrapper(shared);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = wrapper == null ? null : wrapper.get();
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		return local.get(key, () -> {
+			String json = sharedGet(key);
+			if (json != null) return (T) read(json);
+			T value = valueLoader.call();
+			sharedPut(key, value);
+			return value;
+		});
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		local.put(key, value);
+		sharedPut(key, value);
+		manager.publish(getName(), key);
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		String json = write(value);
+		Boolean absent = shared(() -> redis.opsForValue().setIfAbsent(sharedKey(key), json, ttl));
+		if (Boolean.FALSE.equals(absent)) {
+			ValueWrapper existing = get(key);
+			if (existing != null) return existing;
+		}
+		return local.putIfAbsent(key, value);
+	}
+
+	@Override
+	public void evict(Object key) {
+		local.evict(key);
+		shared(() -> redis.delete(sharedKey(key)));
+		manager.publish(getName(), key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean present = local.evictIfPresent(key);
+		present |= Boolean.TRUE.equals(shared(() -> redis.delete(sharedKey(key))));
+		manager.publish(getName(), key);
+		return present;
+	}
+
+	@Override
+	public void clear() {
+		local.clear();
+		shared(() -> {
+			try (var keys = redis.scan(ScanOptions.scanOptions().match(keyPrefix + "*").count(1000).build())) {
+				keys.forEachRemaining(redis::delete);
+			}
+			return null;
+		});
+		manager.publish(getName(), null);
+	}
+
+	/**
+	 * Drop an entry from L1 after another node changed it. The key arrives as text, so entries are matched on the
+	 * same text form that names them in L2.
+	 */
+	@SuppressWarnings("unchecked")
+	void evictLocal(String key) {
+		((com.github.benmanes.caffeine.cache.Cache<Object, Object>) local.getNativeCache())
+				.asMap().keySet().removeIf(k -> String.valueOf(k).equals(key));
+	}
+
+	void clearLocal() {
+		local.clear();
+	}
+
+	private String sharedKey(Object key) {
+		return keyPrefix + key;
+	}
+
+	private String sharedGet(Object key) {
+		return shared(() -> redis.opsForValue().get(sharedKey(key)));
+	}
+
+	private void sharedPut(Object key, Object value) {
+		String json = write(value);
+		shared(() -> {
+			redis.opsForValue().set(sharedKey(key), json, ttl);
+			return null;
+		});
+	}
+
+	/**
+	 * A call to the L2 tier, skipped while the breaker is open.
+	 *
+	 * @return the call's result, or null when Redis was skipped or failed
+	 */
+	private <T> T shared(Supplier<T> call) {
+		if (!breaker.allowCall()) return null;
+		try {
+			T result = call.get();
+			breaker.succeeded();
+			return result;
+		} catch (DataAccessException ex) {
+			breaker.failed(ex);
+			return null;
+		}
+	}
+
+	private String write(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Cannot store " + getName() + " entry in the shared cache", ex);
+		}
+	}
+
+	private Object read(String json) {
+		try {
+			return objectMapper.readValue(json, valueType);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Cannot read " + getName() + " entry from the shared cache", ex);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package f1.betting.poc;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link TwoTierCache}s for the given cache names and value types, each observed like the local caches.
+ * <p>
+ * Writes and evictions are published on the {@code <key-prefix>:cache-invalidation} channel as
+ * {@code "<node> <cache> [<key>]"} (no key: the whole cache); every other node drops the entry from its L1
+ * (see CacheInvalidationSubscriber) and reads it from L2 next time. A message missed while a node is disconnected
+ * is corrected when its L1 entry expires ({@code app.cache.shared.local-ttl}); so is one not sent while Redis is
+ * down.
+ */
+@Slf4j
+class TwoTierCacheManager implements CacheManager {
+
+	private final String node = UUID.randomUUID().toString();
+	private final StringRedisTemplate redis;
+	private final SharedRedisBreaker breaker;
+	private final String channel;
+	private final Map<String, TwoTierCache> caches = new LinkedHashMap<>();
+	private final Map<String, Cache> observed = new LinkedHashMap<>();
+
+	TwoTierCacheManager(Map<String, JavaType> valueTypes, Duration localTtl, Duration ttl, StringRedisTemplate redis,
+						SharedRedisBreaker breaker, ObjectMapper objectMapper, String keyPrefix,
+						ObservationRegistry observationRegistry) {
+		this.redis = redis;
+		this.breaker = breaker;
+		this.channel = keyPrefix + ":cache-invalidation";
+		Caffeine<Object, Object> caffeine = Caffeine.newBuilder().expireAfterWrite(localTtl).maximumSize(1000);
+		valueTypes.forEach((name, type) -> {
+			TwoTierCache cache = new TwoTierCache(new CaffeineCache(name, caffeine.build()), this, redis, breaker,
+					objectMapper, type, ttl, keyPrefix);
+			caches.put(name, cache);
+			observed.put(name, new ObservedCache(cache, observationRegistry));
+		});
+	}
+
+	@Override
+	public Cache getCache(String name) {
+		return observed.get(name);
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return observed.keySet();
+	}
+
+	/**
+	 * The L1 tier of a cache alone: entries put there stay on this node and are not announced.
+	 */
+	Cache getLocalCache(String name) {
+		TwoTierCache cache = caches.get(name);
+		return cache == null ? null : cache.local();
+	}
+
+	String channel() {
+		return channel;
+	}
+
+	void publish(String cacheName, Object key) {
+		if (!breaker.allowCall()) return;
+		String message = node + " " + cacheName + (key == null ? "" : " " + key);
+		try {
+			redis.convertAndSend(channel, message);
+			breaker.succeeded();
+		} catch (DataAccessException ex) {
+			breaker.failed(ex);
+			log.debug("Could not announce a change to {}: {}", cacheName, ex.getMessage());
+		}
+	}
+
+	void onInvalidation(String message) {
+		String[] parts = message.split(" ", 3);
+		if (parts.length < 2 || parts[0].equals(node)) return;
+		TwoTierCache cache = caches.get(parts[1]);
+		if (cache == null) return;
+		if (parts.length == 2) {
+			cache.clearLocal();
+		} else {
+			cache.evictLocal(parts[2]);
+		}
+	}
+}
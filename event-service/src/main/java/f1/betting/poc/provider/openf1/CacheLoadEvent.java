@@ -0,0 +1,38 @@
+package f1.betting.poc.provider.openf1;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the computation of a cache entry after a miss, i.e. the body of a @Cacheable method.
+ */
+@Name("f1.betting.CacheLoad")
+@Label("Cache Load")
+@Category({"F1 Betting", "Event Service"})
+@Description("Load of an entry missing from a cache")
+@StackTrace(false)
+class CacheLoadEvent extends Event {
+
+	@Label("Cache")
+	String cache;
+
+	@Label("Key")
+	String key;
+
+	static CacheLoadEvent start(String cache, Object key) {
+		CacheLoadEvent event = new CacheLoadEvent();
+		event.cache = cache;
+		event.key = String.valueOf(key);
+		event.begin();
+		return event;
+	}
+
+	void finish() {
+		end();
+		if (shouldCommit()) commit();
+	}
+}
@@ -0,0 +1,43 @@
+package f1.betting.poc.provider.openf1;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * "cacheWarmUp" health, part of the readiness group: OUT_OF_SERVICE while the cache warm-up is running when
+ * {@code app.warmup.gate-readiness} is set, for at most {@code app.warmup.readiness-timeout}. UP otherwise.
+ */
+@Component
+class CacheWarmUpHealthIndicator implements HealthIndicator {
+
+	private final OpenF1CacheWarmer warmer;
+	private final boolean gateReadiness;
+	private final Duration readinessTimeout;
+
+	CacheWarmUpHealthIndicator(
+			OpenF1CacheWarmer warmer,
+			@Value("${app.warmup.gate-readiness:false}") boolean gateReadiness,
+			@Value("${app.warmup.readiness-timeout:10m}") Duration readinessTimeout
+	) {
+		this.warmer = warmer;
+		this.gateReadiness = gateReadiness;
+		this.readinessTimeout = readinessTimeout;
+	}
+
+	@Override
+	public Health health() {
+		Health.Builder health = ready() ? Health.up() : Health.outOfService();
+		return health.withDetails(warmer.progress()).build();
+	}
+
+	private boolean ready() {
+		if (!gateReadiness || warmer.isDone()) return true;
+		Instant startedAt = warmer.startedAt();
+		return startedAt != null && startedAt.plus(readinessTimeout).isBefore(Instant.now());
+	}
+}
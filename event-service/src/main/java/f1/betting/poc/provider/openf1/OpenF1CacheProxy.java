@@ -22,9 +22,14 @@ public class OpenF1CacheProxy {
 
 	@Cacheable("driversBySession")
 	public List<DriverRawDto> getDriversForSession(Long sessionKey) {
-		String url = baseUrl + "/drivers?session_key=" + sessionKey;
-		log.info("Calling drivers API: {}", url);
-		DriverRawDto[] response = restTemplate.getForObject(url, DriverRawDto[].class);
-		return response != null ? Arrays.asList(response) : Collections.emptyList();
+		CacheLoadEvent load = CacheLoadEvent.start("driversBySession", sessionKey);
+		try {
+			String url = baseUrl + "/drivers?session_key=" + sessionKey;
+			log.info("Calling drivers API: {}", url);
+			DriverRawDto[] response = OpenF1CallEvent.fetch(restTemplate, "drivers", url, DriverRawDto[].class);
+			return response != null ? Arrays.asList(response) : Collections.emptyList();
+		} finally {
+			load.finish();
+		}
 	}
 }
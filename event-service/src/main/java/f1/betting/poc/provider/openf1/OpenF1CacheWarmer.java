@@ -0,0 +1,204 @@
+package f1.betting.poc.provider.openf1;
+
+import f1.betting.poc.domain.EventDetails;
+import f1.betting.poc.provider.openf1.dto.SessionRawDto;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Loads the seasons in {@code app.warmup.years} into the caches after startup, so the first requests after a
+ * deploy do not pay for them:
+ * <ul>
+ *     <li>events: the session catalog of each season, as requested by {@code GET /api/events?year=...}</li>
+ *     <li>eventById and driversBySession: every session of the season with its drivers</li>
+ *     <li>winnerBySession: winners of the sessions that have finished</li>
+ * </ul>
+ * Warm-up runs in the background and only takes an OpenF1 permit while more than {@code app.warmup.reserved-permits}
+ * are left in the current period, so user requests keep most of the rate budget. Entries already cached, e.g. by
+ * another node through the shared cache, are not loaded again. Progress is reported at
+ * {@code /actuator/cachewarmup}; with {@code app.warmup.gate-readiness} the readiness probe waits for it
+ * (see CacheWarmUpHealthIndicator).
+ */
+@Component
+@Endpoint(id = "cachewarmup")
+@Slf4j
+public class OpenF1CacheWarmer {
+
+	enum State { DISABLED, PENDING, RUNNING, COMPLETED, INTERRUPTED }
+
+	private final OpenF1ProviderAdapter adapter;
+	private final CacheManager cacheManager;
+	private final OpenF1RateBudget rateBudget;
+	private final List<Integer> years;
+	private final int reservedPermits;
+
+	private final AtomicInteger seasonsWarmed = new AtomicInteger();
+	private final AtomicInteger sessionsTotal = new AtomicInteger();
+	private final AtomicInteger sessionsWarmed = new AtomicInteger();
+	private final AtomicInteger winnersWarmed = new AtomicInteger();
+	private final AtomicInteger failures = new AtomicInteger();
+	private volatile State state;
+	private volatile Instant startedAt;
+	private volatile Instant finishedAt;
+	private Thread worker;
+
+	public OpenF1CacheWarmer(
+			OpenF1ProviderAdapter adapter,
+			CacheManager cacheManager,
+			OpenF1RateBudget rateBudget,
+			@Value("${app.warmup.years:}") List<Integer> years,
+			@Value("${app.warmup.reserved-permits:2}") int reservedPermits
+	) {
+		this.adapter = adapter;
+		this.cacheManager = cacheManager;
+		this.rateBudget = rateBudget;
+		this.years = years.stream().filter(Objects::nonNull).toList();
+		this.reservedPermits = reservedPermits;
+		this.state = this.years.isEmpty() ? State.DISABLED : State.PENDING;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	void start() {
+		if (state != State.PENDING) return;
+		worker = Thread.ofPlatform().name("cache-warmup").daemon().start(this::warmUp);
+	}
+
+	@PreDestroy
+	void stop() {
+		if (worker != null) worker.interrupt();
+	}
+
+	@ReadOperation
+	public Map<String, Object> progress() {
+		Map<String, Object> progress = new LinkedHashMap<>();
+		progress.put("state", state.name());
+		progress.put("years", years);
+		progress.put("seasonsWarmed", seasonsWarmed.get());
+		progress.put("sessionsTotal", sessionsTotal.get());
+		progress.put("sessionsWarmed", sessionsWarmed.get());
+		progress.put("winnersWarmed", winnersWarmed.get());
+		progress.put("failures", failures.get());
+		if (startedAt != null) progress.put("startedAt", startedAt);
+		if (finishedAt != null) progress.put("finishedAt", finishedAt);
+		return progress;
+	}
+
+	/**
+	 * True once there is nothing left to wait for: warm-up finished, was stopped or has nothing to load.
+	 */
+	public boolean isDone() {
+		return state != State.PENDING && state != State.RUNNING;
+	}
+
+	Instant startedAt() {
+		return startedAt;
+	}
+
+	/**
+	 * Warm every configured season in turn. A failed session is counted and skipped; its season's catalog is
+	 * then left to the first request, since a cached catalog must be complete.
+	 */
+	void warmUp() {
+		state = State.RUNNING;
+		startedAt = Instant.now();
+		log.info("Warming caches for seasons {}", years);
+		try {
+			for (Integer year : years) {
+				warmSeason(year);
+				seasonsWarmed.incrementAndGet();
+			}
+			state = State.COMPLETED;
+			log.info("Cache warm-up completed: {} sessions, {} winners, {} failures in {}", sessionsWarmed.get(),
+					winnersWarmed.get(), failures.get(), Duration.between(startedAt, Instant.now()));
+		} catch (InterruptedException ex) {
+			state = State.INTERRUPTED;
+			log.info("Cache warm-up stopped after {} sessions", sessionsWarmed.get());
+		} finally {
+			finishedAt = Instant.now();
+		}
+	}
+
+	private void warmSeason(int year) throws InterruptedException {
+		// Same key as getEvents(null, null, year)
+		String catalogKey = "null-null-" + year;
+		if (cache("events").get(catalogKey) != null) {
+			log.info("Season {} is already cached", year);
+			return;
+		}
+		SessionRawDto[] sessions;
+		try {
+			sessions = call(() -> adapter.fetchSessions(null, null, year));
+		} catch (RuntimeException ex) {
+			failures.incrementAndGet();
+			log.warn("Could not load the {} session catalog for warm-up", year, ex);
+			return;
+		}
+		sessionsTotal.addAndGet(sessions.length);
+
+		OffsetDateTime now = OffsetDateTime.now();
+		List<EventDetails> events = new ArrayList<>(sessions.length);
+		for (SessionRawDto session : sessions) {
+			try {
+				EventDetails event = cache("eventById").get(session.getSessionKey(), EventDetails.class);
+				if (event == null) {
+					EventDetails loaded = call(() -> adapter.withDrivers(session));
+					cache("eventById").putIfAbsent(loaded.getSessionKey(), loaded);
+					event = loaded;
+				}
+				events.add(event);
+				sessionsWarmed.incrementAndGet();
+				if (event.getDateEnd() != null && event.getDateEnd().isBefore(now) && winner(event.getSessionKey())) {
+					winnersWarmed.incrementAndGet();
+				}
+			} catch (RuntimeException ex) {
+				failures.incrementAndGet();
+				log.warn("Could not warm session {}", session.getSessionKey(), ex);
+			}
+		}
+		if (events.size() == sessions.length) {
+			cache("events").putIfAbsent(catalogKey, events);
+		}
+	}
+
+	private boolean winner(Long sessionKey) throws InterruptedException {
+		if (cache("winnerBySession").get(sessionKey) != null) return true;
+		return call(() -> adapter.getWinner(sessionKey)).isPresent();
+	}
+
+	/**
+	 * Run one OpenF1 call once a permit can be taken without going below the permits reserved for user requests.
+	 */
+	private <T> T call(Supplier<T> upstreamCall) throws InterruptedException {
+		RateLimiterConfig config = rateBudget.config();
+		int reserved = Math.min(reservedPermits, config.getLimitForPeriod() - 1);
+		Duration pause = config.getLimitRefreshPeriod().dividedBy(config.getLimitForPeriod());
+		while (!rateBudget.tryAcquire(reserved)) {
+			Thread.sleep(pause);
+		}
+		return upstreamCall.get();
+	}
+
+	private Cache cache(String name) {
+		return Objects.requireNonNull(cacheManager.getCache(name), name);
+	}
+}
@@ -0,0 +1,55 @@
+package f1.betting.poc.provider.openf1;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * JFR event spanning one HTTP call to OpenF1.
+ */
+@Name("f1.betting.OpenF1Call")
+@Label("OpenF1 Call")
+@Category({"F1 Betting", "Event Service"})
+@Description("Outbound call to the OpenF1 API")
+@StackTrace(false)
+class OpenF1CallEvent extends Event {
+
+	@Label("Endpoint")
+	String endpoint;
+
+	@Label("URL")
+	String url;
+
+	@Label("Results")
+	int results;
+
+	@Label("Failure")
+	String failure;
+
+	/**
+	 * GET an OpenF1 array resource, recording the call.
+	 */
+	static <T> T[] fetch(RestTemplate restTemplate, String endpoint, String url, Class<T[]> responseType) {
+		OpenF1CallEvent event = new OpenF1CallEvent();
+		event.begin();
+		try {
+			T[] response = restTemplate.getForObject(url, responseType);
+			event.results = response == null ? 0 : response.length;
+			return response;
+		} catch (RuntimeException ex) {
+			event.failure = ex.getClass().getSimpleName();
+			throw ex;
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.endpoint = endpoint;
+				event.url = url;
+				event.commit();
+			}
+		}
+	}
+}
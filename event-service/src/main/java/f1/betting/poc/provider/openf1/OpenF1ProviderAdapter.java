@@ -5,8 +5,8 @@ import f1.betting.poc.domain.EventDetails;
 import f1.betting.poc.domain.EventResult;
 import f1.betting.poc.provider.ProviderAdapter;
 import f1.betting.poc.provider.openf1.dto.*;
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,7 +17,6 @@ import org.springframework.web.client.RestTemplate;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Component
@@ -27,8 +26,9 @@ public class OpenF1ProviderAdapter implements ProviderAdapter {
 
 	private final OpenF1Mapper mapper;
 	private final RestTemplate restTemplate;
-	private final RateLimiterRegistry rateLimiterRegistry;
+	private final OpenF1RateBudget rateBudget;
 	private final OpenF1CacheProxy cacheProxy;
+	private final ObservationRegistry observationRegistry;
 
 	@Value("${openf1.base-url:https://api.openf1.org/v1}")
 	private String baseUrl;
@@ -36,32 +36,24 @@ public class OpenF1ProviderAdapter implements ProviderAdapter {
 	@Override
 	@Cacheable(value = "eventById", key = "#eventKey")
 	public EventDetails getEvent( Long eventKey ) {
-		String url = baseUrl + "/sessions";
-		StringBuilder sb = new StringBuilder(url).append("?");
-		sb.append("session_key=").append(eventKey);
-
-		String fullUrl = sb.toString();
-		log.info("Calling event API: {}", fullUrl);
-		SessionRawDto[] sessions = restTemplate.getForObject(fullUrl, SessionRawDto[].class);
-		if (sessions == null || sessions.length == 0) return null;
-		SessionRawDto session = sessions[0];
-
-		RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter("openf1");
-		EventDetails ed = mapper.toEventDetails(session);
-
-		// Wrap driver fetch in a rate-limited supplier
-		rateLimiter.acquirePermission();
-		Supplier<List<DriverRawDto>> supplier = RateLimiter.decorateSupplier(rateLimiter,
-				() -> cacheProxy.getDriversForSession(session.getSessionKey()));
-
-		List<DriverRawDto> driverDtos = supplier.get(); // will respect rate limit
-		List<Driver> drivers = mapper.toDriverList(driverDtos)
-				.stream()
-				.peek(d -> d.setOdds(ThreadLocalRandom.current().nextInt(2, 5)))
-				.collect(Collectors.toList());
-
-		ed.setDrivers(drivers);
-		return ed;
+		CacheLoadEvent load = CacheLoadEvent.start("eventById", eventKey);
+		try {
+			String url = baseUrl + "/sessions";
+			StringBuilder sb = new StringBuilder(url).append("?");
+			sb.append("session_key=").append(eventKey);
+
+			String fullUrl = sb.toString();
+			log.info("Calling event API: {}", fullUrl);
+			SessionRawDto[] sessions = OpenF1CallEvent.fetch(restTemplate, "sessions", fullUrl, SessionRawDto[].class);
+			if (sessions == null || sessions.length == 0) return null;
+			SessionRawDto session = sessions[0];
+
+			EventDetails ed = mapper.toEventDetails(session);
+			ed.setDrivers(fetchDrivers(session.getSessionKey()));
+			return ed;
+		} finally {
+			load.finish();
+		}
 	}
 
 	/**
@@ -70,6 +62,30 @@ public class OpenF1ProviderAdapter implements ProviderAdapter {
 	@Override
 	@Cacheable(value = "events", key = "#sessionType + '-' + #country + '-' + #year")
 	public List<EventDetails> getEvents(String sessionType, String country, Integer year) {
+		CacheLoadEvent load = CacheLoadEvent.start("events", sessionType + "-" + country + "-" + year);
+		try {
+			return fetchEvents(sessionType, country, year);
+		} finally {
+			load.finish();
+		}
+	}
+
+	private List<EventDetails> fetchEvents(String sessionType, String country, Integer year) {
+		SessionRawDto[] sessions = fetchSessions(sessionType, country, year);
+
+		List<EventDetails> result = new ArrayList<>();
+		for (SessionRawDto s : sessions) {
+			EventDetails ed = mapper.toEventDetails(s);
+			ed.setDrivers(fetchDrivers(s.getSessionKey()));
+			result.add(ed);
+		}
+		return result;
+	}
+
+	/**
+	 * Sessions matching the filters, without drivers. Does not take a rate limiter permit.
+	 */
+	public SessionRawDto[] fetchSessions(String sessionType, String country, Integer year) {
 		String url = baseUrl + "/sessions";
 		StringBuilder sb = new StringBuilder(url).append("?");
 
@@ -79,39 +95,27 @@ public class OpenF1ProviderAdapter implements ProviderAdapter {
 
 		String fullUrl = sb.toString();
 		log.info("Calling event API: {}", fullUrl);
-		SessionRawDto[] sessions = restTemplate.getForObject(fullUrl, SessionRawDto[].class);
-		if (sessions == null) return Collections.emptyList();
-
-		RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter("openf1");
-
-		List<EventDetails> result = new ArrayList<>();
-		for (SessionRawDto s : sessions) {
-			EventDetails ed = mapper.toEventDetails(s);
-
-			// Wrap driver fetch in a rate-limited supplier
-			rateLimiter.acquirePermission();
-			Supplier<List<DriverRawDto>> supplier = RateLimiter.decorateSupplier(rateLimiter,
-					() -> cacheProxy.getDriversForSession(s.getSessionKey()));
-
-			List<DriverRawDto> driverDtos = supplier.get(); // will respect rate limit
-			List<Driver> drivers = mapper.toDriverList(driverDtos)
-					.stream()
-					.peek(d -> d.setOdds(ThreadLocalRandom.current().nextInt(2, 5)))
-					.collect(Collectors.toList());
+		SessionRawDto[] sessions = OpenF1CallEvent.fetch(restTemplate, "sessions", fullUrl, SessionRawDto[].class);
+		return sessions == null ? new SessionRawDto[0] : sessions;
+	}
 
-			ed.setDrivers(drivers);
-			result.add(ed);
-		}
-		return result;
+	/**
+	 * A session with its (cached) drivers and odds, for callers that have already taken a rate limiter permit.
+	 */
+	public EventDetails withDrivers(SessionRawDto session) {
+		EventDetails ed = mapper.toEventDetails(session);
+		ed.setDrivers(withOdds(cacheProxy.getDriversForSession(session.getSessionKey())));
+		return ed;
 	}
 
 	/**
-	 * Get winner for a session based on position = 1
+	 * Get winner for a session based on position = 1. Winners are cached once known; a session without one is not.
 	 */
 	@Override
+	@Cacheable(value = "winnerBySession", unless = "#result == null")
  public Optional<EventResult> getWinner(Long sessionKey) {
 		String url = baseUrl + "/position?session_key=" + sessionKey;
-		ResultRawDto[] results = restTemplate.getForObject(url, ResultRawDto[].class);
+		ResultRawDto[] results = OpenF1CallEvent.fetch(restTemplate, "position", url, ResultRawDto[].class);
 		if (results == null || results.length == 0) {
 			return Optional.empty();
 		}
@@ -126,4 +130,26 @@ public class OpenF1ProviderAdapter implements ProviderAdapter {
 						.providerFetchedAt(OffsetDateTime.now())
 						.build());
 	}
+
+	/**
+	 * Drivers of a session with odds, once the rate budget lets the (possibly cached) drivers call through.
+	 * The wait for the permit is observed (a span in traces) and recorded as a RateLimiterWait JFR event.
+	 */
+	private List<Driver> fetchDrivers(Long sessionKey) {
+		Boolean permitted = Observation.createNotStarted("openf1.rate-limiter.wait", observationRegistry)
+				.contextualName("rate limiter wait")
+				.lowCardinalityKeyValue("rate-limiter", rateBudget.name())
+				.observe(() -> RateLimiterWaitEvent.acquire(rateBudget));
+		if (!Boolean.TRUE.equals(permitted)) {
+			throw rateBudget.notPermitted();
+		}
+		return withOdds(cacheProxy.getDriversForSession(sessionKey));
+	}
+
+	private List<Driver> withOdds(List<DriverRawDto> driverDtos) {
+		return mapper.toDriverList(driverDtos)
+				.stream()
+				.peek(d -> d.setOdds(ThreadLocalRandom.current().nextInt(2, 5)))
+				.collect(Collectors.toList());
+	}
 }
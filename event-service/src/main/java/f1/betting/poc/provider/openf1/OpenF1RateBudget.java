@@ -0,0 +1,126 @@
+package f1.betting.poc.provider.openf1;
+
+import f1.betting.poc.SharedRedisBreaker;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The OpenF1 rate budget: {@code limit-for-period} calls per {@code limit-refresh-period} of the "openf1" rate limiter.
+ * <p>
+ * By default every node enforces it on its own with the resilience4j limiter. With {@code app.cache.shared.enabled}
+ * the budget is a single Redis counter per period shared by all event-service nodes, so scaling out does not scale
+ * up OpenF1 calls. If Redis cannot be reached, the local limiter takes over until it is back, without waiting for
+ * Redis on every call while {@link SharedRedisBreaker} is open.
+ */
+@Component
+@Slf4j
+public class OpenF1RateBudget {
+
+	static final String NAME = "openf1";
+
+	/**
+	 * Take a permit from the current period (by Redis server time, so node clocks do not matter) unless fewer than
+	 * ARGV[2] would be left. Returns 0 when taken, otherwise the milliseconds until the next period.
+	 */
+	private static final RedisScript<Long> TAKE = RedisScript.of("""
+			local now = redis.call('TIME')
+			local ms = tonumber(now[1]) * 1000 + math.floor(tonumber(now[2]) / 1000)
+			local period = tonumber(ARGV[3])
+			local key = KEYS[1] .. ':' .. math.floor(ms / period)
+			local used = tonumber(redis.call('GET', key) or '0')
+			if used + tonumber(ARGV[2]) >= tonumber(ARGV[1]) then
+				return period - ms % period
+			end
+			redis.call('INCR', key)
+			redis.call('PEXPIRE', key, period * 2)
+			return 0
+			""", Long.class);
+
+	private final RateLimiter rateLimiter;
+	private final StringRedisTemplate redis;
+	private final SharedRedisBreaker breaker;
+	private final boolean shared;
+	private final String key;
+
+	public OpenF1RateBudget(
+			RateLimiterRegistry rateLimiterRegistry,
+			StringRedisTemplate redis,
+			SharedRedisBreaker breaker,
+			@Value("${app.cache.shared.enabled:false}") boolean shared,
+			@Value("${app.cache.shared.key-prefix:event-service}") String keyPrefix
+	) {
+		this.rateLimiter = rateLimiterRegistry.rateLimiter(NAME);
+		this.redis = redis;
+		this.breaker = breaker;
+		this.shared = shared;
+		this.key = keyPrefix + ":rate:" + NAME;
+	}
+
+	public String name() {
+		return rateLimiter.getName();
+	}
+
+	public RateLimiterConfig config() {
+		return rateLimiter.getRateLimiterConfig();
+	}
+
+	/**
+	 * Take a permit, waiting for at most the limiter's {@code timeout-duration}.
+	 */
+	public boolean acquire() {
+		if (!shared) return rateLimiter.acquirePermission();
+		long deadline = System.nanoTime() + config().getTimeoutDuration().toNanos();
+		while (true) {
+			Long wait = take(0);
+			if (wait == null) return rateLimiter.acquirePermission();
+			if (wait == 0) return true;
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) return false;
+			LockSupport.parkNanos(Math.min(TimeUnit.MILLISECONDS.toNanos(wait), remaining));
+			if (Thread.currentThread().isInterrupted()) return false;
+		}
+	}
+
+	/**
+	 * Take a permit only while more than {@code reserved} are left in the current period, without waiting for the
+	 * next one. Used by background work that must leave most of the budget to user requests.
+	 */
+	public boolean tryAcquire(int reserved) {
+		if (shared) {
+			Long wait = take(reserved);
+			if (wait != null) return wait == 0;
+		}
+		return rateLimiter.getMetrics().getAvailablePermissions() > reserved && rateLimiter.acquirePermission();
+	}
+
+	RequestNotPermitted notPermitted() {
+		return RequestNotPermitted.createRequestNotPermitted(rateLimiter);
+	}
+
+	private Long take(int reserved) {
+		if (!breaker.allowCall()) return null;
+		RateLimiterConfig config = config();
+		try {
+			Long wait = redis.execute(TAKE, List.of(key), String.valueOf(config.getLimitForPeriod()), String.valueOf(reserved),
+					String.valueOf(config.getLimitRefreshPeriod().toMillis()));
+			breaker.succeeded();
+			return wait;
+		} catch (DataAccessException ex) {
+			breaker.failed(ex);
+			log.debug("Shared OpenF1 rate budget unavailable, using the local limiter: {}", ex.getMessage());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package f1.betting.poc.provider.openf1;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the wait for a rate limiter permit before an OpenF1 call.
+ */
+@Name("f1.betting.RateLimiterWait")
+@Label("Rate Limiter Wait")
+@Category({"F1 Betting", "Event Service"})
+@Description("Wait for an OpenF1 rate limiter permit")
+@StackTrace(false)
+class RateLimiterWaitEvent extends Event {
+
+	@Label("Rate Limiter")
+	String rateLimiter;
+
+	@Label("Permitted")
+	boolean permitted;
+
+	/**
+	 * Wait for a permit (up to the limiter's timeout), recording the wait.
+	 */
+	static boolean acquire(OpenF1RateBudget rateBudget) {
+		RateLimiterWaitEvent event = new RateLimiterWaitEvent();
+		event.begin();
+		boolean permitted = rateBudget.acquire();
+		event.end();
+		if (event.shouldCommit()) {
+			event.rateLimiter = rateBudget.name();
+			event.permitted = permitted;
+			event.commit();
+		}
+		return permitted;
+	}
+}
@@ -0,0 +1,129 @@
+package f1.betting.poc;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Import(TracingTestConfiguration.class)
+class EventTracingIntegrationTest {
+
+    static final AttributeKey<String> RESULT = AttributeKey.stringKey("result");
+    static final AttributeKey<String> CACHE = AttributeKey.stringKey("cache");
+
+    static final List<String> traceparents = new CopyOnWriteArrayList<>();
+    static final HttpServer openF1Stub = startOpenF1Stub();
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    InMemorySpanExporter spanExporter;
+    @Autowired
+    SdkTracerProvider tracerProvider;
+
+    Faker faker = new Faker();
+
+    @DynamicPropertySource
+    static void openF1(DynamicPropertyRegistry registry) {
+        registry.add("openf1.base-url", () -> "http://localhost:" + openF1Stub.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopStub() {
+        openF1Stub.stop(0);
+    }
+
+    @Test
+    void eventRequestShouldContinueCallerTraceThroughCacheAndOpenF1() throws Exception {
+        // Given: a caller (user-betting) trace
+        long sessionKey = faker.number().numberBetween(1, Integer.MAX_VALUE);
+        String traceId = HexFormat.of().formatHex(randomBytes(16));
+        String traceparent = "00-" + traceId + "-" + HexFormat.of().formatHex(randomBytes(8)) + "-01";
+
+        // When: the event is requested twice within that trace
+        mockMvc.perform(get("/api/events/" + sessionKey).header("traceparent", traceparent)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/events/" + sessionKey).header("traceparent", traceparent)).andExpect(status().isOk());
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        // Then
+        List<SpanData> trace = spanExporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .toList();
+        assertThat(trace).filteredOn(span -> "eventById".equals(span.getAttributes().get(CACHE)))
+                .extracting(span -> span.getAttributes().get(RESULT))
+                .containsExactly("miss", "hit");
+        assertThat(trace).anySatisfy(span -> assertThat(span.getName()).isEqualTo("rate limiter wait"));
+        assertThat(trace).filteredOn(span -> span.getKind() == SpanKind.CLIENT).hasSize(2);
+        // both OpenF1 calls (sessions and drivers) carried the trace on
+        assertThat(traceparents).filteredOn(header -> header.contains(traceId)).hasSize(2);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+
+    private static HttpServer startOpenF1Stub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/sessions", exchange -> respond(exchange, "[{\"session_key\":" + sessionKey(exchange)
+                    + ",\"session_name\":\"Race\",\"session_type\":\"Race\",\"country_name\":\"Belgium\","
+                    + "\"date_start\":\"2023-07-30T13:00:00+00:00\",\"date_end\":\"2023-07-30T15:00:00+00:00\",\"year\":2023}]"));
+            server.createContext("/drivers", exchange -> respond(exchange, "[{\"session_key\":" + sessionKey(exchange)
+                    + ",\"driver_number\":1,\"full_name\":\"Max VERSTAPPEN\",\"team_name\":\"Red Bull Racing\"}]"));
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String sessionKey(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getQuery();
+        return query.substring(query.indexOf("session_key=") + "session_key=".length()).split("&")[0];
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        String traceparent = exchange.getRequestHeaders().getFirst("traceparent");
+        if (traceparent != null) traceparents.add(traceparent);
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.EventDetails;
+import f1.betting.poc.provider.openf1.OpenF1Mapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class JitWarmUpTest {
+
+    @Mock
+    private EventService eventService;
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("eventById");
+
+    @Test
+    @DisplayName("Should read synthetic events through the cache and evict them afterwards")
+    void warmUpShouldServeSyntheticEventsAndCleanUp() {
+        // Given: the service answers from the eventById cache, as the @Cacheable adapter does
+        Cache eventById = cacheManager.getCache("eventById");
+        given(eventService.getEvent(anyLong())).willAnswer(call -> eventById.get(call.getArgument(0), EventDetails.class));
+        JitWarmUp warmUp = new JitWarmUp(eventService, Mappers.getMapper(OpenF1Mapper.class), cacheManager,
+                new AppConfig().objectMapper(), true, 50, Duration.ofSeconds(30));
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        // When
+        warmUp.warmUp();
+
+        // Then
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(warmUp.health().getDetails()).containsEntry("iterations", 50);
+        assertThat(eventById.get(-1L)).isNull();
+        assertThat(eventById.get(-10L)).isNull();
+        verify(eventService, times(50)).getEvent(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should report ready straight away when disabled")
+    void disabledWarmUpShouldBeUp() {
+        JitWarmUp warmUp = new JitWarmUp(eventService, Mappers.getMapper(OpenF1Mapper.class), cacheManager,
+                new AppConfig().objectMapper(), false, 50, Duration.ofSeconds(30));
+
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+    }
+}
@@ -0,0 +1,191 @@
+package f1.betting.poc;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import f1.betting.poc.domain.EventDetails;
+import f1.betting.poc.provider.openf1.OpenF1RateBudget;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two event-service nodes sharing one Redis: OpenF1 responses loaded by one are served by the other, evictions
+ * reach the other node's local tier, and both draw from one OpenF1 rate budget. While Redis is down, a node serves
+ * requests without waiting for it on every call.
+ */
+class SharedCacheIntegrationTest {
+
+    static final GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+    static final AtomicInteger openF1Calls = new AtomicInteger();
+    static HttpServer openF1Stub;
+    static ConfigurableApplicationContext nodeA;
+    static ConfigurableApplicationContext nodeB;
+
+    Faker faker = new Faker();
+
+    @BeforeAll
+    static void startNodes() throws IOException {
+        redis.start();
+        openF1Stub = startOpenF1Stub();
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+        openF1Stub.stop(0);
+        redis.stop();
+    }
+
+    @BeforeEach
+    void flushRedis() throws Exception {
+        redis.execInContainer("redis-cli", "FLUSHALL");
+        nodeA.getBean(CacheManager.class).getCacheNames().forEach(name -> local(nodeA, name).clear());
+        nodeB.getBean(CacheManager.class).getCacheNames().forEach(name -> local(nodeB, name).clear());
+        openF1Calls.set(0);
+    }
+
+    @Test
+    void eventLoadedByOneNodeShouldBeServedByTheOther() {
+        // Given
+        long sessionKey = faker.number().numberBetween(1, Integer.MAX_VALUE);
+        EventDetails loaded = nodeA.getBean(EventService.class).getEvent(sessionKey);
+
+        // When
+        EventDetails shared = nodeB.getBean(EventService.class).getEvent(sessionKey);
+
+        // Then: one sessions and one drivers call in total, and the same odds on both nodes
+        assertThat(openF1Calls).hasValue(2);
+        assertThat(shared).isEqualTo(loaded);
+        assertThat(local(nodeB, "eventById").get(sessionKey)).isNotNull();
+    }
+
+    @Test
+    void evictionOnOneNodeShouldDropTheOtherNodesLocalCopy() throws InterruptedException {
+        // Given: the event is cached in both tiers and in node B's local tier
+        long sessionKey = faker.number().numberBetween(1, Integer.MAX_VALUE);
+        nodeA.getBean(EventService.class).getEvent(sessionKey);
+        nodeB.getBean(EventService.class).getEvent(sessionKey);
+
+        // When
+        nodeA.getBean(CacheManager.class).getCache("eventById").evict(sessionKey);
+
+        // Then
+        for (int i = 0; i < 100 && local(nodeB, "eventById").get(sessionKey) != null; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(local(nodeB, "eventById").get(sessionKey)).isNull();
+        nodeB.getBean(EventService.class).getEvent(sessionKey);
+        assertThat(openF1Calls).hasValue(3); // the session again; drivers are still cached
+    }
+
+    @Test
+    void nodesShouldShareOneRateBudget() {
+        // Given: 3 permits per period for all nodes together
+        OpenF1RateBudget budgetA = nodeA.getBean(OpenF1RateBudget.class);
+        OpenF1RateBudget budgetB = nodeB.getBean(OpenF1RateBudget.class);
+
+        // Then: background work keeping 2 permits in reserve gets one
+        assertThat(budgetA.tryAcquire(2)).isTrue();
+        assertThat(budgetB.tryAcquire(2)).isFalse();
+        // user requests get the rest, whichever node they arrive at
+        assertThat(budgetB.acquire()).isTrue();
+        assertThat(budgetA.acquire()).isTrue();
+        assertThat(budgetA.acquire()).isFalse();
+        assertThat(budgetB.acquire()).isFalse();
+    }
+
+    @Test
+    void nodeShouldNotWaitForRedisOnEveryCallWhileItIsDown() throws InterruptedException {
+        // Given: Redis stops answering, and a first request has waited for it once
+        EventService events = nodeA.getBean(EventService.class);
+        redis.getDockerClient().pauseContainerCmd(redis.getContainerId()).exec();
+        try {
+            events.getEvent(faker.number().numberBetween(1, Integer.MAX_VALUE));
+
+            // When
+            long start = System.nanoTime();
+            for (int i = 0; i < 10; i++) {
+                events.getEvent(faker.number().numberBetween(1, Integer.MAX_VALUE));
+            }
+            Duration took = Duration.ofNanos(System.nanoTime() - start);
+
+            // Then: still served, well below the 250ms command timeout per Redis call it would otherwise make
+            assertThat(openF1Calls).hasValue(22);
+            assertThat(took).isLessThan(Duration.ofSeconds(1));
+        } finally {
+            redis.getDockerClient().unpauseContainerCmd(redis.getContainerId()).exec();
+            // past app.cache.shared.retry-after, so the next call finds Redis again
+            Thread.sleep(2_500);
+        }
+    }
+
+    private static Cache local(ConfigurableApplicationContext node, String name) {
+        return ((TwoTierCacheManager) node.getBean(CacheManager.class)).getLocalCache(name);
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(EventServiceApplication.class).properties(
+                "server.port=0",
+                "openf1.base-url=http://localhost:" + openF1Stub.getAddress().getPort(),
+                "app.cache.shared.enabled=true",
+                "app.cache.shared.retry-after=2s",
+                "spring.data.redis.timeout=250ms",
+                "spring.data.redis.host=" + redis.getHost(),
+                "spring.data.redis.port=" + redis.getMappedPort(6379),
+                // one period for the whole test, without waiting for permits
+                "resilience4j.ratelimiter.instances.openf1.limit-refresh-period=1h",
+                "resilience4j.ratelimiter.instances.openf1.timeout-duration=0s",
+                "app.jit-warmup.enabled=false",
+                "jfr.continuous.enabled=false"
+        ).run();
+    }
+
+    private static HttpServer startOpenF1Stub() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/sessions", exchange -> respond(exchange, "[{\"session_key\":" + sessionKey(exchange)
+                + ",\"session_name\":\"Race\",\"session_type\":\"Race\",\"country_name\":\"Belgium\","
+                + "\"date_start\":\"2023-07-30T13:00:00+02:00\",\"date_end\":\"2023-07-30T15:00:00+02:00\",\"year\":2023}]"));
+        server.createContext("/drivers", exchange -> respond(exchange, "[{\"session_key\":" + sessionKey(exchange)
+                + ",\"driver_number\":1,\"full_name\":\"Max VERSTAPPEN\",\"team_name\":\"Red Bull Racing\"},"
+                + "{\"session_key\":" + sessionKey(exchange)
+                + ",\"driver_number\":16,\"full_name\":\"Charles LECLERC\",\"team_name\":\"Ferrari\"}]"));
+        server.start();
+        return server;
+    }
+
+    private static String sessionKey(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getQuery();
+        return query.substring(query.indexOf("session_key=") + "session_key=".length()).split("&")[0];
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        openF1Calls.incrementAndGet();
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package f1.betting.poc;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Keeps finished spans in memory so tests can assert on traces; use with @AutoConfigureObservability,
+ * since tracing is otherwise switched off in tests.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class TracingTestConfiguration {
+
+	@Bean
+	InMemorySpanExporter inMemorySpanExporter() {
+		return InMemorySpanExporter.create();
+	}
+}
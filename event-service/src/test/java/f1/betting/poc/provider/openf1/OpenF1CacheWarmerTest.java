@@ -0,0 +1,163 @@
+package f1.betting.poc.provider.openf1;
+
+import f1.betting.poc.domain.Driver;
+import f1.betting.poc.domain.EventDetails;
+import f1.betting.poc.domain.EventResult;
+import f1.betting.poc.provider.openf1.dto.SessionRawDto;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OpenF1CacheWarmerTest {
+
+    @Mock
+    private OpenF1ProviderAdapter adapter;
+
+    private final ConcurrentMapCacheManager cacheManager =
+            new ConcurrentMapCacheManager("driversBySession", "events", "eventById", "winnerBySession");
+    private final OpenF1RateBudget rateBudget = new OpenF1RateBudget(RateLimiterRegistry.of(RateLimiterConfig.custom()
+            .limitForPeriod(1000)
+            .limitRefreshPeriod(Duration.ofMillis(10))
+            .timeoutDuration(Duration.ZERO)
+            .build()), null, null, false, "test");
+
+    private final Faker faker = new Faker();
+    private int year;
+    private OpenF1CacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        year = faker.number().numberBetween(2023, 2026);
+        warmer = new OpenF1CacheWarmer(adapter, cacheManager, rateBudget, List.of(year), 2);
+    }
+
+    @Test
+    @DisplayName("Should cache the season catalog, every session and the winners of finished sessions")
+    void warmUpShouldFillCatalogSessionsAndWinners() {
+        // Given: one finished and one upcoming session
+        SessionRawDto finished = session();
+        SessionRawDto upcoming = session();
+        EventDetails finishedEvent = event(finished, OffsetDateTime.now().minusDays(1));
+        EventDetails upcomingEvent = event(upcoming, OffsetDateTime.now().plusDays(1));
+        EventResult winner = EventResult.builder().sessionKey(finished.getSessionKey()).winnerDriverNumber(1L).finished(true).build();
+        given(adapter.fetchSessions(null, null, year)).willReturn(new SessionRawDto[]{finished, upcoming});
+        given(adapter.withDrivers(finished)).willReturn(finishedEvent);
+        given(adapter.withDrivers(upcoming)).willReturn(upcomingEvent);
+        given(adapter.getWinner(finished.getSessionKey())).willReturn(Optional.of(winner));
+
+        // When
+        warmer.warmUp();
+
+        // Then
+        assertThat(cacheManager.getCache("events").get("null-null-" + year).get())
+                .isEqualTo(List.of(finishedEvent, upcomingEvent));
+        assertThat(cacheManager.getCache("eventById").get(finished.getSessionKey()).get()).isEqualTo(finishedEvent);
+        assertThat(cacheManager.getCache("eventById").get(upcoming.getSessionKey()).get()).isEqualTo(upcomingEvent);
+        verify(adapter, never()).getWinner(upcoming.getSessionKey());
+        assertThat(warmer.isDone()).isTrue();
+        assertThat(warmer.progress())
+                .containsEntry("state", "COMPLETED")
+                .containsEntry("seasonsWarmed", 1)
+                .containsEntry("sessionsTotal", 2)
+                .containsEntry("sessionsWarmed", 2)
+                .containsEntry("winnersWarmed", 1)
+                .containsEntry("failures", 0);
+    }
+
+    @Test
+    @DisplayName("Should skip failed sessions and leave an incomplete catalog uncached")
+    void warmUpShouldNotCacheIncompleteCatalog() {
+        // Given
+        SessionRawDto failing = session();
+        SessionRawDto upcoming = session();
+        EventDetails upcomingEvent = event(upcoming, OffsetDateTime.now().plusDays(1));
+        given(adapter.fetchSessions(null, null, year)).willReturn(new SessionRawDto[]{failing, upcoming});
+        given(adapter.withDrivers(failing)).willThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+        given(adapter.withDrivers(upcoming)).willReturn(upcomingEvent);
+
+        // When
+        warmer.warmUp();
+
+        // Then
+        assertThat(cacheManager.getCache("events").get("null-null-" + year)).isNull();
+        assertThat(cacheManager.getCache("eventById").get(upcoming.getSessionKey()).get()).isEqualTo(upcomingEvent);
+        assertThat(warmer.progress())
+                .containsEntry("state", "COMPLETED")
+                .containsEntry("sessionsWarmed", 1)
+                .containsEntry("failures", 1);
+    }
+
+    @Test
+    @DisplayName("Should not load sessions and winners that are already cached, e.g. by another node")
+    void warmUpShouldSkipCachedEntries() {
+        // Given: one finished session cached with its winner, and one not cached
+        SessionRawDto cached = session();
+        SessionRawDto missing = session();
+        EventDetails cachedEvent = event(cached, OffsetDateTime.now().minusDays(1));
+        EventDetails missingEvent = event(missing, OffsetDateTime.now().plusDays(1));
+        cacheManager.getCache("eventById").put(cached.getSessionKey(), cachedEvent);
+        cacheManager.getCache("winnerBySession").put(cached.getSessionKey(),
+                EventResult.builder().sessionKey(cached.getSessionKey()).winnerDriverNumber(1L).finished(true).build());
+        given(adapter.fetchSessions(null, null, year)).willReturn(new SessionRawDto[]{cached, missing});
+        given(adapter.withDrivers(missing)).willReturn(missingEvent);
+
+        // When
+        warmer.warmUp();
+
+        // Then
+        verify(adapter, never()).withDrivers(cached);
+        verify(adapter, never()).getWinner(cached.getSessionKey());
+        assertThat(cacheManager.getCache("events").get("null-null-" + year).get())
+                .isEqualTo(List.of(cachedEvent, missingEvent));
+        assertThat(warmer.progress())
+                .containsEntry("sessionsWarmed", 2)
+                .containsEntry("winnersWarmed", 1);
+    }
+
+    @Test
+    @DisplayName("Should report nothing to wait for when no seasons are configured")
+    void warmerWithoutYearsShouldBeDone() {
+        OpenF1CacheWarmer disabled = new OpenF1CacheWarmer(adapter, cacheManager, rateBudget, List.of(), 2);
+
+        assertThat(disabled.isDone()).isTrue();
+        assertThat(disabled.progress()).containsEntry("state", "DISABLED");
+    }
+
+    private SessionRawDto session() {
+        SessionRawDto session = new SessionRawDto();
+        session.setSessionKey((long) faker.number().numberBetween(1, Integer.MAX_VALUE));
+        session.setSessionName("Race-" + faker.lorem().word());
+        session.setYear(year);
+        return session;
+    }
+
+    private EventDetails event(SessionRawDto session, OffsetDateTime dateEnd) {
+        return EventDetails.builder()
+                .sessionKey(session.getSessionKey())
+                .sessionName(session.getSessionName())
+                .year(year)
+                .dateEnd(dateEnd)
+                .driver(Driver.builder().driverNumber(1L).fullName("D1").teamName("T1").odds(3).build())
+                .build();
+    }
+}
@@ -6,9 +6,9 @@ import f1.betting.poc.domain.EventResult;
 import f1.betting.poc.provider.openf1.dto.DriverRawDto;
 import f1.betting.poc.provider.openf1.dto.SessionRawDto;
 import f1.betting.poc.provider.openf1.dto.ResultRawDto;
-import io.github.resilience4j.ratelimiter.RateLimiter;
 import io.github.resilience4j.ratelimiter.RateLimiterConfig;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +17,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -44,10 +45,16 @@ class OpenF1ProviderAdapterTest {
     @Mock
     private RestTemplate restTemplate;
     @Mock
-    private RateLimiterRegistry rateLimiterRegistry;
-    @Mock
     private OpenF1CacheProxy cacheProxy;
-    // We'll return a real RateLimiter instance from the registry stub to simplify behavior
+    @Spy
+    private ObservationRegistry observationRegistry = ObservationRegistry.create();
+    // A real, local rate budget with a generous limit to simplify behavior
+    @Spy
+    private OpenF1RateBudget rateBudget = new OpenF1RateBudget(RateLimiterRegistry.of(RateLimiterConfig.custom()
+            .limitForPeriod(1000)
+            .limitRefreshPeriod(java.time.Duration.ofMillis(10))
+            .timeoutDuration(java.time.Duration.ZERO)
+            .build()), null, null, false, "test");
 
     @InjectMocks
     private OpenF1ProviderAdapter adapter;
@@ -59,13 +66,6 @@ class OpenF1ProviderAdapterTest {
     void setUp() {
         // Inject base URL used for building requests
         ReflectionTestUtils.setField(adapter, "baseUrl", "http://base");
-        RateLimiterConfig cfg = RateLimiterConfig.custom()
-                .limitForPeriod(1000)
-                .limitRefreshPeriod(java.time.Duration.ofMillis(10))
-                .timeoutDuration(java.time.Duration.ZERO)
-                .build();
-        RateLimiter realLimiter = RateLimiter.of("openf1", cfg);
-        given(rateLimiterRegistry.rateLimiter("openf1")).willReturn(realLimiter);
     }
 
     @Test
@@ -0,0 +1,30 @@
+import org.springframework.boot.gradle.plugin.SpringBootPlugin
+
+plugins {
+    application
+}
+
+dependencyManagement {
+    imports {
+        mavenBom(SpringBootPlugin.BOM_COORDINATES)
+    }
+}
+
+dependencies {
+    // Runs user-betting in-process, so its configuration and migrations are used as-is
+    implementation(project(":user-betting"))
+    implementation(project(":common"))
+    implementation("org.springframework.boot:spring-boot-starter-jdbc")
+    implementation("org.testcontainers:postgresql")
+}
+
+application {
+    mainClass = "f1.betting.poc.loadtest.LoadTest"
+}
+
+// ./gradlew :load-test:run --args="race-start-burst settlement" -Dload.settlement.bets=1000000
+tasks.named<JavaExec>("run") {
+    description = "Runs load-test scenarios against user-betting with Testcontainers Postgres and a stub event-service."
+    systemProperties(System.getProperties().filterKeys { it.toString().startsWith("load.") }.mapKeys { it.key.toString() })
+    maxHeapSize = "2g"
+}
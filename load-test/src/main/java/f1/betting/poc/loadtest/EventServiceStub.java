@@ -0,0 +1,73 @@
+package f1.betting.poc.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Stand-in for event-service: every session key is an event with {@link #DRIVERS} drivers,
+ * finished and won by driver 1. Answers after a fixed delay, like a warm event-service cache.
+ */
+final class EventServiceStub implements AutoCloseable {
+
+	static final int DRIVERS = 20;
+	static final long WINNER = 1;
+
+	private final HttpServer server;
+	private final int delayMs;
+
+	EventServiceStub(int delayMs) throws IOException {
+		this.delayMs = delayMs;
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.createContext("/api/events/", this::handle);
+		server.start();
+	}
+
+	String baseUrl() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		boolean winner = path.endsWith("/winner");
+		String id = winner ? path.substring(0, path.length() - "/winner".length()) : path;
+		long eventId = Long.parseLong(id.substring(id.lastIndexOf('/') + 1));
+		byte[] body = (winner ? winnerJson(eventId) : eventJson(eventId)).getBytes(StandardCharsets.UTF_8);
+		try {
+			Thread.sleep(delayMs);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private static String eventJson(long eventId) {
+		StringBuilder drivers = new StringBuilder();
+		for (int d = 1; d <= DRIVERS; d++) {
+			if (d > 1) drivers.append(',');
+			drivers.append("{\"driver_number\":").append(d)
+					.append(",\"full_name\":\"Driver ").append(d)
+					.append("\",\"team_name\":\"Team\",\"odds\":").append(2 + d % 3).append('}');
+		}
+		return "{\"session_key\":" + eventId + ",\"session_name\":\"Race\",\"country_name\":\"Load\",\"drivers\":[" + drivers + "]}";
+	}
+
+	private static String winnerJson(long eventId) {
+		return "{\"session_key\":" + eventId + ",\"finished\":true,\"winner_driver_number\":" + WINNER + "}";
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+}
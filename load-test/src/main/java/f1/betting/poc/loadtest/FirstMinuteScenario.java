@@ -0,0 +1,176 @@
+package f1.betting.poc.loadtest;
+
+import f1.betting.poc.BettingApplication;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The first {@code seconds} of traffic on a freshly started node, once with and once without the built-in
+ * JIT warm-up ({@code betting.jit-warmup.enabled}). Each mode runs user-betting in its own JVM on the shared
+ * Postgres and stub event-service, waits for /actuator/health/readiness and then sends {@code rate} bets per
+ * second over POST /api/bets on a fixed schedule. Latency is measured from the scheduled send time, so a stalled
+ * node is not hidden by fewer requests. Prints time-to-ready and p50/p99/max per {@code bucketSeconds} window
+ * for both modes side by side.
+ */
+record FirstMinuteScenario(String name, int users, int events, int rate, int seconds, int bucketSeconds,
+						   long firstEventId) implements Scenario {
+
+	private static final Duration READY_TIMEOUT = Duration.ofMinutes(3);
+
+	@Override
+	public ScenarioResult run(LoadEnvironment env) throws Exception {
+		StatementStats.reset(env.jdbc);
+		Run cold = run(env, false, firstEventId);
+		Run warm = run(env, true, firstEventId + 10_000);
+		print(cold, warm);
+
+		long[] latencies = new long[cold.latencies.length + warm.latencies.length];
+		System.arraycopy(cold.latencies, 0, latencies, 0, cold.latencies.length);
+		System.arraycopy(warm.latencies, 0, latencies, cold.latencies.length, warm.latencies.length);
+		return new ScenarioResult(name, latencies.length, cold.errors + warm.errors, cold.elapsedNanos + warm.elapsedNanos,
+				latencies, StatementStats.capture(env.jdbc));
+	}
+
+	private Run run(LoadEnvironment env, boolean jitWarmUp, long eventId) throws Exception {
+		long firstUserId = env.seedUsers("load-" + name + (jitWarmUp ? "-warm" : "-cold"), users);
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		Path log = Files.createTempFile(name + (jitWarmUp ? "-warm-" : "-cold-"), ".log");
+		Process app = new ProcessBuilder(command(env, port, jitWarmUp))
+				.redirectErrorStream(true)
+				.redirectOutput(log.toFile())
+				.start();
+		try {
+			long started = System.nanoTime();
+			URI base = URI.create("http://localhost:" + port);
+			awaitReady(env, base, app, log);
+			long timeToReady = System.nanoTime() - started;
+			return drive(env, base.resolve("/api/bets"), firstUserId, eventId, timeToReady);
+		} finally {
+			app.destroy();
+			if (!app.waitFor(30, TimeUnit.SECONDS)) app.destroyForcibly();
+		}
+	}
+
+	private static List<String> command(LoadEnvironment env, int port, boolean jitWarmUp) {
+		Map<String, String> properties = new LinkedHashMap<>();
+		for (String property : env.appProperties) {
+			int eq = property.indexOf('=');
+			properties.put(property.substring(0, eq), property.substring(eq + 1));
+		}
+		properties.put("server.port", String.valueOf(port));
+		properties.put("betting.jit-warmup.enabled", String.valueOf(jitWarmUp));
+
+		List<String> command = new ArrayList<>(List.of(
+				System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+				"-Xmx1g",
+				"-cp", System.getProperty("java.class.path"),
+				BettingApplication.class.getName()));
+		properties.forEach((key, value) -> command.add("--" + key + "=" + value));
+		return command;
+	}
+
+	private static void awaitReady(LoadEnvironment env, URI base, Process app, Path log) throws Exception {
+		HttpRequest readiness = HttpRequest.newBuilder(base.resolve("/actuator/health/readiness"))
+				.timeout(Duration.ofSeconds(5)).GET().build();
+		long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+		while (System.nanoTime() < deadline) {
+			if (!app.isAlive()) {
+				throw new IllegalStateException("user-betting exited with " + app.exitValue() + ", see " + log);
+			}
+			try {
+				if (env.http.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) return;
+			} catch (IOException e) {
+				// not listening yet
+			}
+			Thread.sleep(50);
+		}
+		throw new IllegalStateException("user-betting was not ready within " + READY_TIMEOUT + ", see " + log);
+	}
+
+	private Run drive(LoadEnvironment env, URI bets, long firstUserId, long eventId, long timeToReady) throws Exception {
+		int requests = rate * seconds;
+		long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+		long[] latencies = new long[requests];
+		AtomicInteger errors = new AtomicInteger();
+		long start = System.nanoTime();
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < requests; i++) {
+				long scheduled = start + i * interval;
+				LockSupport.parkNanos(scheduled - System.nanoTime());
+				int n = i;
+				HttpRequest request = HttpRequest.newBuilder(bets)
+						.header("Content-Type", "application/json")
+						.timeout(Duration.ofSeconds(60))
+						.POST(HttpRequest.BodyPublishers.ofString(betJson(firstUserId, eventId, n)))
+						.build();
+				clients.submit(() -> {
+					try {
+						HttpResponse<Void> response = env.http.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() != 200) errors.incrementAndGet();
+					} catch (Exception e) {
+						errors.incrementAndGet();
+					}
+					latencies[n] = System.nanoTime() - scheduled;
+				});
+			}
+		}
+		return new Run(timeToReady, latencies, errors.get(), System.nanoTime() - start);
+	}
+
+	private String betJson(long firstUserId, long eventId, int i) {
+		long userId = firstUserId + i % users;
+		long driverId = 1 + (i / events) % EventServiceStub.DRIVERS;
+		return "{\"user_id\":" + userId + ",\"event_id\":" + (eventId + i % events) + ",\"driver_id\":" + driverId
+				+ ",\"amount_eur\":1}";
+	}
+
+	private void print(Run cold, Run warm) {
+		System.out.printf(Locale.ROOT, "%n== %s: %d bets/s for %d s after readiness%n", name, rate, seconds);
+		System.out.printf(Locale.ROOT, "time to ready: jit-warmup off %.1f s, on %.1f s%n",
+				cold.timeToReadyNanos / 1e9, warm.timeToReadyNanos / 1e9);
+		System.out.printf(Locale.ROOT, "%-10s %-26s %-26s%n", "window", "off p50/p99/max ms", "on p50/p99/max ms");
+		int perBucket = rate * bucketSeconds;
+		for (int from = 0; from < cold.latencies.length; from += perBucket) {
+			int to = Math.min(from + perBucket, cold.latencies.length);
+			System.out.printf(Locale.ROOT, "%-10s %-26s %-26s%n",
+					(from / rate) + "-" + (to / rate) + " s", window(cold.latencies, from, to), window(warm.latencies, from, to));
+		}
+	}
+
+	private static String window(long[] latencies, int from, int to) {
+		long[] sorted = Arrays.copyOfRange(latencies, from, to);
+		Arrays.sort(sorted);
+		return String.format(Locale.ROOT, "%.1f / %.1f / %.1f",
+				percentile(sorted, 50), percentile(sorted, 99), sorted[sorted.length - 1] / 1e6);
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		int index = (int) Math.ceil(p / 100 * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1e6;
+	}
+
+	private record Run(long timeToReadyNanos, long[] latencies, int errors, long elapsedNanos) {
+	}
+}
@@ -0,0 +1,111 @@
+package f1.betting.poc.loadtest;
+
+import f1.betting.poc.BettingApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * user-betting running in-process against a Testcontainers Postgres (with pg_stat_statements and fsync on,
+ * so commit cost is real) and an {@link EventServiceStub}.
+ * System properties prefixed with {@code load.app.} are passed to the application without the prefix,
+ * e.g. {@code -Dload.app.betting.placement.batching.enabled=true}.
+ */
+final class LoadEnvironment implements AutoCloseable {
+
+	final PostgreSQLContainer<?> postgres;
+	final EventServiceStub eventService;
+	final ConfigurableApplicationContext app;
+	final JdbcTemplate jdbc;
+	final HttpClient http;
+	final URI baseUri;
+	final List<String> appProperties;
+
+	private LoadEnvironment(PostgreSQLContainer<?> postgres, EventServiceStub eventService, ConfigurableApplicationContext app,
+							List<String> appProperties) {
+		this.postgres = postgres;
+		this.eventService = eventService;
+		this.app = app;
+		this.jdbc = new JdbcTemplate(new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+		this.http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		this.baseUri = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+		this.appProperties = List.copyOf(appProperties);
+		jdbc.execute("CREATE EXTENSION IF NOT EXISTS pg_stat_statements");
+	}
+
+	@SuppressWarnings("resource")
+	static LoadEnvironment start(int upstreamDelayMs) throws Exception {
+		PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+				.withDatabaseName("betting")
+				.withUsername("betting")
+				.withPassword("betting")
+				.withCommand("postgres",
+						"-c", "shared_preload_libraries=pg_stat_statements",
+						"-c", "pg_stat_statements.track=all",
+						"-c", "max_connections=200");
+		postgres.start();
+		EventServiceStub eventService = new EventServiceStub(upstreamDelayMs);
+
+		List<String> properties = appProperties(postgres, eventService);
+		ConfigurableApplicationContext app = new SpringApplicationBuilder(BettingApplication.class)
+				.properties(properties.toArray(String[]::new))
+				.run();
+		return new LoadEnvironment(postgres, eventService, app, properties);
+	}
+
+	/**
+	 * Application properties ({@code key=value}) of a user-betting instance on this Postgres and stub, including
+	 * the {@code load.app.} overrides; later entries win.
+	 */
+	static List<String> appProperties(PostgreSQLContainer<?> postgres, EventServiceStub eventService) {
+		List<String> properties = new ArrayList<>(List.of(
+				"server.port=0",
+				"spring.datasource.url=" + postgres.getJdbcUrl(),
+				"spring.datasource.username=" + postgres.getUsername(),
+				"spring.datasource.password=" + postgres.getPassword(),
+				"event.service.base-url=" + eventService.baseUrl(),
+				// The harness measures the service, not the limiter in front of it
+				"betting.admission.enabled=false",
+				// The harness runs its own untimed warm-up round; first-minute compares the built-in one
+				"betting.jit-warmup.enabled=false",
+				"logging.level.f1.betting.poc=WARN"));
+		System.getProperties().forEach((key, value) -> {
+			if (key.toString().startsWith("load.app.")) {
+				properties.add(key.toString().substring("load.app.".length()) + "=" + value);
+			}
+		});
+		return properties;
+	}
+
+	/**
+	 * Insert {@code count} users with a large balance and return the first id; their ids are consecutive.
+	 */
+	long seedUsers(String prefix, int count) {
+		Long first = jdbc.queryForObject("SELECT min(id) FROM users WHERE username LIKE ?", Long.class, prefix + "-%");
+		if (first != null) {
+			jdbc.update("UPDATE users SET balance_eur = 1000000000 WHERE username LIKE ?", prefix + "-%");
+			return first;
+		}
+		return jdbc.queryForObject("WITH inserted AS (INSERT INTO users(username, balance_eur) " +
+				"SELECT ? || '-' || g, 1000000000 FROM generate_series(1, ?) g RETURNING id) " +
+				"SELECT min(id) FROM inserted", Long.class, prefix, count);
+	}
+
+	URI uri(String path) {
+		return baseUri.resolve(path);
+	}
+
+	@Override
+	public void close() {
+		app.close();
+		eventService.close();
+		postgres.stop();
+	}
+}
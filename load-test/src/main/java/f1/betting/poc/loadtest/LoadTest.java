@@ -0,0 +1,90 @@
+package f1.betting.poc.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load-test harness for bet placement and settlement.
+ * Starts user-betting with Testcontainers Postgres and a stub event-service, runs the scenarios named on the
+ * command line (all but settlement-1m and first-minute by default) and prints throughput, p50/p99/p99.9 latency
+ * and the statements Postgres executed for each.
+ * <p>
+ * Sizes are tunable with system properties, e.g. {@code -Dload.burst.requests=50000 -Dload.upstream-delay-ms=20}.
+ * Needs Docker.
+ */
+public final class LoadTest {
+
+	// Long-running scenarios, only run when named
+	private static final Set<String> ON_REQUEST = Set.of("settlement-1m", "first-minute");
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, Scenario> scenarios = scenarios();
+		List<String> selected = args.length > 0
+				? List.of(args)
+				: scenarios.keySet().stream().filter(name -> !ON_REQUEST.contains(name)).toList();
+		for (String name : selected) {
+			if (!scenarios.containsKey(name)) {
+				throw new IllegalArgumentException("Unknown scenario " + name + ", expected one of " + scenarios.keySet());
+			}
+		}
+
+		try (LoadEnvironment env = LoadEnvironment.start(Integer.getInteger("load.upstream-delay-ms", 5))) {
+			// Untimed round so the measured scenarios do not run in the interpreter
+			new PlacementScenario("warm-up", 100, 5, 20, Integer.getInteger("load.warm-up.requests", 2_000), 50, 100_000)
+					.run(env);
+
+			List<ScenarioResult> results = new ArrayList<>();
+			for (String name : selected) {
+				ScenarioResult result = scenarios.get(name).run(env);
+				result.print();
+				results.add(result);
+			}
+			if (results.stream().anyMatch(r -> r.errors() > 0)) {
+				System.out.println();
+				System.out.println("Some operations failed, see errors above");
+				System.exit(1);
+			}
+		}
+	}
+
+	private static Map<String, Scenario> scenarios() {
+		Map<String, Scenario> scenarios = new LinkedHashMap<>();
+		// Lights out: many users bet on the same few races at once
+		scenarios.put("race-start-burst", new PlacementScenario("race-start-burst",
+				Integer.getInteger("load.burst.users", 5_000),
+				Integer.getInteger("load.burst.events", 3),
+				EventServiceStub.DRIVERS,
+				Integer.getInteger("load.burst.requests", 20_000),
+				Integer.getInteger("load.burst.concurrency", 1_000),
+				200_000));
+		// Many users, one event and one favourite: every bet updates the same pool row
+		scenarios.put("one-event", new PlacementScenario("one-event",
+				Integer.getInteger("load.one-event.users", 2_000),
+				1,
+				Integer.getInteger("load.one-event.drivers", 1),
+				Integer.getInteger("load.one-event.requests", 10_000),
+				Integer.getInteger("load.one-event.concurrency", 200),
+				300_000));
+		scenarios.put("settlement", new SettlementScenario("settlement",
+				Integer.getInteger("load.settlement.bets", 100_000),
+				Integer.getInteger("load.settlement.users", 10_000),
+				400_000));
+		scenarios.put("settlement-1m", new SettlementScenario("settlement-1m", 1_000_000,
+				Integer.getInteger("load.settlement.users", 10_000), 401_000));
+		// Fresh JVMs with and without the built-in JIT warm-up, open-loop traffic right after readiness
+		scenarios.put("first-minute", new FirstMinuteScenario("first-minute",
+				Integer.getInteger("load.first-minute.users", 1_000),
+				Integer.getInteger("load.first-minute.events", 3),
+				Integer.getInteger("load.first-minute.rate", 100),
+				Integer.getInteger("load.first-minute.seconds", 60),
+				Integer.getInteger("load.first-minute.bucket-seconds", 5),
+				500_000));
+		return scenarios;
+	}
+}
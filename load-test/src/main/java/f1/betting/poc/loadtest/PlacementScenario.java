@@ -0,0 +1,73 @@
+package f1.betting.poc.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code requests} bets over POST /api/bets from {@code concurrency} clients released at once.
+ * Bets are spread round-robin over {@code users} users, {@code events} events and {@code drivers} drivers,
+ * so fewer events or drivers means more contention on the same pool rows.
+ */
+record PlacementScenario(String name, int users, int events, int drivers, int requests, int concurrency,
+						 long firstEventId) implements Scenario {
+
+	@Override
+	public ScenarioResult run(LoadEnvironment env) throws Exception {
+		long firstUserId = env.seedUsers("load-" + name, users);
+		URI bets = env.uri("/api/bets");
+
+		StatementStats.reset(env.jdbc);
+		long[] latencies = new long[requests];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		CountDownLatch go = new CountDownLatch(1);
+		long start;
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> futures = new ArrayList<>(concurrency);
+			for (int c = 0; c < concurrency; c++) {
+				futures.add(clients.submit(() -> {
+					go.await();
+					int i;
+					while ((i = next.getAndIncrement()) < requests) {
+						HttpRequest request = HttpRequest.newBuilder(bets)
+								.header("Content-Type", "application/json")
+								.timeout(Duration.ofSeconds(60))
+								.POST(HttpRequest.BodyPublishers.ofString(betJson(firstUserId, i)))
+								.build();
+						long sent = System.nanoTime();
+						try {
+							HttpResponse<Void> response = env.http.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() != 200) errors.incrementAndGet();
+						} catch (Exception e) {
+							errors.incrementAndGet();
+						}
+						latencies[i] = System.nanoTime() - sent;
+					}
+					return null;
+				}));
+			}
+			// Race start: every client fires at the same moment
+			start = System.nanoTime();
+			go.countDown();
+			for (Future<?> f : futures) f.get();
+		}
+		long elapsed = System.nanoTime() - start;
+		return new ScenarioResult(name, requests, errors.get(), elapsed, latencies, StatementStats.capture(env.jdbc));
+	}
+
+	private String betJson(long firstUserId, int i) {
+		long userId = firstUserId + i % users;
+		long eventId = firstEventId + i % events;
+		long driverId = 1 + (i / events) % drivers;
+		return "{\"user_id\":" + userId + ",\"event_id\":" + eventId + ",\"driver_id\":" + driverId + ",\"amount_eur\":1}";
+	}
+}
@@ -0,0 +1,8 @@
+package f1.betting.poc.loadtest;
+
+interface Scenario {
+
+	String name();
+
+	ScenarioResult run(LoadEnvironment env) throws Exception;
+}
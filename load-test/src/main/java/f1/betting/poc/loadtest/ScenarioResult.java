@@ -0,0 +1,40 @@
+package f1.betting.poc.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Outcome of one scenario: operations, errors, latency distribution and the statements Postgres ran for it.
+ */
+record ScenarioResult(String scenario, int operations, int errors, long elapsedNanos, long[] latenciesNanos,
+					  StatementStats statements) {
+
+	ScenarioResult {
+		latenciesNanos = latenciesNanos.clone();
+		Arrays.sort(latenciesNanos);
+	}
+
+	double throughput() {
+		return operations * 1e9 / elapsedNanos;
+	}
+
+	double percentileMs(double p) {
+		if (latenciesNanos.length == 0) return 0;
+		int index = (int) Math.ceil(p / 100 * latenciesNanos.length) - 1;
+		return latenciesNanos[Math.max(0, index)] / 1e6;
+	}
+
+	void print() {
+		System.out.printf(Locale.ROOT, "%n== %s%n", scenario);
+		System.out.printf(Locale.ROOT, "operations %d, errors %d, %.1f s, %.0f ops/s%n",
+				operations, errors, elapsedNanos / 1e9, throughput());
+		System.out.printf(Locale.ROOT, "latency ms: p50 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+				percentileMs(50), percentileMs(99), percentileMs(99.9), percentileMs(100));
+		System.out.printf(Locale.ROOT, "statements: %d calls (%.1f per operation), %d rows, %.0f ms executing%n",
+				statements.calls(), (double) statements.calls() / Math.max(1, operations), statements.rows(), statements.totalMs());
+		for (StatementStats.Statement s : statements.top()) {
+			String query = s.query().length() > 100 ? s.query().substring(0, 97) + "..." : s.query();
+			System.out.printf(Locale.ROOT, "  %8d x %7.3f ms  %s%n", s.calls(), s.meanMs(), query);
+		}
+	}
+}
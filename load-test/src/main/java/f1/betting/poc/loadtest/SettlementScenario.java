@@ -0,0 +1,60 @@
+package f1.betting.poc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Settles one event holding {@code bets} bets, seeded straight into Postgres, through POST /settle and
+ * reports the time until the settlement job completes. Throughput is settled bets per second.
+ */
+record SettlementScenario(String name, int bets, int users, long eventId) implements Scenario {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	@Override
+	public ScenarioResult run(LoadEnvironment env) throws Exception {
+		long firstUserId = env.seedUsers("load-" + name, users);
+		seedBets(env, firstUserId);
+
+		StatementStats.reset(env.jdbc);
+		long start = System.nanoTime();
+		HttpResponse<String> accepted = env.http.send(
+				HttpRequest.newBuilder(env.uri("/api/events/" + eventId + "/settle"))
+						.POST(HttpRequest.BodyPublishers.noBody()).build(),
+				HttpResponse.BodyHandlers.ofString());
+		if (accepted.statusCode() != 202) {
+			throw new IllegalStateException("Settlement was not accepted: " + accepted.statusCode() + " " + accepted.body());
+		}
+		long jobId = JSON.readTree(accepted.body()).get("job_id").asLong();
+
+		String status;
+		do {
+			Thread.sleep(100);
+			JsonNode job = JSON.readTree(env.http.send(
+					HttpRequest.newBuilder(env.uri("/api/settlement-jobs/" + jobId)).GET().build(),
+					HttpResponse.BodyHandlers.ofString()).body());
+			status = job.get("status").asText();
+		} while (!status.equals("COMPLETED") && !status.equals("FAILED"));
+		long elapsed = System.nanoTime() - start;
+
+		return new ScenarioResult(name, bets, status.equals("FAILED") ? 1 : 0, elapsed, new long[]{elapsed},
+				StatementStats.capture(env.jdbc));
+	}
+
+	private void seedBets(LoadEnvironment env, long firstUserId) {
+		env.jdbc.update("INSERT INTO historical_events(event_id, event_name, country, year, status) " +
+				"VALUES (?, 'Load', 'Load', 2024, 'OPEN') ON CONFLICT (event_id) DO NOTHING", eventId);
+		env.jdbc.queryForObject("SELECT ensure_bets_partition(?)", String.class, eventId);
+		env.jdbc.update("INSERT INTO bets(user_id, event_id, driver_id, driver_name, amount_eur, odds, status) " +
+						"SELECT ? + g % ?, ?, 1 + g % ?, 'Driver ' || (1 + g % ?), 1 + g % 10, 2, 'PENDING' " +
+						"FROM generate_series(0, ? - 1) g",
+				firstUserId, users, eventId, EventServiceStub.DRIVERS, EventServiceStub.DRIVERS, bets);
+		env.jdbc.update("INSERT INTO bet_pools(event_id, driver_id, stake_eur, bet_count) " +
+				"SELECT event_id, driver_id, sum(amount_eur), count(*) FROM bets WHERE event_id = ? " +
+				"GROUP BY event_id, driver_id", eventId);
+		env.jdbc.execute("ANALYZE bets");
+	}
+}
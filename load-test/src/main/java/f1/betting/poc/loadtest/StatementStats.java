@@ -0,0 +1,32 @@
+package f1.betting.poc.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Statement counts from pg_stat_statements for the betting database, taken between a reset and the end of a scenario.
+ */
+record StatementStats(long calls, long rows, double totalMs, List<Statement> top) {
+
+	private static final String OWN_DATABASE = "dbid = (SELECT oid FROM pg_database WHERE datname = current_database()) " +
+			"AND query NOT LIKE '%pg_stat_statements%'";
+
+	record Statement(String query, long calls, double meanMs) {
+	}
+
+	static void reset(JdbcTemplate jdbc) {
+		jdbc.queryForList("SELECT pg_stat_statements_reset()");
+	}
+
+	static StatementStats capture(JdbcTemplate jdbc) {
+		List<Statement> top = jdbc.query(
+				"SELECT query, calls, mean_exec_time FROM pg_stat_statements WHERE " + OWN_DATABASE +
+						" ORDER BY calls DESC LIMIT 8",
+				(rs, i) -> new Statement(rs.getString(1).replaceAll("\\s+", " "), rs.getLong(2), rs.getDouble(3)));
+		return jdbc.queryForObject(
+				"SELECT COALESCE(sum(calls), 0), COALESCE(sum(rows), 0), COALESCE(sum(total_exec_time), 0) " +
+						"FROM pg_stat_statements WHERE " + OWN_DATABASE,
+				(rs, i) -> new StatementStats(rs.getLong(1), rs.getLong(2), rs.getDouble(3), top));
+	}
+}
@@ -0,0 +1,82 @@
+#!/usr/bin/env bash
+# Startup benchmark: time-to-ready and resident memory of event-service and user-betting, started as a plain
+# boot jar ("default") and in the fast-start mode (Spring AOT + CDS archive from ./gradlew cdsArchive).
+#
+# Usage: scripts/startup-benchmark.sh [runs]        (default 5 runs per service and mode)
+#   Needs a local Postgres for user-betting, e.g. docker compose up -d db; override with SPRING_DATASOURCE_*.
+#   SKIP_BUILD=1 reuses the jars and archives already in build/.
+#
+# Time-to-ready is measured from process start until /actuator/health/readiness answers 200; RSS is sampled
+# right after. Prints the median of each.
+set -euo pipefail
+
+RUNS=${1:-5}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+TIMEOUT_SECONDS=120
+
+export SPRING_DATASOURCE_URL=${SPRING_DATASOURCE_URL:-jdbc:postgresql://localhost:5432/betting}
+export SPRING_DATASOURCE_USERNAME=${SPRING_DATASOURCE_USERNAME:-betting}
+export SPRING_DATASOURCE_PASSWORD=${SPRING_DATASOURCE_PASSWORD:-betting_pass}
+export BETTING_ARCHIVE_DIRECTORY=${BETTING_ARCHIVE_DIRECTORY:-$ROOT/user-betting/build/archive}
+
+if [[ -z "${SKIP_BUILD:-}" ]]; then
+  "$ROOT/gradlew" -p "$ROOT" :event-service:cdsArchive :user-betting:cdsArchive -q
+fi
+
+now_ms() {
+  date +%s%3N
+}
+
+median() {
+  sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+# start_once <service> <port> <mode>: prints "<ready ms> <rss KiB>"
+start_once() {
+  local service=$1 port=$2 mode=$3 pid start ready rss
+  local module="$ROOT/$service/build"
+  local log="$module/startup-benchmark-$mode.log"
+
+  start=$(now_ms)
+  if [[ $mode == default ]]; then
+    java -jar "$(ls "$module"/libs/"$service"-*.jar | grep -v plain | head -1)" >"$log" 2>&1 &
+  else
+    (cd "$module/fast-start" && exec java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+      -jar "$(ls "$service"-*.jar | head -1)") >"$log" 2>&1 &
+  fi
+  pid=$!
+
+  until curl -sf "http://localhost:$port/actuator/health/readiness" >/dev/null 2>&1; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "$service ($mode) exited during startup, see $log" >&2
+      exit 1
+    fi
+    if (( $(now_ms) - start > TIMEOUT_SECONDS * 1000 )); then
+      kill "$pid"
+      echo "$service ($mode) not ready after ${TIMEOUT_SECONDS}s, see $log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  ready=$(( $(now_ms) - start ))
+  rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$ready $rss"
+}
+
+printf '%-14s %-11s %16s %14s\n' service mode "ready (median)" "RSS (median)"
+for entry in event-service:8081 user-betting:8080; do
+  service=${entry%%:*}
+  port=${entry##*:}
+  for mode in default fast-start; do
+    results=()
+    for ((run = 1; run <= RUNS; run++)); do
+      results+=("$(start_once "$service" "$port" "$mode")")
+    done
+    ready=$(printf '%s\n' "${results[@]}" | cut -d' ' -f1 | median)
+    rss=$(printf '%s\n' "${results[@]}" | cut -d' ' -f2 | median)
+    printf '%-14s %-11s %13s ms %11s MB\n' "$service" "$mode" "$ready" "$(( rss / 1024 ))"
+  done
+done
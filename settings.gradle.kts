@@ -1,3 +1,3 @@
 rootProject.name = "f1-betting-poc"
 
-include("common", "event-service", "user-betting")
+include("common", "event-service", "user-betting", "load-test")
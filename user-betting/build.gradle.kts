@@ -1,5 +1,7 @@
 plugins {
     id("org.springframework.boot")
+    id("org.springframework.boot.aot")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 dependencies {
@@ -14,9 +16,15 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.modulith:spring-modulith-starter-core")
     implementation("org.springframework.modulith:spring-modulith-starter-jpa")
+    implementation("com.github.ben-manes.caffeine:caffeine:3.1.8")
+    // Tracing: OpenTelemetry bridge, JDBC spans, OTLP export when management.otlp.tracing.endpoint is set
+    implementation("io.micrometer:micrometer-tracing-bridge-otel")
+    implementation("net.ttddyy.observation:datasource-micrometer-spring-boot:1.1.2")
+    runtimeOnly("io.opentelemetry:opentelemetry-exporter-otlp")
     developmentOnly("org.springframework.boot:spring-boot-docker-compose")
     runtimeOnly("org.springframework.modulith:spring-modulith-actuator")
     runtimeOnly("org.springframework.modulith:spring-modulith-observability")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
     // Add dependency on the common module
     implementation(project(":common"))
@@ -30,5 +38,80 @@ dependencies {
     testImplementation("org.testcontainers:junit-jupiter")
     testImplementation("org.testcontainers:postgresql")
     testImplementation("net.datafaker:datafaker:2.3.1")
+    testImplementation("io.opentelemetry:opentelemetry-sdk-testing")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
-}
\ No newline at end of file
+}
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+// Platform vs virtual thread request handling under load; see ThreadModeBenchmarkTest
+tasks.register<Test>("benchmark") {
+    description = "Compares throughput and latency of platform and virtual thread modes."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    systemProperties(System.getProperties().filterKeys { it.toString().startsWith("benchmark.") }.mapKeys { it.key.toString() })
+    testLogging.showStandardStreams = true
+    outputs.upToDateWhen { false }
+}
+
+// Microbenchmarks in src/jmh; ./gradlew :user-betting:jmh writes build/results/jmh/results.json
+jmh {
+    jmhVersion = "1.37"
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    // -Pjmh.includes=primitiveColumns runs a subset
+    (project.findProperty("jmh.includes") as String?)?.let { includes = listOf(it) }
+}
+
+// Fast-start mode: Spring AOT initialization code (processAot, packaged into bootJar and used with
+// -Dspring.aot.enabled=true) and a CDS archive recorded by a training run that stops once the context is refreshed.
+// ./gradlew :user-betting:cdsArchive leaves the extracted jar, lib/ and application.jsa in build/fast-start.
+// Bean conditions are evaluated at build time; -Paot.profiles=virtual-threads bakes that profile in.
+tasks.named<org.springframework.boot.gradle.tasks.aot.ProcessAot>("processAot") {
+    (project.findProperty("aot.profiles") as String?)?.let { args("--spring.profiles.active=$it") }
+}
+
+val fastStartDir = layout.buildDirectory.dir("fast-start")
+val fastStartJava = javaToolchains.launcherFor { languageVersion = JavaLanguageVersion.of(21) }
+
+val extractBootJar by tasks.registering(Exec::class) {
+    description = "Extracts the boot jar into build/fast-start (application jar plus lib/)."
+    group = "build"
+    dependsOn(tasks.bootJar)
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf("-Djarmode=tools", "-jar", tasks.bootJar.get().archiveFile.get().asFile.path,
+            "extract", "--destination", fastStartDir.get().asFile.path, "--force")
+    })
+    doFirst { executable(fastStartJava.get().executablePath.asFile) }
+}
+
+tasks.register<Exec>("cdsArchive") {
+    description = "Records build/fast-start/application.jsa from a training run of the AOT-processed application."
+    group = "build"
+    dependsOn(extractBootJar)
+    workingDir(fastStartDir)
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(
+            "-XX:ArchiveClassesAtExit=application.jsa",
+            "-Dspring.aot.enabled=true",
+            "-Dspring.context.exit=onRefresh",
+            // The training run needs no database: nothing connects before the context is refreshed
+            "-Dspring.datasource.url=jdbc:postgresql://localhost:5432/betting",
+            "-Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+            "-Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false",
+            "-Dspring.modulith.events.republish-outstanding-events-on-restart=false",
+            "-Dbetting.flyway.migrate-on-start=false",
+            "-Dbetting.event-status.listen=false",
+            "-Djfr.continuous.enabled=false",
+            "-jar", tasks.bootJar.get().archiveFileName.get()
+        )
+    })
+    doFirst { executable(fastStartJava.get().executablePath.asFile) }
+}
@@ -0,0 +1,130 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.Bet;
+import f1.betting.poc.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Payout computation for one event: {@link SettlementCalculator} over primitive columns against the loop over
+ * Bet entities that synchronous settlement used to run, and against the same loop written with
+ * stream sums and a boxed per-user map. Database access is left out; all three produce per-user payouts.
+ * <p>
+ * Bets are spread over 20 drivers and one user per 20 bets. Run with {@code ./gradlew :user-betting:jmh};
+ * the gc profiler reports allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SettlementBenchmark {
+
+	private static final long WINNING_DRIVER_ID = 1L;
+
+	@Param({"10000", "100000", "1000000", "10000000"})
+	private int bets;
+
+	private long[] userIds;
+	private long[] driverIds;
+	private long[] stakesEur;
+	private List<Bet> entities;
+	private int users;
+	private long totalPoolEur;
+	private long winningStakeEur;
+
+	@Setup
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(42);
+		users = Math.max(1, bets / 20);
+		userIds = new long[bets];
+		driverIds = new long[bets];
+		stakesEur = new long[bets];
+
+		List<User> userEntities = new ArrayList<>(users);
+		for (int u = 0; u < users; u++) {
+			User user = new User();
+			user.setId(1_000L + u);
+			userEntities.add(user);
+		}
+		OffsetDateTime createdAt = OffsetDateTime.now();
+		entities = new ArrayList<>(bets);
+		for (int i = 0; i < bets; i++) {
+			int user = random.nextInt(users);
+			userIds[i] = 1_000L + user;
+			driverIds[i] = 1 + random.nextInt(20);
+			stakesEur[i] = 1 + random.nextInt(100);
+			totalPoolEur += stakesEur[i];
+			if (driverIds[i] == WINNING_DRIVER_ID) winningStakeEur += stakesEur[i];
+
+			Bet bet = new Bet();
+			bet.setId((long) i + 1);
+			bet.setUser(userEntities.get(user));
+			bet.setEventId(7L);
+			bet.setDriverId(driverIds[i]);
+			bet.setAmountEur(stakesEur[i]);
+			bet.setOdds(2);
+			bet.setCreatedAt(createdAt);
+			entities.add(bet);
+		}
+	}
+
+	@Benchmark
+	public UserPayouts primitiveColumns() {
+		UserPayouts payouts = new UserPayouts(users);
+		new SettlementCalculator(WINNING_DRIVER_ID, totalPoolEur, winningStakeEur)
+				.accumulate(userIds, driverIds, stakesEur, bets, payouts);
+		return payouts;
+	}
+
+	/**
+	 * The former entity-based settlement loop, minus status updates and paging.
+	 */
+	@Benchmark
+	public UserPayouts entityLoop() {
+		Long winningDriverId = WINNING_DRIVER_ID;
+		UserPayouts payouts = new UserPayouts(users);
+		for (Bet bet : entities) {
+			if (bet.getDriverId().equals(winningDriverId)) {
+				payouts.add(bet.getUser().getId(),
+						BettingService.proportionalShare(bet.getAmountEur(), totalPoolEur, winningStakeEur));
+			}
+		}
+		return payouts;
+	}
+
+	/**
+	 * Totals summed from the entities and payouts grouped into a boxed map, as settlement did before pool aggregates.
+	 */
+	@Benchmark
+	public Map<Long, Long> entityStreams() {
+		Long winningDriverId = WINNING_DRIVER_ID;
+		long totalPool = entities.stream().mapToLong(Bet::getAmountEur).sum();
+		long winningStake = entities.stream()
+				.filter(bet -> bet.getDriverId().equals(winningDriverId))
+				.mapToLong(Bet::getAmountEur)
+				.sum();
+		return entities.stream()
+				.filter(bet -> bet.getDriverId().equals(winningDriverId))
+				.collect(Collectors.groupingBy(bet -> bet.getUser().getId(),
+						Collectors.summingLong(bet -> BettingService.proportionalShare(bet.getAmountEur(), totalPool, winningStake))));
+	}
+}
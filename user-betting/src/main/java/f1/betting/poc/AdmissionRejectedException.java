@@ -0,0 +1,19 @@
+package f1.betting.poc;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * A bet request turned away by {@link PlacementAdmission}; answered with 429 and Retry-After.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+	private final Duration retryAfter;
+
+	AdmissionRejectedException(String message, Duration retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+}
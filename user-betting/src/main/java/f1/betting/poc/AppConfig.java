@@ -4,11 +4,22 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class AppConfig {
 
@@ -21,13 +32,60 @@ public class AppConfig {
 	}
 
 	@Bean
-	public RestTemplate restTemplate(ObjectMapper objectMapper) {
+	public RestTemplate restTemplate(
+			RestTemplateBuilder restTemplateBuilder,
+			ObjectMapper objectMapper,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+			@Value("${event.service.read-timeout:5s}") Duration readTimeout
+	) {
+		// JDK HttpClient instead of HttpURLConnection, whose internal locks pin virtual threads
+		HttpClient.Builder client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5));
+		if (virtualThreads) {
+			client.executor(Executors.newVirtualThreadPerTaskExecutor());
+		}
+
+		HttpClient httpClient = client.build();
+
+		// A call nobody waits for any more (the placement failed its local checks) still ends within the read timeout
+		JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+		requestFactory.setReadTimeout(readTimeout);
+
+		// Built from Boot's builder so every call is observed and carries the trace context (traceparent header)
+		RestTemplate restTemplate = restTemplateBuilder
+				.requestFactory(() -> requestFactory)
+				.build();
 		// Make RestTemplate use the customized ObjectMapper
-		RestTemplate restTemplate = new RestTemplate();
 		restTemplate.getMessageConverters().stream()
 				.filter(c -> c instanceof MappingJackson2HttpMessageConverter )
 				.map(c -> (MappingJackson2HttpMessageConverter) c)
 				.forEach(c -> c.setObjectMapper(objectMapper));
 		return restTemplate;
 	}
+
+	/**
+	 * Runs the event-service quote fetch of a bet placement while the request thread checks the user and event.
+	 * A task only waits on the HTTP call, so it runs on a virtual thread whatever the request threads are: a burst of
+	 * placements, or calls left running after their placement gave up, costs no platform threads. Each call is
+	 * bounded by the event-service read timeout.
+	 * Tasks run with the submitter's observation (trace) context, so the call joins the placement's trace.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService quoteExecutor() {
+		ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("quote-", 0).factory());
+		ContextSnapshotFactory snapshots = ContextSnapshotFactory.builder().build();
+		return ContextExecutorService.wrap(executor, () -> snapshots.captureAll());
+	}
+
+	/**
+	 * Migrations run on startup unless betting.flyway.migrate-on-start is false. Unlike spring.flyway.enabled this
+	 * is read at runtime, so it also works in the AOT (fast-start) mode, whose CDS training run has no database.
+	 */
+	@Bean
+	public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${betting.flyway.migrate-on-start:true}") boolean migrate) {
+		return flyway -> {
+			if (migrate) flyway.migrate();
+		};
+	}
 }
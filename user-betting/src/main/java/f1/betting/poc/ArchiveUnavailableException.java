@@ -0,0 +1,11 @@
+package f1.betting.poc;
+
+/**
+ * An archived event whose file cannot be read on this node; answered with 503.
+ */
+public class ArchiveUnavailableException extends RuntimeException {
+
+	ArchiveUnavailableException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,236 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.ArchivedBet;
+import f1.betting.poc.domain.BetStatus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compressed columnar file holding the bets of one event.
+ * <p>
+ * Layout: magic, version and event id, then row groups of up to {@link #ROW_GROUP_SIZE} bets, each written column
+ * by column (ids and timestamps delta-encoded, driver names dictionary-encoded, numbers as varints), and a
+ * zero-length group as terminator. Files are written once and never modified.
+ * <p>
+ * Statuses are stored as fixed codes (0 PENDING, 1 WON, 2 LOST), not enum ordinals, so reordering or extending
+ * {@link BetStatus} does not change the meaning of existing files.
+ */
+public final class BetArchiveFormat {
+
+	static final int MAGIC = 0x46314241; // "F1BA"
+	static final int VERSION = 1;
+	static final int ROW_GROUP_SIZE = 4096;
+
+	private BetArchiveFormat() {
+	}
+
+	public static Writer writer(OutputStream out, long eventId) throws IOException {
+		return new Writer(out, eventId);
+	}
+
+	public static List<ArchivedBet> read(Path file) throws IOException {
+		return read(file, userId -> true);
+	}
+
+	/**
+	 * The bets of the users accepted by {@code users}. Only one row group is decoded at a time and only matching
+	 * rows become objects, so reading one user's bets costs a single pass over the file, not a copy of it.
+	 */
+	public static List<ArchivedBet> read(Path file, LongPredicate users) throws IOException {
+		try (InputStream in = Files.newInputStream(file)) {
+			return read(in, users);
+		}
+	}
+
+	public static List<ArchivedBet> read(InputStream in) throws IOException {
+		return read(in, userId -> true);
+	}
+
+	public static List<ArchivedBet> read(InputStream in, LongPredicate users) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in, 64 * 1024)));
+		if (data.readInt() != MAGIC) {
+			throw new IOException("Not a bet archive");
+		}
+		int version = data.readUnsignedByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported bet archive version " + version);
+		}
+		long eventId = data.readLong();
+
+		List<ArchivedBet> bets = new ArrayList<>();
+		int rows;
+		while ((rows = (int) readVarLong(data)) > 0) {
+			long[] betIds = new long[rows];
+			long previous = 0;
+			for (int i = 0; i < rows; i++) betIds[i] = previous += zigZagDecode(readVarLong(data));
+			long[] userIds = new long[rows];
+			for (int i = 0; i < rows; i++) userIds[i] = readVarLong(data);
+			long[] driverIds = new long[rows];
+			for (int i = 0; i < rows; i++) driverIds[i] = readVarLong(data);
+			String[] dictionary = new String[(int) readVarLong(data)];
+			for (int i = 0; i < dictionary.length; i++) dictionary[i] = data.readUTF();
+			String[] driverNames = new String[rows];
+			for (int i = 0; i < rows; i++) {
+				int index = (int) readVarLong(data);
+				driverNames[i] = index == 0 ? null : dictionary[index - 1];
+			}
+			long[] amounts = new long[rows];
+			for (int i = 0; i < rows; i++) amounts[i] = readVarLong(data);
+			byte[] odds = new byte[rows];
+			data.readFully(odds);
+			byte[] statuses = new byte[rows];
+			data.readFully(statuses);
+			long micros = 0;
+			for (int i = 0; i < rows; i++) {
+				micros += zigZagDecode(readVarLong(data));
+				if (!users.test(userIds[i])) continue;
+				OffsetDateTime createdAt = OffsetDateTime.ofInstant(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), ZoneOffset.UTC);
+				bets.add(new ArchivedBet(betIds[i], userIds[i], eventId, driverIds[i], driverNames[i],
+						amounts[i], (int) odds[i], status(statuses[i]), createdAt));
+			}
+		}
+		return bets;
+	}
+
+	/**
+	 * Streams bets into an archive, buffering one row group at a time.
+	 */
+	public static final class Writer implements Closeable {
+
+		private final DataOutputStream out;
+		private final long eventId;
+		private final List<ArchivedBet> group = new ArrayList<>(ROW_GROUP_SIZE);
+		private long count;
+
+		private Writer(OutputStream target, long eventId) throws IOException {
+			this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(target, 64 * 1024)));
+			this.eventId = eventId;
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			out.writeLong(eventId);
+		}
+
+		public void append(ArchivedBet bet) throws IOException {
+			if (!bet.eventId().equals(eventId)) {
+				throw new IllegalArgumentException("Bet " + bet.betId() + " belongs to event " + bet.eventId());
+			}
+			group.add(bet);
+			count++;
+			if (group.size() == ROW_GROUP_SIZE) {
+				flushGroup();
+			}
+		}
+
+		public long count() {
+			return count;
+		}
+
+		@Override
+		public void close() throws IOException {
+			flushGroup();
+			writeVarLong(out, 0);
+			out.close();
+		}
+
+		private void flushGroup() throws IOException {
+			if (group.isEmpty()) return;
+			writeVarLong(out, group.size());
+
+			long previous = 0;
+			for (ArchivedBet bet : group) {
+				writeVarLong(out, zigZagEncode(bet.betId() - previous));
+				previous = bet.betId();
+			}
+			for (ArchivedBet bet : group) writeVarLong(out, bet.userId());
+			for (ArchivedBet bet : group) writeVarLong(out, bet.driverId());
+
+			Map<String, Integer> dictionary = new HashMap<>();
+			List<String> names = new ArrayList<>();
+			for (ArchivedBet bet : group) {
+				if (bet.driverName() != null && dictionary.putIfAbsent(bet.driverName(), names.size() + 1) == null) {
+					names.add(bet.driverName());
+				}
+			}
+			writeVarLong(out, names.size());
+			for (String name : names) out.writeUTF(name);
+			for (ArchivedBet bet : group) writeVarLong(out, bet.driverName() == null ? 0 : dictionary.get(bet.driverName()));
+
+			for (ArchivedBet bet : group) writeVarLong(out, bet.amountEur());
+			for (ArchivedBet bet : group) out.writeByte(bet.odds());
+			for (ArchivedBet bet : group) out.writeByte(statusCode(bet.status()));
+
+			long previousMicros = 0;
+			for (ArchivedBet bet : group) {
+				long micros = ChronoUnit.MICROS.between(Instant.EPOCH, bet.createdAt().toInstant());
+				writeVarLong(out, zigZagEncode(micros - previousMicros));
+				previousMicros = micros;
+			}
+			group.clear();
+		}
+	}
+
+	private static int statusCode(BetStatus status) {
+		return switch (status) {
+			case PENDING -> 0;
+			case WON -> 1;
+			case LOST -> 2;
+		};
+	}
+
+	private static BetStatus status(byte code) throws IOException {
+		return switch (code) {
+			case 0 -> BetStatus.PENDING;
+			case 1 -> BetStatus.WON;
+			case 2 -> BetStatus.LOST;
+			default -> throw new IOException("Unknown bet status code " + code);
+		};
+	}
+
+	private static void writeVarLong(DataOutput out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	private static long readVarLong(DataInput in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) return value;
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	private static long zigZagEncode(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long zigZagDecode(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -0,0 +1,21 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.BetArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface BetArchiveRepository extends JpaRepository<BetArchive, Long> {
+
+	/**
+	 * Archived events a user bet on, newest event first, before the given event id.
+	 */
+	@Query(
+			value = "SELECT a.* FROM bet_archives a JOIN bet_archive_users u ON u.event_id = a.event_id " +
+					"WHERE u.user_id = :userId AND a.event_id < :beforeEventId " +
+					"ORDER BY a.event_id DESC LIMIT :limit",
+			nativeQuery = true
+	)
+	List<BetArchive> findForUser(Long userId, Long beforeEventId, int limit);
+}
@@ -0,0 +1,293 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.ArchivedBet;
+import f1.betting.poc.domain.BetArchive;
+import f1.betting.poc.domain.BetHistoryEntry;
+import f1.betting.poc.domain.BetStatus;
+import f1.betting.poc.web.BetHistoryResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongPredicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Moves bets of settled events out of Postgres into per-event archive files ({@link BetArchiveFormat})
+ * and serves them back on demand.
+ * <p>
+ * An event is archived by streaming its bets into a file, registering the file in bet_archives, and only then
+ * deleting the rows in short chunks. Partitions detached by {@link BetPartitionMaintenance} are archived the
+ * same way and dropped as a whole. A run interrupted at any step is completed by the next one.
+ * <p>
+ * Every replica schedules runs, but a Postgres advisory lock lets only one archive at a time. Files are read back
+ * by whichever node serves the request, so {@code betting.archive.directory} must be storage shared by all nodes.
+ */
+@Service
+@Slf4j
+public class BetArchiveService {
+
+	static final int MAX_ARCHIVED_EVENTS_PAGE = 20;
+
+	private static final Pattern DETACHED_PARTITION = Pattern.compile("bets_p\\d+_detached_\\d+");
+
+	private static final String BET_COLUMNS =
+			"id, user_id, event_id, driver_id, driver_name, amount_eur, odds, status, created_at";
+
+	private static final RowMapper<ArchivedBet> ARCHIVED_BET = (rs, row) -> new ArchivedBet(
+			rs.getLong("id"),
+			rs.getLong("user_id"),
+			rs.getLong("event_id"),
+			rs.getLong("driver_id"),
+			rs.getString("driver_name"),
+			rs.getLong("amount_eur"),
+			rs.getInt("odds"),
+			BetStatus.valueOf(rs.getString("status")),
+			rs.getObject("created_at", OffsetDateTime.class)
+	);
+
+	private final BetArchiveRepository archiveRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final JdbcTemplate streamingJdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final boolean enabled;
+	private final Path directory;
+	private final Duration archiveAfter;
+	private final int eventsPerRun;
+	private final int deleteChunkSize;
+
+	public BetArchiveService(
+			BetArchiveRepository archiveRepository,
+			JdbcTemplate jdbcTemplate,
+			TransactionTemplate transactionTemplate,
+			@Value("${betting.archive.enabled:true}") boolean enabled,
+			@Value("${betting.archive.directory:archive}") Path directory,
+			@Value("${betting.archive.archive-after:30d}") Duration archiveAfter,
+			@Value("${betting.archive.events-per-run:100}") int eventsPerRun,
+			@Value("${betting.archive.delete-chunk-size:1000}") int deleteChunkSize
+	) {
+		this.archiveRepository = archiveRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+		// Postgres only streams with a fetch size inside a transaction
+		this.streamingJdbcTemplate.setFetchSize(1000);
+		this.transactionTemplate = transactionTemplate;
+		this.enabled = enabled;
+		this.directory = directory;
+		this.archiveAfter = archiveAfter;
+		this.eventsPerRun = eventsPerRun;
+		this.deleteChunkSize = deleteChunkSize;
+	}
+
+	@Scheduled(fixedDelayString = "${betting.archive.interval:1h}", initialDelayString = "${betting.archive.interval:1h}")
+	public void archiveScheduled() {
+		if (enabled) {
+			archiveSettledEvents();
+		}
+	}
+
+	/**
+	 * Archive detached partitions, then events settled more than {@code archiveAfter} ago.
+	 *
+	 * @return ids of the events archived by this run, none when another node is archiving
+	 */
+	public List<Long> archiveSettledEvents() {
+		// The session lock lives on this connection for the whole run; the work itself uses other connections
+		List<Long> archived = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+			if (!advisoryLock(connection, "pg_try_advisory_lock")) return null;
+			try {
+				return archiveAll();
+			} finally {
+				advisoryLock(connection, "pg_advisory_unlock");
+			}
+		});
+		if (archived == null) {
+			log.debug("Another node is archiving, skipping this run");
+			return List.of();
+		}
+		return archived;
+	}
+
+	private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(hashtext('bet_archive'))");
+			 ResultSet rs = statement.executeQuery()) {
+			return rs.next() && rs.getBoolean(1);
+		}
+	}
+
+	private List<Long> archiveAll() {
+		List<Long> archived = new ArrayList<>();
+		for (String table : detachedPartitions()) {
+			List<Long> eventIds = jdbcTemplate.queryForList("SELECT DISTINCT event_id FROM " + table, Long.class);
+			for (Long eventId : eventIds) {
+				archiveEvent(eventId, table);
+				archived.add(eventId);
+			}
+			jdbcTemplate.execute("DROP TABLE " + table);
+			log.info("Archived and dropped detached partition {}", table);
+		}
+
+		List<Long> eventIds = jdbcTemplate.queryForList(
+				"SELECT e.event_id FROM historical_events e JOIN event_outcomes o ON o.event_id = e.event_id " +
+						"WHERE e.status = 'SETTLED' AND o.settled_at < now() - make_interval(secs => ?) " +
+						"AND EXISTS (SELECT 1 FROM bets b WHERE b.event_id = e.event_id) " +
+						"ORDER BY e.event_id LIMIT ?",
+				Long.class, archiveAfter.toSeconds(), eventsPerRun);
+		for (Long eventId : eventIds) {
+			archiveEvent(eventId, "bets");
+			deleteArchivedBets(eventId);
+			archived.add(eventId);
+		}
+		return archived;
+	}
+
+	/**
+	 * All archived bets of an event.
+	 */
+	public Optional<List<ArchivedBet>> findEventBets(Long eventId) {
+		return archiveRepository.findById(eventId).map(archive -> readArchive(archive, userId -> true));
+	}
+
+	/**
+	 * Archived bets of a user, a page of events at a time, newest event first.
+	 * The cursor is the id of the last event of the previous page.
+	 */
+	public BetHistoryResponse getUserBets(Long userId, String cursor, int events) {
+		if (events < 1 || events > MAX_ARCHIVED_EVENTS_PAGE) {
+			throw new IllegalArgumentException("Limit must be between 1 and " + MAX_ARCHIVED_EVENTS_PAGE);
+		}
+		long before;
+		try {
+			before = cursor == null || cursor.isBlank() ? Long.MAX_VALUE : Long.parseLong(cursor);
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+
+		List<BetArchive> archives = archiveRepository.findForUser(userId, before, events + 1);
+		boolean more = archives.size() > events;
+		if (more) {
+			archives = archives.subList(0, events);
+		}
+		List<BetHistoryEntry> items = new ArrayList<>();
+		for (BetArchive archive : archives) {
+			readArchive(archive, id -> id == userId).stream()
+					.map(ArchivedBet::toHistoryEntry)
+					.forEach(items::add);
+		}
+		String next = more ? String.valueOf(archives.get(archives.size() - 1).getEventId()) : null;
+		return new BetHistoryResponse(items, next);
+	}
+
+	private void archiveEvent(Long eventId, String sourceTable) {
+		if (archiveRepository.existsById(eventId)) {
+			// File and catalog entry survived an interrupted run; only the rows are left to remove
+			return;
+		}
+		Path file = directory.resolve(String.valueOf(eventId / BetPartitionMaintenance.PARTITION_WIDTH))
+				.resolve("event-" + eventId + ".bets.gz");
+		long count = writeArchive(eventId, sourceTable, file);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			BetArchive archive = new BetArchive();
+			archive.setEventId(eventId);
+			archive.setFilePath(directory.relativize(file).toString());
+			archive.setBetCount(count);
+			archiveRepository.saveAndFlush(archive);
+			jdbcTemplate.update(
+					"INSERT INTO bet_archive_users(user_id, event_id) " +
+							"SELECT DISTINCT user_id, event_id FROM " + sourceTable + " WHERE event_id = ? " +
+							"ON CONFLICT DO NOTHING",
+					eventId);
+		});
+		log.info("Archived {} bets of event {} to {}", count, eventId, file);
+	}
+
+	private long writeArchive(Long eventId, String sourceTable, Path file) {
+		try {
+			Files.createDirectories(file.getParent());
+			Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+			long count;
+			try (OutputStream out = Files.newOutputStream(tmp);
+				 BetArchiveFormat.Writer writer = BetArchiveFormat.writer(out, eventId)) {
+				count = transactionTemplate.execute(status -> {
+					try (Stream<ArchivedBet> bets = streamingJdbcTemplate.queryForStream(
+							"SELECT " + BET_COLUMNS + " FROM " + sourceTable + " WHERE event_id = ? ORDER BY id",
+							ARCHIVED_BET, eventId)) {
+						bets.forEach(bet -> {
+							try {
+								writer.append(bet);
+							} catch (IOException ex) {
+								throw new UncheckedIOException(ex);
+							}
+						});
+					}
+					return writer.count();
+				});
+			}
+			// Make the file durable before the rows it replaces are deleted
+			try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+				channel.force(true);
+			}
+			Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			return count;
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Could not archive event " + eventId, ex);
+		}
+	}
+
+	private void deleteArchivedBets(Long eventId) {
+		int deleted;
+		do {
+			// Short transactions keep row locks and WAL bursts small
+			deleted = jdbcTemplate.update(
+					"DELETE FROM bets WHERE event_id = ? AND id IN " +
+							"(SELECT id FROM bets WHERE event_id = ? ORDER BY id LIMIT ?)",
+					eventId, eventId, deleteChunkSize);
+		} while (deleted == deleteChunkSize);
+	}
+
+	private List<String> detachedPartitions() {
+		return jdbcTemplate.queryForList(
+						"SELECT relname FROM pg_class WHERE relkind = 'r' AND relname LIKE 'bets\\_p%\\_detached\\_%' ORDER BY relname",
+						String.class).stream()
+				.filter(table -> DETACHED_PARTITION.matcher(table).matches())
+				.toList();
+	}
+
+	private List<ArchivedBet> readArchive(BetArchive archive, LongPredicate users) {
+		Path file = directory.resolve(archive.getFilePath());
+		try {
+			return BetArchiveFormat.read(file, users);
+		} catch (NoSuchFileException ex) {
+			log.error("Archive {} of event {} is missing; betting.archive.directory must be shared by all nodes",
+					file, archive.getEventId());
+			throw new ArchiveUnavailableException("Archive of event " + archive.getEventId() + " is not available", ex);
+		} catch (IOException ex) {
+			throw new ArchiveUnavailableException("Could not read archive of event " + archive.getEventId(), ex);
+		}
+	}
+}
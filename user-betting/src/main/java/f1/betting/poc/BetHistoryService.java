@@ -0,0 +1,48 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.BetHistoryEntry;
+import f1.betting.poc.web.BetHistoryCursor;
+import f1.betting.poc.web.BetHistoryResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Bet history reads. Pages are addressed by keyset (created_at, id) rather than offset,
+ * so the cost of a page does not grow with the number of bets a user has placed.
+ */
+@Service
+@RequiredArgsConstructor
+public class BetHistoryService {
+
+	static final int MAX_PAGE_SIZE = 100;
+
+	private final BetRepository betRepository;
+
+	@Transactional(readOnly = true)
+	public BetHistoryResponse getUserBets(Long userId, String cursor, int limit) {
+		if (limit < 1 || limit > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+		}
+
+		// Fetch one extra row to learn whether another page exists
+		Limit fetch = Limit.of(limit + 1);
+		List<BetHistoryEntry> rows;
+		if (cursor == null || cursor.isBlank()) {
+			rows = betRepository.findHistory(userId, fetch);
+		} else {
+			BetHistoryCursor after = BetHistoryCursor.decode(cursor);
+			rows = betRepository.findHistoryBefore(userId, after.createdAt(), after.betId(), fetch);
+		}
+
+		if (rows.size() <= limit) {
+			return new BetHistoryResponse(rows, null);
+		}
+		List<BetHistoryEntry> page = rows.subList(0, limit);
+		BetHistoryEntry last = page.get(limit - 1);
+		return new BetHistoryResponse(page, new BetHistoryCursor(last.createdAt(), last.betId()).encode());
+	}
+}
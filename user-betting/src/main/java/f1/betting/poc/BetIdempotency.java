@@ -0,0 +1,185 @@
+package f1.betting.poc;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import f1.betting.poc.domain.BetIdempotencyKey;
+import f1.betting.poc.domain.BetIdempotencyKeyId;
+import f1.betting.poc.domain.BetStatus;
+import f1.betting.poc.web.BetResponse;
+import f1.betting.poc.web.PlaceBetRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Idempotent bet placement keyed by the client's Idempotency-Key.
+ * <p>
+ * The primary key of bet_idempotency_keys is the guarantee: a placement claims its key in its own transaction
+ * and rolls back if the key is taken. In front of it sit a bounded cache of recent responses, which answers
+ * most retries without a query, and a Bloom filter of known keys, which lets a first-time key go straight
+ * to placement without looking for an earlier bet. The filter is local to the instance and rebuilt on startup
+ * and after each purge; a key it misses is still caught by the constraint.
+ * <p>
+ * The key is claimed before the debit, and a retry turned away by a check made before the claim (event closed
+ * since, for example) is answered with the original bet if there is one. A retry gets the response of the original
+ * placement, with status PENDING, also once the bet is settled; the bet history has its current status.
+ */
+@Component
+@Slf4j
+public class BetIdempotency {
+
+	static final int MAX_KEY_LENGTH = 255;
+
+	private final BettingService bettingService;
+	private final BetIdempotencyKeyRepository keyRepository;
+	private final BetRepository betRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final Cache<BetIdempotencyKeyId, BetResponse> recent;
+	private final long expectedKeys;
+	private final Duration retention;
+
+	private volatile KeyBloomFilter knownKeys;
+
+	public BetIdempotency(
+			BettingService bettingService,
+			BetIdempotencyKeyRepository keyRepository,
+			BetRepository betRepository,
+			TransactionTemplate transactionTemplate,
+			@Value("${betting.idempotency.cache-size:100000}") long cacheSize,
+			@Value("${betting.idempotency.expected-keys:1000000}") long expectedKeys,
+			@Value("${betting.idempotency.retention:24h}") Duration retention
+	) {
+		this.bettingService = bettingService;
+		this.keyRepository = keyRepository;
+		this.betRepository = betRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.recent = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(retention).build();
+		this.expectedKeys = expectedKeys;
+		this.retention = retention;
+		this.knownKeys = new KeyBloomFilter(expectedKeys, 0.01);
+	}
+
+	/**
+	 * Place a bet, or return the bet already placed with the same key by the same user.
+	 */
+	public BetResponse placeBet(PlaceBetRequest request, String idempotencyKey) {
+		if (idempotencyKey == null) {
+			return bettingService.placeBet(request);
+		}
+		if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+			throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+		}
+
+		BetIdempotencyKeyId id = new BetIdempotencyKeyId(request.userId(), idempotencyKey);
+		BetResponse cached = recent.getIfPresent(id);
+		if (cached != null) {
+			return sameRequest(request, cached);
+		}
+		if (knownKeys.mightContain(request.userId(), idempotencyKey)) {
+			Optional<BetResponse> original = findOriginal(id);
+			if (original.isPresent()) {
+				return sameRequest(request, original.get());
+			}
+		}
+
+		try {
+			BetResponse response = bettingService.placeBet(request, idempotencyKey);
+			remember(id, response);
+			return response;
+		} catch (DuplicateIdempotencyKeyException ex) {
+			// Lost the race to a concurrent retry, or the key was not in this instance's filter
+			BetResponse original = findOriginal(id)
+					.orElseThrow(() -> new IllegalStateException("Bet for idempotency key not found"));
+			return sameRequest(request, original);
+		} catch (IllegalStateException | IllegalArgumentException ex) {
+			// Rejected before the key was claimed, e.g. on another node whose cache and filter did not know it
+			return findOriginal(id).map(original -> sameRequest(request, original)).orElseThrow(() -> ex);
+		}
+	}
+
+	/**
+	 * Fill the filter with the keys still in the table.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildFilter() {
+		KeyBloomFilter filter = new KeyBloomFilter(expectedKeys, 0.01);
+		AtomicLong count = new AtomicLong();
+		transactionTemplate.executeWithoutResult(status -> {
+			try (Stream<BetIdempotencyKey> keys = keyRepository.streamAll()) {
+				keys.forEach(k -> {
+					filter.add(k.getUserId(), k.getIdempotencyKey());
+					count.incrementAndGet();
+				});
+			}
+		});
+		knownKeys = filter;
+		log.info("Idempotency key filter loaded with {} keys", count.get());
+	}
+
+	/**
+	 * Drop keys older than the retention; a retry after that is treated as a new bet.
+	 */
+	@Scheduled(fixedDelayString = "${betting.idempotency.purge-interval:1h}", initialDelayString = "${betting.idempotency.purge-interval:1h}")
+	public void purgeExpiredKeys() {
+		int deleted = keyRepository.deleteCreatedBefore(OffsetDateTime.now().minus(retention));
+		if (deleted > 0) {
+			log.info("Purged {} expired idempotency keys", deleted);
+			rebuildFilter();
+		}
+	}
+
+	private void remember(BetIdempotencyKeyId id, BetResponse response) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					remember(id, response);
+				}
+			});
+			return;
+		}
+		recent.put(id, response);
+		knownKeys.add(id.getUserId(), id.getIdempotencyKey());
+	}
+
+	private Optional<BetResponse> findOriginal(BetIdempotencyKeyId id) {
+		// A read-write transaction keeps the lookup on the primary, where the key was just claimed
+		return transactionTemplate.execute(status -> lookupOriginal(id));
+	}
+
+	private Optional<BetResponse> lookupOriginal(BetIdempotencyKeyId id) {
+		return keyRepository.findById(id)
+				.filter(key -> key.getBetId() != null)
+				.flatMap(key -> betRepository.findById(key.getBetId()))
+				// The placement response, like the cached one: the bet as it was placed
+				.map(bet -> new BetResponse(
+						bet.getId(),
+						bet.getEventId(),
+						bet.getDriverId(),
+						bet.getAmountEur(),
+						bet.getOdds(),
+						BetStatus.PENDING.name()
+				));
+	}
+
+	private static BetResponse sameRequest(PlaceBetRequest request, BetResponse original) {
+		if (!original.eventId().equals(request.eventId())
+				|| !original.driverId().equals(request.driverId())
+				|| !original.amountEur().equals(request.amountEur())) {
+			throw new IllegalStateException("Idempotency key was already used for a different bet");
+		}
+		return original;
+	}
+}
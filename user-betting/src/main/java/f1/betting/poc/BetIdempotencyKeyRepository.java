@@ -0,0 +1,45 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.BetIdempotencyKey;
+import f1.betting.poc.domain.BetIdempotencyKeyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.stream.Stream;
+
+public interface BetIdempotencyKeyRepository extends JpaRepository<BetIdempotencyKey, BetIdempotencyKeyId> {
+
+	/**
+	 * Claim a key before placing its bet. Returns 0 when the key is already taken; a concurrent claim waits
+	 * for the other transaction and then also returns 0 if it committed.
+	 */
+	@Modifying
+	@Query(
+			value = "INSERT INTO bet_idempotency_keys(user_id, idempotency_key) " +
+					"VALUES (:userId, :idempotencyKey) " +
+					"ON CONFLICT (user_id, idempotency_key) DO NOTHING",
+			nativeQuery = true
+	)
+	int claim(Long userId, String idempotencyKey);
+
+	/**
+	 * Record the bet of a key claimed earlier in the same transaction.
+	 */
+	@Modifying
+	@Query(
+			value = "UPDATE bet_idempotency_keys SET bet_id = :betId WHERE user_id = :userId AND idempotency_key = :idempotencyKey",
+			nativeQuery = true
+	)
+	int assignBet(Long userId, String idempotencyKey, Long betId);
+
+	@Query("SELECT k FROM BetIdempotencyKey k")
+	Stream<BetIdempotencyKey> streamAll();
+
+	@Modifying
+	@Transactional
+	@Query("DELETE FROM BetIdempotencyKey k WHERE k.createdAt < :before")
+	int deleteCreatedBefore(OffsetDateTime before);
+}
@@ -0,0 +1,158 @@
+package f1.betting.poc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the event-range partitions of bets (see V8__partition_bets.sql and V10) in shape.
+ * Creates the partitions of open events and of the next range ahead of the newest event, so the first bet on
+ * a new event rarely has to create one (see BettingService for that case), and, when enabled, detaches ranges whose events are all settled so they can be archived and dropped
+ * without deleting rows from the live table.
+ */
+@Component
+@Slf4j
+public class BetPartitionMaintenance {
+
+	/**
+	 * Event ids per partition; must match ensure_bets_partition.
+	 */
+	static final long PARTITION_WIDTH = 1000;
+
+	private static final Pattern PARTITION = Pattern.compile("bets_p\\d+");
+	private static final DateTimeFormatter DETACHED_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+	private final JdbcTemplate jdbcTemplate;
+	private final boolean detachSettled;
+	private final Duration detachAfter;
+
+	public BetPartitionMaintenance(
+			JdbcTemplate jdbcTemplate,
+			@Value("${betting.partitions.detach-settled:false}") boolean detachSettled,
+			@Value("${betting.partitions.detach-after:7d}") Duration detachAfter
+	) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.detachSettled = detachSettled;
+		this.detachAfter = detachAfter;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${betting.partitions.maintenance-interval:1h}", initialDelayString = "${betting.partitions.maintenance-interval:1h}")
+	public void maintain() {
+		createMissingPartitions();
+		if (detachSettled) {
+			detachSettledPartitions();
+		}
+	}
+
+	/**
+	 * Create partitions for open events that have none and for the range after the newest event.
+	 * Negative (synthetic) event ids share the bets_synthetic partition created by V10.
+	 */
+	public List<String> createMissingPartitions() {
+		List<Long> rangeStarts = jdbcTemplate.queryForList(
+				"SELECT DISTINCT (event_id / ?) * ? FROM (" +
+						"SELECT event_id FROM historical_events WHERE event_id >= 0 AND status IN ('OPEN', 'LOCKED') " +
+						"UNION SELECT max(event_id) + ? FROM historical_events WHERE event_id >= 0) ids " +
+						"WHERE event_id IS NOT NULL",
+				Long.class, PARTITION_WIDTH, PARTITION_WIDTH, PARTITION_WIDTH);
+		List<String> partitions = rangeStarts.stream()
+				.map(start -> jdbcTemplate.queryForObject("SELECT ensure_bets_partition(?)", String.class, start))
+				.toList();
+		log.debug("Bet partitions in place for ranges {}", rangeStarts);
+		return partitions;
+	}
+
+	/**
+	 * Detach every range partition whose events have all been settled for at least {@code detachAfter}.
+	 * Detached tables keep their rows under a new name until they are archived.
+	 * <p>
+	 * Uses DETACH PARTITION CONCURRENTLY, which only takes SHARE UPDATE EXCLUSIVE on bets, so placements and
+	 * reads of other events carry on; it cannot run inside a transaction.
+	 */
+	public List<String> detachSettledPartitions() {
+		finishInterruptedDetaches();
+		List<String> detached = new ArrayList<>();
+		for (String partition : settledPartitions()) {
+			String table = jdbcTemplate.execute((ConnectionCallback<String>) connection -> detach(connection, partition));
+			if (table != null) {
+				detached.add(table);
+			}
+		}
+		if (!detached.isEmpty()) {
+			log.info("Detached settled bet partitions {}", detached);
+		}
+		return detached;
+	}
+
+	/**
+	 * Detach and rename a partition while holding the partition lock of ensure_bets_partition exclusively. Events
+	 * are registered under that lock shared, so none can join the range between the re-check and the detach; one
+	 * registered afterwards gets a new partition.
+	 *
+	 * @return the new name, or null when the range took a new event before the lock was taken
+	 */
+	private String detach(Connection connection, String partition) throws SQLException {
+		if (!PARTITION.matcher(partition).matches()) {
+			throw new IllegalArgumentException("Not a bets partition: " + partition);
+		}
+		if (!connection.getAutoCommit()) {
+			throw new IllegalStateException("Partitions are detached CONCURRENTLY, which cannot run in a transaction");
+		}
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("SELECT pg_advisory_lock(hashtext('bets_partitions'))");
+			try {
+				if (!settledPartitions().contains(partition)) return null;
+				statement.execute("ALTER TABLE bets DETACH PARTITION " + partition + " CONCURRENTLY");
+				String detached = partition + "_detached_" + DETACHED_SUFFIX.format(LocalDateTime.now(ZoneOffset.UTC));
+				statement.execute("ALTER TABLE " + partition + " RENAME TO " + detached);
+				return detached;
+			} finally {
+				statement.execute("SELECT pg_advisory_unlock(hashtext('bets_partitions'))");
+			}
+		}
+	}
+
+	/**
+	 * A concurrent detach that was cancelled or crashed leaves its partition pending; complete it.
+	 */
+	private void finishInterruptedDetaches() {
+		List<String> pending = jdbcTemplate.queryForList(
+				"SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+						"WHERE i.inhparent = 'bets'::regclass AND i.inhdetachpending",
+				String.class);
+		for (String partition : pending) {
+			if (!PARTITION.matcher(partition).matches()) continue;
+			jdbcTemplate.execute("ALTER TABLE bets DETACH PARTITION " + partition + " FINALIZE");
+			log.warn("Finished interrupted detach of bet partition {}", partition);
+		}
+	}
+
+	private List<String> settledPartitions() {
+		return jdbcTemplate.queryForList(
+				"SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+						"WHERE i.inhparent = 'bets'::regclass AND c.relname LIKE 'bets\\_p%' " +
+						"AND NOT EXISTS (" +
+						"  SELECT 1 FROM historical_events e LEFT JOIN event_outcomes o ON o.event_id = e.event_id " +
+						"  WHERE e.event_id >= substring(c.relname FROM 7)::bigint " +
+						"  AND e.event_id < substring(c.relname FROM 7)::bigint + ? " +
+						"  AND (e.status <> 'SETTLED' OR o.settled_at IS NULL OR o.settled_at > now() - make_interval(secs => ?)))",
+				String.class, PARTITION_WIDTH, detachAfter.toSeconds());
+	}
+}
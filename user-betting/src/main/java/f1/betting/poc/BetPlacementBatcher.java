@@ -0,0 +1,319 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.BetPlaced;
+import f1.betting.poc.domain.BetStatus;
+import f1.betting.poc.domain.Driver;
+import f1.betting.poc.domain.EventDetails;
+import f1.betting.poc.domain.EventStatus;
+import f1.betting.poc.web.BetResponse;
+import f1.betting.poc.web.PlaceBetRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Group commit for bet placement.
+ * Placements arriving within {@code max-wait} of each other are applied by a single writer thread in one
+ * transaction: user rows are locked once, balances are checked in arrival order, and debits, pool stakes and
+ * bets are written with one multi-row statement each. Every caller still gets its own response or error;
+ * a bet rejected for balance or event status does not affect the rest of its batch.
+ * <p>
+ * Off by default. Placements with an idempotency key or inside a caller's transaction never go through here.
+ * Events arrive already registered (row and bets partition) by {@link BettingService}.
+ * <p>
+ * On shutdown new placements are turned away with 429, the writer places what is already queued, and whatever it
+ * has not taken within {@code timeout} is failed rather than left waiting.
+ */
+@Component
+@Slf4j
+public class BetPlacementBatcher {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final LivePoolOdds livePoolOdds;
+	private final EventStatusRegistry eventStatusRegistry;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher events;
+	private final boolean enabled;
+	private final int maxBatchSize;
+	private final Duration maxWait;
+	private final Duration timeout;
+
+	private final BlockingQueue<PendingBet> queue = new LinkedBlockingQueue<>();
+	// Held for reading while a placement is queued and for writing while stopping, so none is queued after the drain
+	private final ReadWriteLock submission = new ReentrantReadWriteLock();
+	private volatile boolean running;
+	private Thread writer;
+
+	public BetPlacementBatcher(
+			JdbcTemplate jdbcTemplate,
+			LivePoolOdds livePoolOdds,
+			EventStatusRegistry eventStatusRegistry,
+			TransactionTemplate transactionTemplate,
+			ApplicationEventPublisher events,
+			@Value("${betting.placement.batching.enabled:false}") boolean enabled,
+			@Value("${betting.placement.batching.max-batch-size:200}") int maxBatchSize,
+			@Value("${betting.placement.batching.max-wait:5ms}") Duration maxWait,
+			@Value("${betting.placement.batching.timeout:10s}") Duration timeout
+	) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.livePoolOdds = livePoolOdds;
+		this.eventStatusRegistry = eventStatusRegistry;
+		this.transactionTemplate = transactionTemplate;
+		this.events = events;
+		this.enabled = enabled;
+		this.maxBatchSize = maxBatchSize;
+		this.maxWait = maxWait;
+		this.timeout = timeout;
+	}
+
+	@PostConstruct
+	void startWriter() {
+		if (!enabled) return;
+		running = true;
+		writer = Thread.ofPlatform().name("bet-batch-writer").daemon().start(this::writeLoop);
+	}
+
+	@PreDestroy
+	void stopWriter() {
+		if (writer == null) return;
+		submission.writeLock().lock();
+		try {
+			running = false;
+		} finally {
+			submission.writeLock().unlock();
+		}
+		// The writer places what is already queued before it exits
+		writer.interrupt();
+		try {
+			writer.join(timeout);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		List<PendingBet> left = new ArrayList<>();
+		queue.drainTo(left);
+		if (left.isEmpty()) return;
+		log.warn("Bet batch writer did not finish within {}, failing {} queued bets", timeout, left.size());
+		left.forEach(pending -> pending.result().completeExceptionally(shuttingDown()));
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Queue a validated placement and wait for the batch it lands in to commit.
+	 */
+	public BetResponse place(PlaceBetRequest request, EventDetails eventDetails, Driver driver) {
+		PendingBet pending = new PendingBet(request, eventDetails, driver, new CompletableFuture<>());
+		submission.readLock().lock();
+		try {
+			if (!running) throw shuttingDown();
+			queue.add(pending);
+		} finally {
+			submission.readLock().unlock();
+		}
+		try {
+			return pending.result().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) throw cause;
+			throw new IllegalStateException(ex.getCause());
+		} catch (TimeoutException ex) {
+			// The bet may still be placed by its batch; the caller finds out from its bet history
+			throw new PlacementTimeoutException("Bet placement did not complete within " + timeout, ex);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while placing bet", ex);
+		}
+	}
+
+	private static AdmissionRejectedException shuttingDown() {
+		// Retried by the client, typically on another node
+		return new AdmissionRejectedException("Bet placement is shutting down", Duration.ofSeconds(1));
+	}
+
+	private void writeLoop() {
+		List<PendingBet> batch = new ArrayList<>(maxBatchSize);
+		while (true) {
+			try {
+				batch.add(queue.take());
+				long deadline = System.nanoTime() + maxWait.toNanos();
+				while (batch.size() < maxBatchSize) {
+					PendingBet next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (next == null) break;
+					batch.add(next);
+				}
+			} catch (InterruptedException ex) {
+				queue.drainTo(batch);
+				flush(batch);
+				return;
+			}
+			flush(batch);
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Apply a batch in one transaction and complete its callers after the commit.
+	 * If the transaction fails as a whole, its bets are retried one per transaction so that a single
+	 * unexpected failure cannot fail its neighbours.
+	 */
+	private void flush(List<PendingBet> batch) {
+		if (batch.isEmpty()) return;
+		List<Object> outcomes;
+		try {
+			outcomes = transactionTemplate.execute(status -> apply(batch));
+		} catch (RuntimeException ex) {
+			if (batch.size() == 1) {
+				batch.get(0).result().completeExceptionally(ex);
+				return;
+			}
+			log.warn("Batch of {} bets failed, placing them one by one", batch.size(), ex);
+			batch.forEach(pending -> flush(List.of(pending)));
+			return;
+		}
+		for (int i = 0; i < batch.size(); i++) {
+			if (outcomes.get(i) instanceof BetResponse response) {
+				batch.get(i).result().complete(response);
+			} else {
+				batch.get(i).result().completeExceptionally((RuntimeException) outcomes.get(i));
+			}
+		}
+		log.debug("Placed a batch of {} bets", batch.size());
+	}
+
+	/**
+	 * @return per bet, in batch order, either its {@link BetResponse} or the exception it is rejected with
+	 */
+	private List<Object> apply(List<PendingBet> batch) {
+		List<Object> outcomes = new ArrayList<>(batch.size());
+
+		// Events: read every status once
+		Set<Long> batchEventIds = new LinkedHashSet<>();
+		batch.forEach(pending -> batchEventIds.add(pending.eventDetails().getSessionKey()));
+		// Share-locked, in id order, so a lock or settlement of the event waits for this batch or is seen by it
+		Map<Long, EventStatus> eventStatuses = new HashMap<>();
+		jdbcTemplate.query("SELECT event_id, status FROM historical_events WHERE event_id = ANY(?::bigint[]) " +
+						"ORDER BY event_id FOR SHARE",
+				rs -> {
+					eventStatuses.put(rs.getLong(1), EventStatus.valueOf(rs.getString(2)));
+				},
+				(Object) batchEventIds.toArray(Long[]::new));
+		eventStatuses.forEach(eventStatusRegistry::record);
+
+		// Users: lock each row once, in id order, and settle balances in memory in arrival order
+		Long[] userIds = batch.stream().map(pending -> pending.request().userId()).distinct().toArray(Long[]::new);
+		Map<Long, Long> balances = new HashMap<>();
+		jdbcTemplate.query("SELECT id, balance_eur FROM users WHERE id = ANY(?::bigint[]) ORDER BY id FOR UPDATE",
+				rs -> {
+					balances.put(rs.getLong(1), rs.getLong(2));
+				},
+				(Object) userIds);
+
+		List<PendingBet> accepted = new ArrayList<>(batch.size());
+		Map<Long, Long> debits = new TreeMap<>();
+		Map<PoolKey, long[]> stakes = new TreeMap<>();
+		for (PendingBet pending : batch) {
+			PlaceBetRequest request = pending.request();
+			Long balance = balances.get(request.userId());
+			if (eventStatuses.get(pending.eventDetails().getSessionKey()) != EventStatus.OPEN) {
+				outcomes.add(new IllegalStateException("Event is not open for betting"));
+			} else if (balance == null) {
+				outcomes.add(new IllegalArgumentException("User not found"));
+			} else if (balance < request.amountEur()) {
+				outcomes.add(new IllegalStateException("Insufficient balance"));
+			} else {
+				balances.put(request.userId(), balance - request.amountEur());
+				debits.merge(request.userId(), request.amountEur(), Long::sum);
+				long[] stake = stakes.computeIfAbsent(
+						new PoolKey(pending.eventDetails().getSessionKey(), pending.driver().getDriverNumber()), key -> new long[2]);
+				stake[0] += request.amountEur();
+				stake[1]++;
+				accepted.add(pending);
+				outcomes.add(null);
+			}
+		}
+		if (accepted.isEmpty()) return outcomes;
+
+		jdbcTemplate.update("UPDATE users u SET balance_eur = u.balance_eur - d.amount " +
+						"FROM unnest(?::bigint[], ?::bigint[]) AS d(id, amount) WHERE u.id = d.id",
+				debits.keySet().toArray(Long[]::new), debits.values().toArray(Long[]::new));
+
+		// Pool rows are upserted in key order, like the user rows above
+		jdbcTemplate.update("INSERT INTO bet_pools(event_id, driver_id, stake_eur, bet_count) " +
+						"SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::bigint[]) " +
+						"ON CONFLICT (event_id, driver_id) DO UPDATE " +
+						"SET stake_eur = bet_pools.stake_eur + EXCLUDED.stake_eur, bet_count = bet_pools.bet_count + EXCLUDED.bet_count",
+				stakes.keySet().stream().map(PoolKey::eventId).toArray(Long[]::new),
+				stakes.keySet().stream().map(PoolKey::driverId).toArray(Long[]::new),
+				stakes.values().stream().map(stake -> stake[0]).toArray(Long[]::new),
+				stakes.values().stream().map(stake -> stake[1]).toArray(Long[]::new));
+
+		// Ids are drawn up front so the multi-row insert needs no RETURNING round trip per row
+		List<Long> betIds = jdbcTemplate.queryForList(
+				"SELECT nextval('bets_id_seq') FROM generate_series(1, ?)", Long.class, accepted.size());
+		int n = accepted.size();
+		Long[] eventIds = new Long[n];
+		Long[] betUserIds = new Long[n];
+		Long[] driverIds = new Long[n];
+		String[] driverNames = new String[n];
+		Long[] amounts = new Long[n];
+		Integer[] odds = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			PendingBet pending = accepted.get(i);
+			eventIds[i] = pending.eventDetails().getSessionKey();
+			betUserIds[i] = pending.request().userId();
+			driverIds[i] = pending.driver().getDriverNumber();
+			driverNames[i] = pending.driver().getFullName();
+			amounts[i] = pending.request().amountEur();
+			odds[i] = pending.driver().getOdds();
+		}
+		jdbcTemplate.update("INSERT INTO bets(id, user_id, event_id, driver_id, driver_name, amount_eur, odds, status) " +
+						"SELECT b.*, 'PENDING' FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::bigint[], ?::text[], ?::bigint[], ?::int[]) " +
+						"AS b(id, user_id, event_id, driver_id, driver_name, amount_eur, odds)",
+				betIds.toArray(Long[]::new), betUserIds, eventIds, driverIds, driverNames, amounts, odds);
+
+		for (int i = 0, a = 0; i < outcomes.size(); i++) {
+			if (outcomes.get(i) != null) continue;
+			Long betId = betIds.get(a);
+			livePoolOdds.recordStake(eventIds[a], driverIds[a], amounts[a]);
+			events.publishEvent(new BetPlaced(betId, betUserIds[a], eventIds[a], driverIds[a], amounts[a], odds[a]));
+			outcomes.set(i, new BetResponse(betId, eventIds[a], driverIds[a], amounts[a], odds[a], BetStatus.PENDING.name()));
+			a++;
+		}
+		return outcomes;
+	}
+
+	private record PendingBet(PlaceBetRequest request, EventDetails eventDetails, Driver driver,
+							  CompletableFuture<BetResponse> result) {
+	}
+
+	private record PoolKey(long eventId, long driverId) implements Comparable<PoolKey> {
+		@Override
+		public int compareTo(PoolKey other) {
+			int byEvent = Long.compare(eventId, other.eventId);
+			return byEvent != 0 ? byEvent : Long.compare(driverId, other.driverId);
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package f1.betting.poc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one {@link BettingService#placeBet} call, from validation to response or failure.
+ */
+@Name("f1.betting.BetPlacement")
+@Label("Bet Placement")
+@Category({"F1 Betting", "User Betting"})
+@Description("Placement of a single bet")
+@StackTrace(false)
+class BetPlacementEvent extends Event {
+
+	@Label("User Id")
+	long userId;
+
+	@Label("Event Id")
+	long eventId;
+
+	@Label("Driver Id")
+	long driverId;
+
+	@Label("Amount EUR")
+	long amountEur;
+
+	@Label("Idempotency Key")
+	boolean keyed;
+
+	@Label("Outcome")
+	String outcome;
+}
@@ -0,0 +1,37 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.BetPool;
+import f1.betting.poc.domain.BetPoolId;
+import f1.betting.poc.domain.EventStatus;
+import f1.betting.poc.domain.SettlementTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BetPoolRepository extends JpaRepository<BetPool, BetPoolId> {
+
+	@Modifying
+	@Query(
+			value = "INSERT INTO bet_pools(event_id, driver_id, stake_eur, bet_count) " +
+					"VALUES (:eventId, :driverId, :amount, 1) " +
+					"ON CONFLICT (event_id, driver_id) DO UPDATE " +
+					"SET stake_eur = bet_pools.stake_eur + EXCLUDED.stake_eur, bet_count = bet_pools.bet_count + 1",
+			nativeQuery = true
+	)
+	void addStake(Long eventId, Long driverId, Long amount);
+
+	List<BetPool> findByEventIdOrderByDriverId(Long eventId);
+
+	@Query("SELECT p FROM BetPool p, HistoricalEvent e WHERE e.eventId = p.eventId AND e.status IN :statuses")
+	List<BetPool> findByEventStatusIn(Collection<EventStatus> statuses);
+
+	@Query("SELECT new f1.betting.poc.domain.SettlementTotals(" +
+			"COALESCE(SUM(p.stakeEur), 0L), " +
+			"COALESCE(SUM(CASE WHEN p.driverId = :winningDriverId THEN p.stakeEur ELSE 0L END), 0L), " +
+			"COALESCE(SUM(p.betCount), 0L)) " +
+			"FROM BetPool p WHERE p.eventId = :eventId")
+	SettlementTotals settlementTotals(Long eventId, Long winningDriverId);
+}
@@ -1,10 +1,15 @@
 package f1.betting.poc;
 
 import f1.betting.poc.domain.Bet;
+import f1.betting.poc.domain.BetHistoryEntry;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface BetRepository extends JpaRepository<Bet, Long> {
@@ -13,5 +18,27 @@ public interface BetRepository extends JpaRepository<Bet, Long> {
 
 	Page<Bet> findByEventId(Long eventId, Pageable pageable);
 
-	List<Bet> findByUserId(Long userId);
-}
\ No newline at end of file
+	@Query("SELECT new f1.betting.poc.domain.BetHistoryEntry(" +
+			"b.id, b.eventId, b.driverId, b.driverName, b.amountEur, b.odds, b.status, b.createdAt) " +
+			"FROM Bet b WHERE b.user.id = :userId " +
+			"ORDER BY b.createdAt DESC, b.id DESC")
+	List<BetHistoryEntry> findHistory(Long userId, Limit limit);
+
+	/**
+	 * History page strictly older than the (createdAt, id) cursor. The redundant {@code <=} bound
+	 * gives Postgres a range start on ix_bets_user_history.
+	 */
+	@Query("SELECT new f1.betting.poc.domain.BetHistoryEntry(" +
+			"b.id, b.eventId, b.driverId, b.driverName, b.amountEur, b.odds, b.status, b.createdAt) " +
+			"FROM Bet b WHERE b.user.id = :userId " +
+			"AND b.createdAt <= :beforeCreatedAt " +
+			"AND (b.createdAt < :beforeCreatedAt OR b.id < :beforeId) " +
+			"ORDER BY b.createdAt DESC, b.id DESC")
+	List<BetHistoryEntry> findHistoryBefore(Long userId, OffsetDateTime beforeCreatedAt, Long beforeId, Limit limit);
+
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query("UPDATE Bet b SET b.status = CASE WHEN b.driverId = :winningDriverId " +
+			"THEN f1.betting.poc.domain.BetStatus.WON ELSE f1.betting.poc.domain.BetStatus.LOST END " +
+			"WHERE b.eventId = :eventId AND b.id > :afterBetId AND b.id <= :upToBetId")
+	int markSettled(Long eventId, Long winningDriverId, Long afterBetId, Long upToBetId);
+}
@@ -2,11 +2,15 @@ package f1.betting.poc;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  *
  */
 @SpringBootApplication
+@EnableAsync
+@EnableScheduling
 public class BettingApplication {
 
 	public static void main(String[] args) {
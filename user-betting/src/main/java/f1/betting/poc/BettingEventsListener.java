@@ -0,0 +1,66 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.BetPlaced;
+import f1.betting.poc.domain.EventLocked;
+import f1.betting.poc.domain.EventSettled;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Consumes betting events after the publishing transaction commits.
+ * Each event is recorded in the Modulith event publication registry within that transaction and delivered
+ * asynchronously on the spring.task.execution pool; a publication stays incomplete until the listener returns,
+ * so failures are retried on restart.
+ * BetPlaced, by far the most frequent, is handled in batches ({@code betting.events.batching.*}): concurrent
+ * deliveries are grouped by an {@link EventBatcher} and each returns once its batch is handled, so a read model
+ * can write once per batch without giving up the retry.
+ * This is the hook for notifications, statistics or risk read models that must not poll the bets table.
+ */
+@Component
+@Slf4j
+public class BettingEventsListener {
+
+	private final LivePoolOdds livePoolOdds;
+	private final EventBatcher<BetPlaced> betsPlaced;
+
+	public BettingEventsListener(
+			LivePoolOdds livePoolOdds,
+			@Value("${betting.events.batching.max-batch-size:100}") int maxBatchSize,
+			@Value("${betting.events.batching.max-wait:10ms}") Duration maxWait
+	) {
+		this.livePoolOdds = livePoolOdds;
+		this.betsPlaced = new EventBatcher<>("bet-placed-dispatcher", this::onBetsPlaced, maxBatchSize, maxWait);
+	}
+
+	@PreDestroy
+	void stop() {
+		betsPlaced.close();
+	}
+
+	@ApplicationModuleListener
+	void on(BetPlaced event) {
+		betsPlaced.handle(event);
+	}
+
+	private void onBetsPlaced(List<BetPlaced> batch) {
+		log.debug("{} bets placed: {}", batch.size(), batch.stream().map(BetPlaced::betId).toList());
+	}
+
+	@ApplicationModuleListener
+	void on(EventLocked event) {
+		log.info("Event {} closed for betting", event.eventId());
+	}
+
+	@ApplicationModuleListener
+	void on(EventSettled event) {
+		log.info("Event {} settled: {} bets, pool {} EUR, winner {}",
+				event.eventId(), event.settledBets(), event.totalPoolEur(), event.winningDriverId());
+		livePoolOdds.evict(event.eventId());
+	}
+}
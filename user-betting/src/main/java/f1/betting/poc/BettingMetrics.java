@@ -0,0 +1,138 @@
+package f1.betting.poc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers for the money path, all tagged with {@code outcome}:
+ * <ul>
+ *     <li>{@code betting.placement}: whole placements</li>
+ *     <li>{@code betting.placement.phase}: each step of a placement, tagged with {@code phase}</li>
+ *     <li>{@code betting.settlement} and {@code betting.settlement.phase}: settlement jobs and the steps of each chunk</li>
+ *     <li>{@code betting.event-service.requests}: calls to event-service, tagged with {@code operation}</li>
+ * </ul>
+ * plus the {@code betting.settlement.bets} counter. Percentile histograms are enabled in application.yml.
+ * <p>
+ * Failures are tagged by what went wrong for the bettor (insufficient_balance, event_closed, driver_not_found,
+ * user_not_found, event_not_found, duplicate_key, invalid) or {@code error} for anything unexpected.
+ * <p>
+ * Work run through {@link #warmingUp} is timed into a throwaway registry instead, so the synthetic placements
+ * of {@link JitWarmUp} compile the same recording code without showing up in the published timers.
+ */
+@Component
+public class BettingMetrics {
+
+	static final String SUCCESS = "success";
+
+	private final MeterRegistry meterRegistry;
+	private final MeterRegistry warmUpRegistry = new SimpleMeterRegistry();
+	private final ThreadLocal<Boolean> warmingUp = ThreadLocal.withInitial(() -> false);
+	private final Counter settledBets;
+
+	public BettingMetrics(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+		this.settledBets = Counter.builder("betting.settlement.bets")
+				.description("Bets settled by settlement jobs")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Run {@code work} with everything it times in this thread kept out of the published timers.
+	 */
+	public <T> T warmingUp(Supplier<T> work) {
+		warmingUp.set(true);
+		try {
+			return work.get();
+		} finally {
+			warmingUp.remove();
+		}
+	}
+
+	/**
+	 * Record a whole placement that started at {@code startNanos} ({@link System#nanoTime()}).
+	 */
+	public void placement(long startNanos, Throwable failure) {
+		Timer.builder("betting.placement")
+				.description("Bet placements from validation to response")
+				.tag("outcome", outcome(failure))
+				.register(registry())
+				.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+	}
+
+	public <T> T placementPhase(String phase, Supplier<T> step) {
+		return time(Timer.builder("betting.placement.phase").description("Steps of a bet placement").tag("phase", phase), step);
+	}
+
+	public void placementPhase(String phase, Runnable step) {
+		placementPhase(phase, () -> {
+			step.run();
+			return null;
+		});
+	}
+
+	public <T> T settlement(Supplier<T> job) {
+		return time(Timer.builder("betting.settlement").description("Settlement jobs from start to completion"), job);
+	}
+
+	public <T> T settlementPhase(String phase, Supplier<T> step) {
+		return time(Timer.builder("betting.settlement.phase").description("Steps of a settlement chunk").tag("phase", phase), step);
+	}
+
+	public void settlementPhase(String phase, Runnable step) {
+		settlementPhase(phase, () -> {
+			step.run();
+			return null;
+		});
+	}
+
+	public void settledBets(int count) {
+		settledBets.increment(count);
+	}
+
+	public <T> T eventServiceCall(String operation, Supplier<T> call) {
+		return time(Timer.builder("betting.event-service.requests").description("Calls to event-service").tag("operation", operation), call);
+	}
+
+	private <T> T time(Timer.Builder timer, Supplier<T> work) {
+		long start = System.nanoTime();
+		Throwable failure = null;
+		try {
+			return work.get();
+		} catch (RuntimeException | Error ex) {
+			failure = ex;
+			throw ex;
+		} finally {
+			timer.tag("outcome", outcome(failure))
+					.register(registry())
+					.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private MeterRegistry registry() {
+		return warmingUp.get() ? warmUpRegistry : meterRegistry;
+	}
+
+	/**
+	 * Outcome tag of a failure, from the exceptions BettingService and BetPlacementBatcher throw.
+	 */
+	static String outcome(Throwable failure) {
+		if (failure == null) return SUCCESS;
+		if (failure instanceof DuplicateIdempotencyKeyException) return "duplicate_key";
+		if (failure instanceof HttpClientErrorException.NotFound) return "event_not_found";
+		String message = failure.getMessage() == null ? "" : failure.getMessage();
+		if (message.startsWith("Insufficient balance")) return "insufficient_balance";
+		if (message.startsWith("Event is not open")) return "event_closed";
+		if (message.startsWith("Driver not found")) return "driver_not_found";
+		if (message.startsWith("User not found")) return "user_not_found";
+		if (message.startsWith("Event not found")) return "event_not_found";
+		if (failure instanceof IllegalArgumentException) return "invalid";
+		return "error";
+	}
+}
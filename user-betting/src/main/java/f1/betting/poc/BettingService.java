@@ -2,19 +2,25 @@ package f1.betting.poc;
 
 import f1.betting.poc.web.BetResponse;
 import f1.betting.poc.web.PlaceBetRequest;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 import f1.betting.poc.domain.EventDetails;
 import f1.betting.poc.domain.Driver;
@@ -23,8 +29,11 @@ import f1.betting.poc.domain.HistoricalEvent;
 import f1.betting.poc.domain.User;
 import f1.betting.poc.domain.BetStatus;
 import f1.betting.poc.domain.Bet;
-import f1.betting.poc.domain.EventOutcome;
+import f1.betting.poc.domain.BetPool;
 import f1.betting.poc.domain.EventResult;
+import f1.betting.poc.domain.BetPlaced;
+import f1.betting.poc.domain.EventLocked;
+import f1.betting.poc.web.EventPoolResponse;
 
 @Service
 @RequiredArgsConstructor
@@ -34,8 +43,17 @@ public class BettingService {
 	private final UserRepository userRepository;
 	private final HistoricalEventRepository historicalEventRepository;
 	private final BetRepository betRepository;
-	private final EventOutcomeRepository eventOutcomeRepository;
+	private final BetPoolRepository betPoolRepository;
+	private final LivePoolOdds livePoolOdds;
+	private final BetPlacementBatcher betPlacementBatcher;
+	private final EventStatusRegistry eventStatusRegistry;
+	private final BetIdempotencyKeyRepository betIdempotencyKeyRepository;
 	private final RestTemplate restTemplate;
+	private final Executor quoteExecutor;
+	private final TransactionTemplate transactionTemplate;
+	private final BettingMetrics bettingMetrics;
+	private final ObservationRegistry observationRegistry;
+	private final ApplicationEventPublisher events;
 
 	@Value("${event.service.base-url:http://localhost:8081}")
 	private String eventServiceBaseUrl;
@@ -43,57 +61,222 @@ public class BettingService {
 	/**
 	 * Place a single bet
 	 */
-	@Transactional
 	public BetResponse placeBet(@NotNull PlaceBetRequest request) {
-		// --- 1. Pre-check: event exists & get drivers/odds
-		EventDetails eventDetails = fetchEventFromEventService(request.eventId());
-		Driver driver = eventDetails.getDrivers().stream()
+		return placeBet(request, null);
+	}
+
+	/**
+	 * Place a single bet and claim its idempotency key in the same transaction, before anything else is written.
+	 * Throws {@link DuplicateIdempotencyKeyException} when the key is already taken, without debiting.
+	 * <p>
+	 * The event-service quote is fetched on {@code quoteExecutor} while the user and event are checked locally,
+	 * so a placement waits for the slower of the two instead of both. The transaction is only opened once
+	 * the quote is in, and re-checks everything it writes against.
+	 * <p>
+	 * Every placement and each of its steps is timed in {@link BettingMetrics}, tagged with the outcome,
+	 * and recorded as a {@link BetPlacementEvent} in JFR. The placement is also an observation, so with tracing on
+	 * the event-service call, its own spans in event-service and the SQL statements share one trace.
+	 */
+	public BetResponse placeBet(@NotNull PlaceBetRequest request, String idempotencyKey) {
+		return placeBet(request, idempotencyKey, this::fetchEventFromEventService, false);
+	}
+
+	/**
+	 * Place a bet against a quote supplied by the caller instead of event-service. Only meant for
+	 * {@link JitWarmUp}, which runs it in a transaction it rolls back. Its timers go to a throwaway registry,
+	 * and it records no JFR event and no place-bet observation.
+	 */
+	BetResponse placeBetWithQuote(@NotNull PlaceBetRequest request, EventDetails quote) {
+		return bettingMetrics.warmingUp(() -> placeBet(request, null, eventId -> quote, true));
+	}
+
+	private BetResponse placeBet(PlaceBetRequest request, String idempotencyKey, Function<Long, EventDetails> quotes,
+								 boolean warmUp) {
+		long start = System.nanoTime();
+		BetPlacementEvent jfrEvent = new BetPlacementEvent();
+		jfrEvent.begin();
+		ObservationRegistry observations = warmUp ? ObservationRegistry.NOOP : observationRegistry;
+		Observation observation = Observation.createNotStarted("betting.place-bet", observations)
+				.contextualName("place bet")
+				.highCardinalityKeyValue("event.id", String.valueOf(request.eventId()))
+				.start();
+		Throwable failure = null;
+		try (Observation.Scope scope = observation.openScope()) {
+			return place(request, idempotencyKey, quotes);
+		} catch (RuntimeException ex) {
+			failure = ex;
+			observation.error(ex);
+			throw ex;
+		} finally {
+			observation.lowCardinalityKeyValue("outcome", BettingMetrics.outcome(failure));
+			observation.stop();
+			bettingMetrics.placement(start, failure);
+			jfrEvent.end();
+			if (!warmUp && jfrEvent.shouldCommit()) {
+				jfrEvent.userId = request.userId() == null ? 0 : request.userId();
+				jfrEvent.eventId = request.eventId() == null ? 0 : request.eventId();
+				jfrEvent.driverId = request.driverId() == null ? 0 : request.driverId();
+				jfrEvent.amountEur = request.amountEur() == null ? 0 : request.amountEur();
+				jfrEvent.keyed = idempotencyKey != null;
+				jfrEvent.outcome = BettingMetrics.outcome(failure);
+				jfrEvent.commit();
+			}
+		}
+	}
+
+	private BetResponse place(PlaceBetRequest request, String idempotencyKey, Function<Long, EventDetails> quotes) {
+		// --- 1. Cheap validation, before anything leaves the process
+		if (request.amountEur() == null || request.amountEur() <= 0) {
+			throw new IllegalArgumentException("Bet must be positive");
+		}
+		// Events this node knows to be closed are turned away before any remote or database call
+		if (eventStatusRegistry.isClosed(request.eventId())) {
+			throw new IllegalStateException("Event is not open for betting");
+		}
+
+		// --- 2. Remote quote and local checks in parallel
+		CompletableFuture<EventDetails> quote = CompletableFuture.supplyAsync(
+				() -> quotes.apply(request.eventId()), quoteExecutor);
+		User user;
+		try {
+			user = bettingMetrics.placementPhase("precheck",
+					() -> transactionTemplate.execute(status -> checkUserAndEvent(request)));
+		} catch (RuntimeException ex) {
+			// Nobody waits for the quote any more; the in-flight call ends within the event-service read timeout
+			quote.cancel(false);
+			throw ex;
+		}
+		// Time spent waiting for event-service beyond the local checks
+		EventDetails eventDetails = bettingMetrics.placementPhase("quote_wait", () -> awaitQuote(quote));
+
+		Driver driver = bettingMetrics.placementPhase("driver_lookup", () -> eventDetails.getDrivers().stream()
 				.filter(d -> d.getDriverNumber().equals(request.driverId()))
 				.findFirst()
-				.orElseThrow(() -> new IllegalArgumentException("Driver not found in event"));
+				.orElseThrow(() -> new IllegalArgumentException("Driver not found in event")));
 
 		log.info( "Creating a bet for driver {} in the event {}", driver.getDriverNumber(), eventDetails.getSessionKey() );
 
-		if (request.amountEur() == null || request.amountEur() <= 0) {
-			throw new IllegalArgumentException("Bet must be positive");
+		// --- 3. Event row and bets partition, committed before the placement locks anything; skipped once known here
+		if (!eventStatusRegistry.isKnown(eventDetails.getSessionKey())) {
+			bettingMetrics.placementPhase("event_upsert",
+					() -> transactionTemplate.execute(status -> registerEvent(eventDetails)));
 		}
 
-		// --- 2. Transactional placement
-		// Insert event if not exists
+		// --- 4. Transactional placement, group-committed with concurrent placements when batching is on
+		if (idempotencyKey == null && betPlacementBatcher.isEnabled()
+				&& !TransactionSynchronizationManager.isActualTransactionActive()) {
+			return bettingMetrics.placementPhase("batch", () -> betPlacementBatcher.place(request, eventDetails, driver));
+		}
+		return bettingMetrics.placementPhase("transaction", () -> transactionTemplate.execute(
+				status -> placeInTransaction(request, idempotencyKey, eventDetails, driver, user)));
+	}
+
+	/**
+	 * Local part of the pre-validation: the user exists and the event, if already known, still takes bets
+	 */
+	private User checkUserAndEvent(PlaceBetRequest request) {
+		User user = userRepository.findById(request.userId())
+				.orElseThrow(() -> new IllegalArgumentException("User not found"));
+		if (!eventStatusRegistry.isKnown(request.eventId())) {
+			historicalEventRepository.findById(request.eventId()).ifPresent(event -> {
+				eventStatusRegistry.record(event.getEventId(), event.getStatus());
+				if (event.getStatus() != EventStatus.OPEN) {
+					throw new IllegalStateException("Event is not open for betting");
+				}
+			});
+		}
+		return user;
+	}
+
+	/**
+	 * Insert the event if it does not exist yet, and make sure its bets partition does. Runs in a short transaction
+	 * of its own (or the caller's): creating a partition briefly locks users and historical_events, which must not
+	 * last as long as a placement transaction.
+	 */
+	private Void registerEvent(EventDetails eventDetails) {
+		Long eventId = eventDetails.getSessionKey();
+		historicalEventRepository.ensureBetsPartition(eventId);
 		historicalEventRepository.insertIfNotExists(
-				eventDetails.getSessionKey(),
+				eventId,
 				eventDetails.getSessionName(),
 				eventDetails.getCountryName(),
 				eventDetails.getDateStart() == null ? null : eventDetails.getDateStart().getYear(),
 				"OPEN"
 		);
+		return null;
+	}
 
-		// Lock event row
-		HistoricalEvent event = historicalEventRepository.findById(eventDetails.getSessionKey())
-				.orElseThrow(() -> new IllegalStateException("Event should exist now"));
-		if (event.getStatus() != EventStatus.OPEN) {
+	private EventDetails awaitQuote(CompletableFuture<EventDetails> quote) {
+		EventDetails eventDetails;
+		try {
+			eventDetails = quote.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) throw cause;
+			throw ex;
+		}
+		if (eventDetails == null) {
+			throw new IllegalArgumentException("Event not found");
+		}
+		return eventDetails;
+	}
+
+	private BetResponse placeInTransaction(PlaceBetRequest request, String idempotencyKey,
+										   EventDetails eventDetails, Driver driver, User user) {
+		Long eventId = eventDetails.getSessionKey();
+		// Claim the key first: a retry waits here for the placement holding it, then returns that bet
+		// instead of being judged on today's balance or event status
+		if (idempotencyKey != null) {
+			bettingMetrics.placementPhase("idempotency_key", () -> {
+				if (betIdempotencyKeyRepository.claim(request.userId(), idempotencyKey) == 0) {
+					throw new DuplicateIdempotencyKeyException(request.userId(), idempotencyKey);
+				}
+			});
+		}
+		if (eventStatusRegistry.isClosed(eventId)) {
 			throw new IllegalStateException("Event is not open for betting");
 		}
 
-		// Load user entity to attach to bet
-		User user = userRepository.findById(request.userId())
-				.orElseThrow(() -> new IllegalArgumentException("User not found"));
+		// The registry may lag behind a lock made on another node; the share-locked row is the guard
+		bettingMetrics.placementPhase("event_guard", () -> {
+			HistoricalEvent event = historicalEventRepository.findByIdForShare(eventId)
+					.orElseThrow(() -> new IllegalStateException("Event should exist now"));
+			eventStatusRegistry.record(eventId, event.getStatus());
+			if (event.getStatus() != EventStatus.OPEN) {
+				throw new IllegalStateException("Event is not open for betting");
+			}
+		});
 
 		// Debit user
-		int updated = userRepository.debitUser(request.userId(), request.amountEur());
-		if (updated == 0) throw new IllegalStateException("Insufficient balance");
+		bettingMetrics.placementPhase("debit", () -> {
+			int updated = userRepository.debitUser(request.userId(), request.amountEur());
+			if (updated == 0) throw new IllegalStateException("Insufficient balance");
+		});
+
+		// Add the stake to the event/driver pool
+		bettingMetrics.placementPhase("pool", () -> {
+			betPoolRepository.addStake(eventId, driver.getDriverNumber(), request.amountEur());
+			livePoolOdds.recordStake(eventId, driver.getDriverNumber(), request.amountEur());
+		});
 
 		// Insert bet
-		Bet bet = new Bet();
-		bet.setUser(user);
-		bet.setEventId(event.getEventId());
-		bet.setDriverId(driver.getDriverNumber());
-		bet.setDriverName(driver.getFullName());
-		bet.setAmountEur(request.amountEur());
-		bet.setOdds(driver.getOdds());
-		bet.setStatus(BetStatus.PENDING);
+		Bet newBet = new Bet();
+		newBet.setUser(user);
+		newBet.setEventId(eventId);
+		newBet.setDriverId(driver.getDriverNumber());
+		newBet.setDriverName(driver.getFullName());
+		newBet.setAmountEur(request.amountEur());
+		newBet.setOdds(driver.getOdds());
+		newBet.setStatus(BetStatus.PENDING);
 
-		bet = betRepository.save(bet);
+		Bet bet = bettingMetrics.placementPhase("insert", () -> {
+			Bet saved = betRepository.save(newBet);
+			if (idempotencyKey != null) {
+				betIdempotencyKeyRepository.assignBet(request.userId(), idempotencyKey, saved.getId());
+			}
+			return saved;
+		});
+		events.publishEvent(new BetPlaced(bet.getId(), request.userId(), bet.getEventId(),
+				bet.getDriverId(), bet.getAmountEur(), bet.getOdds()));
 
 		return new BetResponse(
 				bet.getId(),
@@ -117,86 +300,38 @@ public class BettingService {
 		}
 		event.setStatus(EventStatus.LOCKED);
 		historicalEventRepository.save(event);
+		eventStatusRegistry.publish(eventId, EventStatus.LOCKED);
+		events.publishEvent(new EventLocked(eventId));
 		log.info("Event {} is locked for settling", event.getEventId());
 	}
 
 	/**
-	 * Process event settlement - expects event to be already locked
+	 * Current pool of an event, read from the per-driver aggregate
 	 */
-	@Transactional
-	public void processEventSettlement(Long eventId) {
-		// Expect event to be already locked
-		HistoricalEvent event = historicalEventRepository.findById(eventId)
-				.orElseThrow(() -> new IllegalArgumentException("Event not found"));
-		if (event.getStatus() != EventStatus.LOCKED) {
-			throw new IllegalStateException("Event must be locked before settlement");
-		}
-
-		// Fetch winner from event-service
-		Long winningDriverId = fetchWinnerDriverId(eventId);
-
-		// Collect winning bets and process losing bets immediately using pagination
-		List<Bet> winningBets = new ArrayList<>();
+	@Transactional(readOnly = true)
+	public EventPoolResponse getEventPool(Long eventId) {
+		List<EventPoolResponse.DriverPool> drivers = new ArrayList<>();
 		long totalPool = 0L;
-		int page = 0;
-		int pageSize = 100;
-		Pageable pageable = PageRequest.of(page, pageSize);
-		Page<Bet> betPage;
-
-		do {
-			betPage = betRepository.findByEventId(eventId, pageable);
-			List<Bet> currentBatchLosingBets = new ArrayList<>();
-
-			for (Bet bet : betPage.getContent()) {
-				totalPool += bet.getAmountEur();
-				if (bet.getDriverId().equals(winningDriverId)) {
-					winningBets.add(bet);
-				} else {
-					bet.setStatus(BetStatus.LOST);
-					currentBatchLosingBets.add(bet);
-				}
-			}
-
-			// Save losing bets immediately for this batch
-			if (!currentBatchLosingBets.isEmpty()) {
-				betRepository.saveAll(currentBatchLosingBets);
-			}
-
-			pageable = PageRequest.of(++page, pageSize);
-		} while (betPage.hasNext());
-
-		if (!winningBets.isEmpty()) {
-			long totalWinningBets = winningBets.stream().mapToLong(Bet::getAmountEur).sum();
-
-			for (Bet bet : winningBets) {
-				bet.setStatus(BetStatus.WON);
-				// Proportional distribution: (betAmount / totalWinningBets) * totalPool
-				// Round down to whole EUR amounts
-				long proportionalShare = (bet.getAmountEur() * totalPool) / totalWinningBets;
-				User u = bet.getUser();
-				u.setBalanceEur(u.getBalanceEur() + proportionalShare);
-			}
+		long betCount = 0L;
+		for (BetPool pool : betPoolRepository.findByEventIdOrderByDriverId(eventId)) {
+			drivers.add(new EventPoolResponse.DriverPool(pool.getDriverId(), pool.getStakeEur(), pool.getBetCount()));
+			totalPool += pool.getStakeEur();
+			betCount += pool.getBetCount();
 		}
+		return new EventPoolResponse(eventId, totalPool, betCount, drivers);
+	}
 
-		// Save only winning bets (losing bets already saved in batches)
-		betRepository.saveAll(winningBets);
-
-		// Save event outcome
-		EventOutcome outcome = new EventOutcome();
-		outcome.setEventId(eventId);
-		outcome.setWinningDriverId(winningDriverId);
-		eventOutcomeRepository.save(outcome);
-
-		// Set event as settled
-		event.setStatus(EventStatus.SETTLED);
-		log.info( "Event {} is settled", event.getEventId() );
-		historicalEventRepository.save(event);
+	/**
+	 * Proportional distribution: (betAmount / totalWinningBets) * totalPool, rounded down to whole EUR
+	 */
+	static long proportionalShare(long betAmount, long totalPool, long totalWinningBets) {
+		return (betAmount * totalPool) / totalWinningBets;
 	}
 
-	private Long fetchWinnerDriverId(@NotNull Long eventId) {
+	public Long fetchWinnerDriverId(@NotNull Long eventId) {
 		String url = eventServiceBaseUrl + "/api/events/" + eventId + "/winner";
 		try {
-			EventResult result = restTemplate.getForObject(url, EventResult.class);
+			EventResult result = callEventService("winner", url, EventResult.class);
 			if (result == null || !result.isFinished() || result.getWinnerDriverNumber() == null) {
 				throw new IllegalStateException("Winner not available for event " + eventId);
 			}
@@ -208,6 +343,26 @@ public class BettingService {
 
 	private EventDetails fetchEventFromEventService(@NotNull Long eventId) {
 		String url = eventServiceBaseUrl + "/api/events/" + eventId;
-		return restTemplate.getForObject(url, EventDetails.class);
+		return callEventService("event", url, EventDetails.class);
+	}
+
+	private <T> T callEventService(String operation, String url, Class<T> responseType) {
+		EventServiceCallEvent jfrEvent = new EventServiceCallEvent();
+		jfrEvent.begin();
+		Throwable failure = null;
+		try {
+			return bettingMetrics.eventServiceCall(operation, () -> restTemplate.getForObject(url, responseType));
+		} catch (RuntimeException ex) {
+			failure = ex;
+			throw ex;
+		} finally {
+			jfrEvent.end();
+			if (jfrEvent.shouldCommit()) {
+				jfrEvent.operation = operation;
+				jfrEvent.url = url;
+				jfrEvent.outcome = BettingMetrics.outcome(failure);
+				jfrEvent.commit();
+			}
+		}
 	}
 }
\ No newline at end of file
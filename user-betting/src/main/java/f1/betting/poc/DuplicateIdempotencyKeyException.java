@@ -0,0 +1,11 @@
+package f1.betting.poc;
+
+/**
+ * Raised inside the placement transaction when its Idempotency-Key is already taken, so the debit and bet roll back.
+ */
+class DuplicateIdempotencyKeyException extends RuntimeException {
+
+	DuplicateIdempotencyKeyException(Long userId, String idempotencyKey) {
+		super("Idempotency key " + idempotencyKey + " already used by user " + userId);
+	}
+}
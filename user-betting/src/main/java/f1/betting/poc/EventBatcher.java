@@ -0,0 +1,123 @@
+package f1.betting.poc;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Groups events handed over by concurrent listener calls and passes them to a handler in batches.
+ * Events arriving within {@code maxWait} of each other, up to {@code maxBatchSize}, share one handler call.
+ * <p>
+ * {@link #handle} returns once the batch holding its event has been handled and fails if the handler does, so an
+ * event publication is only completed after its event was really handled, and retried on restart otherwise.
+ * A batch is therefore at most as large as the number of listener calls in flight.
+ */
+@Slf4j
+class EventBatcher<T> implements AutoCloseable {
+
+	private final Consumer<List<T>> handler;
+	private final int maxBatchSize;
+	private final Duration maxWait;
+	private final BlockingQueue<Pending<T>> queue = new LinkedBlockingQueue<>();
+	// Held for reading while an event is queued and for writing while closing, so none is queued after the drain
+	private final ReadWriteLock submission = new ReentrantReadWriteLock();
+	private final Thread dispatcher;
+	private volatile boolean running = true;
+
+	EventBatcher(String name, Consumer<List<T>> handler, int maxBatchSize, Duration maxWait) {
+		this.handler = handler;
+		this.maxBatchSize = maxBatchSize;
+		this.maxWait = maxWait;
+		this.dispatcher = Thread.ofPlatform().name(name).daemon().start(this::dispatchLoop);
+	}
+
+	/**
+	 * Queue an event and wait for its batch to be handled.
+	 */
+	void handle(T event) {
+		Pending<T> pending = new Pending<>(event, new CompletableFuture<>());
+		submission.readLock().lock();
+		try {
+			if (!running) throw closed();
+			queue.add(pending);
+		} finally {
+			submission.readLock().unlock();
+		}
+		try {
+			pending.handled().join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) throw cause;
+			throw ex;
+		}
+	}
+
+	/**
+	 * Stop dispatching; events not handled yet fail, so their publications stay incomplete.
+	 */
+	@Override
+	public void close() {
+		submission.writeLock().lock();
+		try {
+			running = false;
+		} finally {
+			submission.writeLock().unlock();
+		}
+		dispatcher.interrupt();
+		try {
+			dispatcher.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		List<Pending<T>> left = new ArrayList<>();
+		queue.drainTo(left);
+		left.forEach(pending -> pending.handled().completeExceptionally(closed()));
+	}
+
+	private void dispatchLoop() {
+		List<Pending<T>> batch = new ArrayList<>(maxBatchSize);
+		while (running) {
+			try {
+				batch.add(queue.take());
+				long deadline = System.nanoTime() + maxWait.toNanos();
+				while (batch.size() < maxBatchSize) {
+					Pending<T> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (next == null) break;
+					batch.add(next);
+				}
+			} catch (InterruptedException ex) {
+				batch.forEach(pending -> pending.handled().completeExceptionally(closed()));
+				return;
+			}
+			dispatch(batch);
+			batch.clear();
+		}
+	}
+
+	private void dispatch(List<Pending<T>> batch) {
+		try {
+			handler.accept(batch.stream().map(Pending::event).toList());
+		} catch (RuntimeException ex) {
+			log.warn("Handling a batch of {} events failed", batch.size(), ex);
+			batch.forEach(pending -> pending.handled().completeExceptionally(ex));
+			return;
+		}
+		batch.forEach(pending -> pending.handled().complete(null));
+	}
+
+	private static IllegalStateException closed() {
+		return new IllegalStateException("Event dispatch is shutting down");
+	}
+
+	private record Pending<T>(T event, CompletableFuture<Void> handled) {
+	}
+}
@@ -0,0 +1,28 @@
+package f1.betting.poc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one HTTP call from user-betting to event-service.
+ */
+@Name("f1.betting.EventServiceCall")
+@Label("Event Service Call")
+@Category({"F1 Betting", "User Betting"})
+@Description("Outbound call to event-service")
+@StackTrace(false)
+class EventServiceCallEvent extends Event {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("URL")
+	String url;
+
+	@Label("Outcome")
+	String outcome;
+}
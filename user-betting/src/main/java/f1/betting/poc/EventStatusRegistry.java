@@ -0,0 +1,168 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.EventStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-node view of the events this node has seen and their status, so placements on closed events are
+ * rejected early and the event upsert runs once per event rather than once per bet. It is only a fast path:
+ * placements still check the status on the share-locked event row in their transaction.
+ * <p>
+ * Statuses only move forward (OPEN, LOCKED, SETTLED), so late or repeated updates never reopen an event.
+ * Status changes are announced with {@code NOTIFY event_status} in the transaction that makes them and
+ * picked up by every node on a dedicated {@code LISTEN} connection. Whenever that connection is
+ * (re)established the registry is emptied, since notifications sent in the meantime are lost.
+ */
+@Component
+@Slf4j
+public class EventStatusRegistry {
+
+	static final String CHANNEL = "event_status";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final DataSourceProperties dataSourceProperties;
+	private final boolean listen;
+	private final Duration reconnectDelay;
+
+	private final Map<Long, EventStatus> statuses = new ConcurrentHashMap<>();
+	private volatile boolean running;
+	private volatile boolean listening;
+	private Thread listener;
+
+	public EventStatusRegistry(
+			JdbcTemplate jdbcTemplate,
+			DataSourceProperties dataSourceProperties,
+			@Value("${betting.event-status.listen:true}") boolean listen,
+			@Value("${betting.event-status.reconnect-delay:5s}") Duration reconnectDelay
+	) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.dataSourceProperties = dataSourceProperties;
+		this.listen = listen;
+		this.reconnectDelay = reconnectDelay;
+	}
+
+	@PostConstruct
+	void startListener() {
+		if (!listen) return;
+		running = true;
+		listener = Thread.ofPlatform().name("event-status-listener").daemon().start(this::listenLoop);
+	}
+
+	@PreDestroy
+	void stopListener() {
+		running = false;
+		if (listener != null) listener.interrupt();
+	}
+
+	/**
+	 * True when this node knows the event is LOCKED or SETTLED.
+	 */
+	public boolean isClosed(Long eventId) {
+		EventStatus status = statuses.get(eventId);
+		return status != null && status != EventStatus.OPEN;
+	}
+
+	/**
+	 * True when the event row is known to exist, so it need not be upserted again.
+	 */
+	public boolean isKnown(Long eventId) {
+		return statuses.containsKey(eventId);
+	}
+
+	/**
+	 * Remember a status read from or written to the database once the current transaction commits,
+	 * or immediately when there is none.
+	 */
+	public void record(Long eventId, EventStatus status) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					apply(eventId, status);
+				}
+			});
+		} else {
+			apply(eventId, status);
+		}
+	}
+
+	/**
+	 * Announce a status change made in the current transaction to every node, this one included.
+	 * Postgres delivers the notification only if the transaction commits.
+	 */
+	public void publish(Long eventId, EventStatus status) {
+		jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {}, CHANNEL, eventId + ":" + status.name());
+		record(eventId, status);
+	}
+
+	boolean isListening() {
+		return listening;
+	}
+
+	void apply(Long eventId, EventStatus status) {
+		statuses.merge(eventId, status, (known, update) -> update.compareTo(known) > 0 ? update : known);
+	}
+
+	void clear() {
+		statuses.clear();
+	}
+
+	private void listenLoop() {
+		while (running) {
+			try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+					dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("LISTEN " + CHANNEL);
+				}
+				clear();
+				listening = true;
+				log.info("Listening for event status changes");
+				PGConnection pgConnection = connection.unwrap(PGConnection.class);
+				while (running) {
+					PGNotification[] notifications = pgConnection.getNotifications(1000);
+					if (notifications == null) continue;
+					for (PGNotification notification : notifications) {
+						onNotification(notification.getParameter());
+					}
+				}
+			} catch (SQLException ex) {
+				listening = false;
+				if (!running) return;
+				log.warn("Event status listener lost its connection, retrying in {}", reconnectDelay, ex);
+				clear();
+				try {
+					Thread.sleep(reconnectDelay);
+				} catch (InterruptedException interrupted) {
+					return;
+				}
+			}
+		}
+	}
+
+	private void onNotification(String payload) {
+		int separator = payload.indexOf(':');
+		try {
+			apply(Long.parseLong(payload.substring(0, separator)), EventStatus.valueOf(payload.substring(separator + 1)));
+		} catch (RuntimeException ex) {
+			log.warn("Ignoring malformed event status notification '{}'", payload);
+		}
+	}
+}
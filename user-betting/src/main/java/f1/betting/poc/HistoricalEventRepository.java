@@ -1,11 +1,15 @@
 package f1.betting.poc;
 
 import f1.betting.poc.domain.HistoricalEvent;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+
 public interface HistoricalEventRepository extends JpaRepository<HistoricalEvent, Long> {
 
 	@Modifying
@@ -17,4 +21,20 @@ public interface HistoricalEventRepository extends JpaRepository<HistoricalEvent
 			nativeQuery = true
 	)
 	void insertIfNotExists(Long eventId, String eventName, String country, Integer year, String status);
+
+	/**
+	 * Create the bets partition of the event's range if it is missing (V10__bets_partition_on_event_insert.sql).
+	 * Holds the partition lock shared until the end of the transaction.
+	 */
+	@Transactional
+	@Query(value = "SELECT ensure_bets_partition(:eventId)", nativeQuery = true)
+	String ensureBetsPartition(Long eventId);
+
+	/**
+	 * The event, share-locked until the end of the transaction: placements do not block each other, but locking
+	 * or settling the event waits for them, and a placement arriving after a status change sees it.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_READ)
+	@Query("SELECT e FROM HistoricalEvent e WHERE e.eventId = :eventId")
+	Optional<HistoricalEvent> findByIdForShare(Long eventId);
 }
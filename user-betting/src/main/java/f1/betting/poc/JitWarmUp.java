@@ -0,0 +1,172 @@
+package f1.betting.poc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import f1.betting.poc.domain.Driver;
+import f1.betting.poc.domain.EventDetails;
+import f1.betting.poc.web.BetResponse;
+import f1.betting.poc.web.PlaceBetRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Runs the placement path through the JIT before the node reports ready, so the first minute of real traffic
+ * is not served by the interpreter and C1 code. Each iteration
+ * <ul>
+ *     <li>places a bet for a synthetic user on a synthetic event (negative id, so its bets go to the reserved
+ *     bets_synthetic partition and no partition is ever created) with a synthetic quote, in a
+ *     transaction that is rolled back: user, event, pool and bet rows are never committed, and pool odds,
+ *     event statuses and domain events are only updated after commit</li>
+ *     <li>serializes the quote, the request and the response with the application's ObjectMapper, as the
+ *     event-service call and the web layer do</li>
+ *     <li>reads the live pool odds and the event status registry</li>
+ * </ul>
+ * It stops after {@code betting.jit-warmup.iterations} or {@code betting.jit-warmup.max-duration}. Until then this
+ * "jitWarmUp" health, part of the readiness group, is OUT_OF_SERVICE.
+ * Warm-up placements are kept out of the betting.placement timers, JFR and the place-bet observation (see
+ * {@link BettingService#placeBetWithQuote}).
+ */
+@Component
+@Slf4j
+public class JitWarmUp implements HealthIndicator {
+
+	private static final int EVENTS = 10;
+	private static final int DRIVERS = 20;
+
+	private final BettingService bettingService;
+	private final LivePoolOdds livePoolOdds;
+	private final EventStatusRegistry eventStatusRegistry;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+	private final boolean enabled;
+	private final int iterations;
+	private final Duration maxDuration;
+
+	private volatile boolean done;
+	private volatile int completed;
+	private volatile Duration took;
+	private Thread worker;
+
+	public JitWarmUp(
+			BettingService bettingService,
+			LivePoolOdds livePoolOdds,
+			EventStatusRegistry eventStatusRegistry,
+			JdbcTemplate jdbcTemplate,
+			TransactionTemplate transactionTemplate,
+			ObjectMapper objectMapper,
+			@Value("${betting.jit-warmup.enabled:true}") boolean enabled,
+			@Value("${betting.jit-warmup.iterations:3000}") int iterations,
+			@Value("${betting.jit-warmup.max-duration:60s}") Duration maxDuration
+	) {
+		this.bettingService = bettingService;
+		this.livePoolOdds = livePoolOdds;
+		this.eventStatusRegistry = eventStatusRegistry;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.objectMapper = objectMapper;
+		this.enabled = enabled;
+		this.iterations = iterations;
+		this.maxDuration = maxDuration;
+		this.done = !enabled;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	void start() {
+		if (!enabled) return;
+		worker = Thread.ofPlatform().name("jit-warmup").daemon().start(this::warmUp);
+	}
+
+	@PreDestroy
+	void stop() {
+		if (worker != null) worker.interrupt();
+	}
+
+	@Override
+	public Health health() {
+		Health.Builder health = done ? Health.up() : Health.outOfService();
+		health.withDetail("enabled", enabled).withDetail("iterations", completed);
+		if (took != null) health.withDetail("took", took.toString());
+		return health.build();
+	}
+
+	boolean isDone() {
+		return done;
+	}
+
+	void warmUp() {
+		long start = System.nanoTime();
+		long deadline = start + maxDuration.toNanos();
+		List<EventDetails> events = LongStream.rangeClosed(1, EVENTS).mapToObj(i -> syntheticEvent(-i)).toList();
+		int i = 0;
+		try {
+			for (; i < iterations && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted(); i++) {
+				EventDetails event = events.get(i % EVENTS);
+				PlaceBetRequest request = new PlaceBetRequest(null, event.getSessionKey(), 1L + i % DRIVERS, 1L);
+				placeAndRollBack(request, event);
+				livePoolOdds.odds(event.getSessionKey());
+				eventStatusRegistry.isClosed(event.getSessionKey());
+				completed = i + 1;
+			}
+		} catch (RuntimeException ex) {
+			log.warn("JIT warm-up stopped after {} iterations", i, ex);
+		} finally {
+			took = Duration.ofNanos(System.nanoTime() - start);
+			done = true;
+			log.info("JIT warm-up ran {} placements in {}", completed, took);
+		}
+	}
+
+	private void placeAndRollBack(PlaceBetRequest template, EventDetails quote) {
+		transactionTemplate.executeWithoutResult(status -> {
+			status.setRollbackOnly();
+			Long userId = jdbcTemplate.queryForObject(
+					"INSERT INTO users (username, balance_eur) VALUES ('jit-warm-up', 1000) RETURNING id", Long.class);
+			PlaceBetRequest request = new PlaceBetRequest(userId, template.eventId(), template.driverId(), template.amountEur());
+			BetResponse response = bettingService.placeBetWithQuote(
+					roundTrip(request, PlaceBetRequest.class), roundTrip(quote, EventDetails.class));
+			roundTrip(response, BetResponse.class);
+		});
+	}
+
+	private <T> T roundTrip(T value, Class<T> type) {
+		try {
+			return objectMapper.readValue(objectMapper.writeValueAsBytes(value), type);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static EventDetails syntheticEvent(long eventId) {
+		List<Driver> drivers = new ArrayList<>(DRIVERS);
+		for (long d = 1; d <= DRIVERS; d++) {
+			drivers.add(Driver.builder().driverNumber(d).fullName("Warm-up Driver " + d).teamName("Warm-up").odds(3).build());
+		}
+		OffsetDateTime start = OffsetDateTime.now().plusYears(1);
+		return EventDetails.builder()
+				.sessionKey(eventId)
+				.sessionName("JIT warm-up")
+				.countryName("Nowhere")
+				.sessionType("Race")
+				.dateStart(start)
+				.dateEnd(start.plusHours(2))
+				.year(start.getYear())
+				.drivers(drivers)
+				.build();
+	}
+}
@@ -0,0 +1,74 @@
+package f1.betting.poc;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over (user id, idempotency key) pairs.
+ * {@link #mightContain} never returns false for a key that was added, so a negative answer lets a
+ * first-time placement skip the lookup of an earlier bet. Safe for concurrent use.
+ */
+public final class KeyBloomFilter {
+
+	private final AtomicLongArray words;
+	private final long bitCount;
+	private final int hashCount;
+
+	/**
+	 * @param expectedKeys number of keys the filter is sized for
+	 * @param falsePositiveRate target rate of false positives at {@code expectedKeys}
+	 */
+	public KeyBloomFilter(long expectedKeys, double falsePositiveRate) {
+		long n = Math.max(1, expectedKeys);
+		long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		int wordCount = (int) Math.max(1, (bits + 63) / 64);
+		this.words = new AtomicLongArray(wordCount);
+		this.bitCount = (long) wordCount * 64;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+	}
+
+	public void add(long userId, String key) {
+		long hash = hash(userId, key);
+		long h1 = mix(hash);
+		long h2 = mix(hash ^ 0x632BE59BD9B4E019L) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long current;
+			do {
+				current = words.get(word);
+				if ((current & mask) != 0) break;
+			} while (!words.compareAndSet(word, current, current | mask));
+		}
+	}
+
+	public boolean mightContain(long userId, String key) {
+		long hash = hash(userId, key);
+		long h1 = mix(hash);
+		long h2 = mix(hash ^ 0x632BE59BD9B4E019L) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long hash(long userId, String key) {
+		// 64-bit FNV-1a over the key, seeded with the user id
+		long h = 0xCBF29CE484222325L ^ userId;
+		for (int i = 0; i < key.length(); i++) {
+			h ^= key.charAt(i);
+			h *= 0x100000001B3L;
+		}
+		return h;
+	}
+
+	private static long mix(long z) {
+		// SplitMix64 finalizer
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
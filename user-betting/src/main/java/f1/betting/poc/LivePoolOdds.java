@@ -0,0 +1,125 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.BetPool;
+import f1.betting.poc.domain.EventStatus;
+import f1.betting.poc.web.PoolOddsResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory stake counters per event and driver, serving live pari-mutuel odds without touching Postgres.
+ * Counters are {@link LongAdder}s, so concurrent placements on the same driver do not contend on one value.
+ * bet_pools stays the source of truth: the counters are rebuilt from it on startup and every
+ * {@code betting.pool-odds.refresh-interval} (default 10s), and advanced locally after a placement commits.
+ * A node sees its own stakes at once and those placed on other nodes within one refresh interval.
+ * A rebuild fills a new map and swaps it in whole, so readers never see it half loaded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LivePoolOdds {
+
+	private final BetPoolRepository betPoolRepository;
+
+	private final AtomicReference<Map<Long, EventCounters>> events = new AtomicReference<>(new ConcurrentHashMap<>());
+
+	/**
+	 * Add a stake once the current transaction commits, or immediately when there is none.
+	 */
+	public void recordStake(Long eventId, Long driverId, long amountEur) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					add(eventId, driverId, amountEur);
+				}
+			});
+		} else {
+			add(eventId, driverId, amountEur);
+		}
+	}
+
+	/**
+	 * Forget a settled event; its pool no longer moves.
+	 */
+	public void evict(Long eventId) {
+		events.get().remove(eventId);
+	}
+
+	/**
+	 * Implied decimal odds per driver: total pool divided by the stake on that driver.
+	 * Drivers without stakes are not listed.
+	 */
+	public PoolOddsResponse odds(Long eventId) {
+		EventCounters counters = events.get().get(eventId);
+		if (counters == null) {
+			return new PoolOddsResponse(eventId, 0L, List.of());
+		}
+		long totalPool = counters.total.sum();
+		List<PoolOddsResponse.DriverOdds> drivers = new ArrayList<>(counters.stakes.size());
+		counters.stakes.forEach((driverId, stake) -> {
+			long driverStake = stake.sum();
+			if (driverStake > 0) {
+				double odds = Math.round(totalPool * 100.0 / driverStake) / 100.0;
+				drivers.add(new PoolOddsResponse.DriverOdds(driverId, driverStake, odds));
+			}
+		});
+		drivers.sort((a, b) -> Long.compare(a.driverId(), b.driverId()));
+		return new PoolOddsResponse(eventId, totalPool, drivers);
+	}
+
+	/**
+	 * Load the pools of every event still taking or awaiting settlement. Stakes recorded while the pools are read
+	 * go to the replaced map; one committed in that window shows up again at the next rebuild.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		log.info("Live pool odds loaded for {} events", reload());
+	}
+
+	/**
+	 * Catch up with stakes placed on other nodes, which only reach this one through bet_pools.
+	 */
+	@Scheduled(fixedDelayString = "${betting.pool-odds.refresh-interval:10s}", initialDelayString = "${betting.pool-odds.refresh-interval:10s}")
+	public void refresh() {
+		log.debug("Live pool odds refreshed for {} events", reload());
+	}
+
+	private int reload() {
+		Map<Long, EventCounters> loaded = new ConcurrentHashMap<>();
+		List<BetPool> pools = betPoolRepository.findByEventStatusIn(List.of(EventStatus.OPEN, EventStatus.LOCKED));
+		for (BetPool pool : pools) {
+			add(loaded, pool.getEventId(), pool.getDriverId(), pool.getStakeEur());
+		}
+		events.set(loaded);
+		return loaded.size();
+	}
+
+	private void add(Long eventId, Long driverId, long amountEur) {
+		add(events.get(), eventId, driverId, amountEur);
+	}
+
+	private static void add(Map<Long, EventCounters> events, Long eventId, Long driverId, long amountEur) {
+		EventCounters counters = events.computeIfAbsent(eventId, id -> new EventCounters());
+		counters.stakes.computeIfAbsent(driverId, id -> new LongAdder()).add(amountEur);
+		counters.total.add(amountEur);
+	}
+
+	private static final class EventCounters {
+		private final Map<Long, LongAdder> stakes = new ConcurrentHashMap<>();
+		private final LongAdder total = new LongAdder();
+	}
+}
@@ -0,0 +1,83 @@
+package f1.betting.poc;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Admission control for bet placement, applied before the request reaches event-service or Postgres.
+ * Each user has a token bucket of {@code per-user.rate} bets per second with bursts of {@code per-user.burst},
+ * and all users share a global bucket. Buckets of users idle long enough to have refilled are dropped.
+ * Decisions are counted in {@code betting.admission.decisions}, tagged with outcome and the limit that applied.
+ */
+@Component
+public class PlacementAdmission {
+
+	private final boolean enabled;
+	private final double userRate;
+	private final int userBurst;
+	private final Cache<Long, TokenBucket> userBuckets;
+	private final TokenBucket globalBucket;
+
+	private final Counter admitted;
+	private final Counter rejectedByUser;
+	private final Counter rejectedByGlobal;
+
+	public PlacementAdmission(
+			MeterRegistry meterRegistry,
+			@Value("${betting.admission.enabled:true}") boolean enabled,
+			@Value("${betting.admission.per-user.rate:5}") double userRate,
+			@Value("${betting.admission.per-user.burst:10}") int userBurst,
+			@Value("${betting.admission.global.rate:1000}") double globalRate,
+			@Value("${betting.admission.global.burst:2000}") int globalBurst,
+			@Value("${betting.admission.max-tracked-users:100000}") long maxTrackedUsers
+	) {
+		this.enabled = enabled;
+		this.userRate = userRate;
+		this.userBurst = userBurst;
+		this.globalBucket = new TokenBucket(globalRate, globalBurst, System.nanoTime());
+		long refillNanos = new TokenBucket(userRate, userBurst, 0).refillNanos();
+		this.userBuckets = Caffeine.newBuilder()
+				.maximumSize(maxTrackedUsers)
+				.expireAfterAccess(Duration.ofNanos(Math.max(refillNanos, 1_000_000_000L)))
+				.build();
+
+		this.admitted = decisions(meterRegistry, "admitted", "none");
+		this.rejectedByUser = decisions(meterRegistry, "rejected", "user");
+		this.rejectedByGlobal = decisions(meterRegistry, "rejected", "global");
+	}
+
+	/**
+	 * Take a token for the user and then a global one, or throw {@link AdmissionRejectedException}.
+	 */
+	public void admit(Long userId) {
+		if (!enabled) return;
+		long now = System.nanoTime();
+
+		long wait = userBuckets.get(userId, id -> new TokenBucket(userRate, userBurst, now)).tryAcquire(now);
+		if (wait > 0) {
+			rejectedByUser.increment();
+			throw new AdmissionRejectedException("Too many bets from this user", Duration.ofNanos(wait));
+		}
+		// Checked second, so a user over their own limit does not use up the shared budget
+		wait = globalBucket.tryAcquire(now);
+		if (wait > 0) {
+			rejectedByGlobal.increment();
+			throw new AdmissionRejectedException("Too many bets, try again shortly", Duration.ofNanos(wait));
+		}
+		admitted.increment();
+	}
+
+	private static Counter decisions(MeterRegistry meterRegistry, String outcome, String limit) {
+		return Counter.builder("betting.admission.decisions")
+				.description("Bet placement admission decisions")
+				.tag("outcome", outcome)
+				.tag("limit", limit)
+				.register(meterRegistry);
+	}
+}
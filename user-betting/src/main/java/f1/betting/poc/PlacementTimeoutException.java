@@ -0,0 +1,12 @@
+package f1.betting.poc;
+
+/**
+ * A placement whose batch did not commit in time; answered with 503. The bet may still be placed by its batch,
+ * so a client without an Idempotency-Key checks its bet history before retrying.
+ */
+public class PlacementTimeoutException extends RuntimeException {
+
+	PlacementTimeoutException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
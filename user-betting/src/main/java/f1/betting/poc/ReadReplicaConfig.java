@@ -0,0 +1,76 @@
+package f1.betting.poc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read/write split, enabled by setting {@code betting.datasource.replica.url}.
+ * Both pools are Hikari beans named "primary" and "replica", so their hikaricp.* metrics are tagged per pool.
+ * Flyway always migrates the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "betting.datasource.replica", name = "url")
+public class ReadReplicaConfig {
+
+	@Bean
+	@FlywayDataSource
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean
+	@ConfigurationProperties("betting.datasource.replica.hikari")
+	public HikariDataSource replicaDataSource(
+			@Value("${betting.datasource.replica.url}") String url,
+			@Value("${betting.datasource.replica.username:${spring.datasource.username:}}") String username,
+			@Value("${betting.datasource.replica.password:${spring.datasource.password:}}") String password
+	) {
+		HikariDataSource dataSource = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.url(url)
+				.username(username)
+				.password(password)
+				.build();
+		dataSource.setPoolName("replica");
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+
+	@Bean
+	public ReplicaLagMonitor replicaLagMonitor(
+			@Qualifier("replicaDataSource") DataSource replica,
+			@Value("${betting.datasource.replica.max-lag:5s}") Duration maxLag,
+			MeterRegistry meterRegistry
+	) {
+		ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, maxLag, meterRegistry);
+		monitor.check();
+		return monitor;
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(
+			@Qualifier("primaryDataSource") DataSource primary,
+			@Qualifier("replicaDataSource") DataSource replica,
+			ReplicaLagMonitor lagMonitor
+	) {
+		return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, lagMonitor));
+	}
+}
@@ -0,0 +1,34 @@
+package f1.betting.poc;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica pool while it is within the allowed lag,
+ * and everything else to the primary. Must sit behind a {@code LazyConnectionDataSourceProxy}, so the
+ * connection is fetched after the transaction has declared whether it is read-only.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	enum Route { PRIMARY, REPLICA }
+
+	private final ReplicaLagMonitor lagMonitor;
+
+	public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+		this.lagMonitor = lagMonitor;
+		setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isUsable()) {
+			return Route.REPLICA;
+		}
+		return Route.PRIMARY;
+	}
+}
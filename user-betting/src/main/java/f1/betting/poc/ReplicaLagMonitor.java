@@ -0,0 +1,72 @@
+package f1.betting.poc;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Tracks how far the read replica is behind the primary.
+ * While the lag exceeds the configured maximum, or the replica cannot be queried,
+ * read-only transactions are routed to the primary instead.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+	private static final String LAG_QUERY =
+			"SELECT CASE " +
+			"WHEN NOT pg_is_in_recovery() THEN 0 " +
+			// Nothing left to replay: an idle primary must not look like lag
+			"WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+			"ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+	private final JdbcTemplate replica;
+	private final Duration maxLag;
+
+	private volatile double lagSeconds;
+	private volatile boolean usable;
+
+	public ReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+		this.replica = new JdbcTemplate(replica);
+		this.maxLag = maxLag;
+		Gauge.builder("betting.datasource.replica.lag", this, m -> m.lagSeconds)
+				.description("Replay lag of the read replica")
+				.baseUnit("seconds")
+				.register(meterRegistry);
+		Gauge.builder("betting.datasource.replica.usable", this, m -> m.usable ? 1 : 0)
+				.description("1 while read-only transactions are routed to the replica")
+				.register(meterRegistry);
+	}
+
+	public boolean isUsable() {
+		return usable;
+	}
+
+	@Scheduled(fixedDelayString = "${betting.datasource.replica.lag-check-interval:5s}")
+	public void check() {
+		try {
+			Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+			recordLag(lag == null ? 0 : lag);
+		} catch (RuntimeException ex) {
+			if (usable) {
+				log.warn("Read replica unavailable, routing reads to the primary", ex);
+			}
+			usable = false;
+		}
+	}
+
+	void recordLag(double seconds) {
+		boolean wasUsable = usable;
+		lagSeconds = seconds;
+		usable = seconds * 1000 <= maxLag.toMillis();
+		if (wasUsable && !usable) {
+			log.warn("Read replica lags {}s behind the primary, routing reads to the primary", seconds);
+		} else if (!wasUsable && usable) {
+			log.info("Read replica caught up ({}s), routing reads to it", seconds);
+		}
+	}
+}
@@ -2,9 +2,15 @@ package f1.betting.poc;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
 
 @Configuration
 public class SecurityConfig {
@@ -16,6 +22,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Public swagger and OpenAPI endpoints
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**").permitAll()
+                        // Flight recordings expose internals, so they are local-only (must be before broader permits)
+                        .requestMatchers("/actuator/jfr", "/actuator/jfr/**").access(localhostOnly())
                         // Public APIs for this POC
                         .requestMatchers("/api/**").permitAll()
                         // Anything else also permitted (adjust as needed later)
@@ -26,4 +34,13 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    private AuthorizationManager<RequestAuthorizationContext> localhostOnly() {
+        return (Supplier<Authentication> authentication, RequestAuthorizationContext context) -> {
+            String remoteAddr = context.getRequest().getRemoteAddr();
+            // Allow only 127.0.0.1 (IPv4) or ::1 (IPv6)
+            boolean allowed = "127.0.0.1".equals(remoteAddr) || "0:0:0:0:0:0:0:1".equals(remoteAddr) || "::1".equals(remoteAddr);
+            return new AuthorizationDecision(allowed);
+        };
+    }
 }
@@ -0,0 +1,40 @@
+package f1.betting.poc;
+
+/**
+ * Pari-mutuel payout math for one event over bets held as primitive columns (user id, driver id, stake),
+ * so settling a chunk allocates nothing per bet. Each winning bet gets its stake's share of the whole pool,
+ * rounded down as in {@link BettingService#proportionalShare}, and payouts are summed per user.
+ */
+public final class SettlementCalculator {
+
+	private final long winningDriverId;
+	private final long totalPoolEur;
+	private final long winningStakeEur;
+
+	public SettlementCalculator(long winningDriverId, long totalPoolEur, long winningStakeEur) {
+		this.winningDriverId = winningDriverId;
+		this.totalPoolEur = totalPoolEur;
+		this.winningStakeEur = winningStakeEur;
+	}
+
+	/**
+	 * Adds the payouts of the first {@code count} bets to {@code payouts}; losing bets add nothing.
+	 */
+	public void accumulate(long[] userIds, long[] driverIds, long[] stakesEur, int count, UserPayouts payouts) {
+		if (count > userIds.length || count > driverIds.length || count > stakesEur.length) {
+			throw new IllegalArgumentException("Columns hold fewer than " + count + " bets");
+		}
+		for (int i = 0; i < count; i++) {
+			if (driverIds[i] == winningDriverId) {
+				payouts.add(userIds[i], payout(stakesEur[i]));
+			}
+		}
+	}
+
+	/**
+	 * Payout of a winning stake.
+	 */
+	public long payout(long stakeEur) {
+		return BettingService.proportionalShare(stakeEur, totalPoolEur, winningStakeEur);
+	}
+}
@@ -0,0 +1,37 @@
+package f1.betting.poc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the settlement of one chunk of bets by a settlement job, excluding its commit.
+ */
+@Name("f1.betting.SettlementChunk")
+@Label("Settlement Chunk")
+@Category({"F1 Betting", "User Betting"})
+@Description("One chunk of bets settled by a settlement job")
+@StackTrace(false)
+class SettlementChunkEvent extends Event {
+
+	@Label("Job Id")
+	long jobId;
+
+	@Label("Event Id")
+	long eventId;
+
+	@Label("After Bet Id")
+	long afterBetId;
+
+	@Label("Up To Bet Id")
+	long upToBetId;
+
+	@Label("Bets")
+	int bets;
+
+	@Label("Paid Users")
+	int paidUsers;
+}
@@ -0,0 +1,31 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.SettlementJob;
+import f1.betting.poc.domain.SettlementJobStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface SettlementJobRepository extends JpaRepository<SettlementJob, Long> {
+
+	/**
+	 * Locks the job row so only one worker (on any node) advances a job at a time.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT j FROM SettlementJob j WHERE j.id = :jobId")
+	Optional<SettlementJob> findByIdForUpdate(Long jobId);
+
+	/**
+	 * The job of an event, locked; there is at most one per event.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT j FROM SettlementJob j WHERE j.eventId = :eventId")
+	Optional<SettlementJob> findByEventIdForUpdate(Long eventId);
+
+	List<SettlementJob> findByStatusIn(Collection<SettlementJobStatus> statuses);
+}
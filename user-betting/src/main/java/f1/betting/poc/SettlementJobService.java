@@ -0,0 +1,282 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.EventOutcome;
+import f1.betting.poc.domain.EventSettled;
+import f1.betting.poc.domain.EventStatus;
+import f1.betting.poc.domain.HistoricalEvent;
+import f1.betting.poc.domain.SettlementJob;
+import f1.betting.poc.domain.SettlementJobStatus;
+import f1.betting.poc.domain.SettlementTotals;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs event settlement as a background job.
+ * The HTTP request only locks the event and records the job; bets are then settled in chunks,
+ * each chunk committed together with its checkpoint so a job interrupted by a crash resumes where it stopped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SettlementJobService {
+
+	private final BettingService bettingService;
+	private final SettlementJobRepository jobRepository;
+	private final BetRepository betRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final BetPoolRepository betPoolRepository;
+	private final UserRepository userRepository;
+	private final HistoricalEventRepository historicalEventRepository;
+	private final EventOutcomeRepository eventOutcomeRepository;
+	private final EventStatusRegistry eventStatusRegistry;
+	private final TransactionTemplate transactionTemplate;
+	private final BettingMetrics bettingMetrics;
+	private final ObservationRegistry observationRegistry;
+	private final ApplicationEventPublisher events;
+
+	/**
+	 * When disabled, jobs run to completion in the calling thread (used by tests).
+	 */
+	@Value("${betting.settlement.async:true}")
+	private boolean async;
+
+	@Value("${betting.settlement.workers:2}")
+	private int workers;
+
+	@Value("${betting.settlement.chunk-size:500}")
+	private int chunkSize;
+
+	private ExecutorService executor;
+
+	@PostConstruct
+	void startWorkers() {
+		executor = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("settlement-", 0).daemon().factory());
+	}
+
+	@PreDestroy
+	void stopWorkers() {
+		// Unfinished jobs stay RUNNING and are picked up again on the next start
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Lock the event and schedule its settlement. Returns immediately with the created job.
+	 * For an event whose job has failed, the same job is scheduled again and continues after its last checkpoint.
+	 */
+	public SettlementJob startSettlement(Long eventId) {
+		SettlementJob failed = transactionTemplate.execute(status -> retryFailedJob(eventId));
+		if (failed != null) {
+			submit(failed.getId());
+			return failed;
+		}
+
+		// Resolve the winner before locking, so an unavailable result leaves the event open
+		Long winningDriverId = bettingService.fetchWinnerDriverId(eventId);
+
+		SettlementJob job = transactionTemplate.execute(status -> {
+			bettingService.lockEventForSettlement(eventId);
+			SettlementJob created = new SettlementJob();
+			created.setEventId(eventId);
+			created.setWinningDriverId(winningDriverId);
+			return jobRepository.save(created);
+		});
+
+		submit(job.getId());
+		return job;
+	}
+
+	/**
+	 * Put the event's FAILED job back to PENDING. The event stays LOCKED and the winner and totals stay as recorded.
+	 *
+	 * @return the job, or null when the event has no failed job
+	 */
+	private SettlementJob retryFailedJob(Long eventId) {
+		SettlementJob job = jobRepository.findByEventIdForUpdate(eventId)
+				.filter(existing -> existing.getStatus() == SettlementJobStatus.FAILED)
+				.orElse(null);
+		if (job == null) return null;
+		log.info("Retrying failed settlement job {} of event {} after bet {}", job.getId(), eventId, job.getLastBetId());
+		job.setStatus(SettlementJobStatus.PENDING);
+		job.setError(null);
+		job.setUpdatedAt(OffsetDateTime.now());
+		return job;
+	}
+
+	public Optional<SettlementJob> findJob(Long jobId) {
+		return jobRepository.findById(jobId);
+	}
+
+	/**
+	 * Resume jobs left unfinished by a previous run of the service, and retry failed ones once per start.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void resumeUnfinishedJobs() {
+		List<SettlementJob> unfinished = jobRepository.findByStatusIn(
+				List.of(SettlementJobStatus.PENDING, SettlementJobStatus.RUNNING, SettlementJobStatus.FAILED));
+		for (SettlementJob job : unfinished) {
+			log.info("Resuming settlement job {} of event {} after bet {}", job.getId(), job.getEventId(), job.getLastBetId());
+			submit(job.getId());
+		}
+	}
+
+	private void submit(Long jobId) {
+		if (async) {
+			executor.execute(() -> run(jobId));
+		} else {
+			run(jobId);
+		}
+	}
+
+	void run(Long jobId) {
+		// One trace per job run, with the statements of every chunk beneath it
+		Observation observation = Observation.createNotStarted("betting.settlement-job", observationRegistry)
+				.contextualName("settlement job")
+				.highCardinalityKeyValue("job.id", String.valueOf(jobId));
+		try {
+			observation.observe(() -> bettingMetrics.settlement(() -> {
+				Boolean started = transactionTemplate.execute(status -> begin(jobId));
+				if (!Boolean.TRUE.equals(started)) return null;
+
+				while (Boolean.TRUE.equals(bettingMetrics.settlementPhase("chunk",
+						() -> transactionTemplate.execute(status -> settleNextChunk(jobId))))) {
+					// each iteration commits one chunk and its checkpoint
+				}
+
+				bettingMetrics.settlementPhase("complete", () -> transactionTemplate.executeWithoutResult(status -> complete(jobId)));
+				return null;
+			}));
+		} catch (RuntimeException ex) {
+			log.error("Settlement job {} failed", jobId, ex);
+			transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+				job.setStatus(SettlementJobStatus.FAILED);
+				job.setError(ex.getMessage());
+				job.setUpdatedAt(OffsetDateTime.now());
+			}));
+		}
+	}
+
+	/**
+	 * Fix the pool totals once, so every chunk (including after a restart) pays out against the same figures.
+	 */
+	private boolean begin(Long jobId) {
+		SettlementJob job = jobRepository.findByIdForUpdate(jobId)
+				.orElseThrow(() -> new IllegalArgumentException("Settlement job not found"));
+		if (job.getStatus() == SettlementJobStatus.COMPLETED) {
+			return false;
+		}
+		if (job.getTotalPoolEur() == null) {
+			SettlementTotals totals = betPoolRepository.settlementTotals(job.getEventId(), job.getWinningDriverId());
+			job.setTotalPoolEur(totals.totalPoolEur());
+			job.setWinningStakeEur(totals.winningStakeEur());
+			job.setTotalBets(totals.betCount());
+		}
+		job.setStatus(SettlementJobStatus.RUNNING);
+		job.setError(null);
+		job.setUpdatedAt(OffsetDateTime.now());
+		return true;
+	}
+
+	/**
+	 * Settle the next chunk of bets and advance the checkpoint in the same transaction.
+	 *
+	 * @return false when there are no bets left
+	 */
+	private boolean settleNextChunk(Long jobId) {
+		SettlementJob job = jobRepository.findByIdForUpdate(jobId)
+				.orElseThrow(() -> new IllegalArgumentException("Settlement job not found"));
+		SettlementChunkEvent jfrEvent = new SettlementChunkEvent();
+		jfrEvent.begin();
+		long[] betIds = new long[chunkSize];
+		long[] userIds = new long[chunkSize];
+		long[] driverIds = new long[chunkSize];
+		long[] stakesEur = new long[chunkSize];
+		int[] count = {0};
+		// Keyset pagination in id order, read straight into primitive columns
+		bettingMetrics.settlementPhase("read", () -> jdbcTemplate.query("SELECT id, user_id, driver_id, amount_eur FROM bets " +
+						"WHERE event_id = ? AND id > ? ORDER BY id LIMIT ?",
+				rs -> {
+					int i = count[0]++;
+					betIds[i] = rs.getLong(1);
+					userIds[i] = rs.getLong(2);
+					driverIds[i] = rs.getLong(3);
+					stakesEur[i] = rs.getLong(4);
+				},
+				job.getEventId(), job.getLastBetId(), chunkSize));
+		int size = count[0];
+		if (size == 0) {
+			return false;
+		}
+
+		long afterBetId = job.getLastBetId();
+		long upToBetId = betIds[size - 1];
+		UserPayouts payouts = new UserPayouts(size);
+		bettingMetrics.settlementPhase("payouts", () -> new SettlementCalculator(
+				job.getWinningDriverId(), job.getTotalPoolEur(), job.getWinningStakeEur())
+				.accumulate(userIds, driverIds, stakesEur, size, payouts));
+
+		// Checkpoint is flushed together with the bulk update below
+		job.setLastBetId(upToBetId);
+		job.setProcessedBets(job.getProcessedBets() + size);
+		job.setUpdatedAt(OffsetDateTime.now());
+
+		bettingMetrics.settlementPhase("mark_settled",
+				() -> betRepository.markSettled(job.getEventId(), job.getWinningDriverId(), afterBetId, upToBetId));
+		bettingMetrics.settlementPhase("credit", () -> payouts.forEachAscending(userRepository::creditUser));
+		bettingMetrics.settledBets(size);
+
+		jfrEvent.end();
+		if (jfrEvent.shouldCommit()) {
+			jfrEvent.jobId = jobId;
+			jfrEvent.eventId = job.getEventId();
+			jfrEvent.afterBetId = afterBetId;
+			jfrEvent.upToBetId = upToBetId;
+			jfrEvent.bets = size;
+			jfrEvent.paidUsers = payouts.size();
+			jfrEvent.commit();
+		}
+
+		log.debug("Settlement job {} processed bets ({}, {}]", jobId, afterBetId, upToBetId);
+		return size == chunkSize;
+	}
+
+	private void complete(Long jobId) {
+		SettlementJob job = jobRepository.findByIdForUpdate(jobId)
+				.orElseThrow(() -> new IllegalArgumentException("Settlement job not found"));
+		if (job.getStatus() == SettlementJobStatus.COMPLETED) return;
+
+		HistoricalEvent event = historicalEventRepository.findById(job.getEventId())
+				.orElseThrow(() -> new IllegalArgumentException("Event not found"));
+
+		EventOutcome outcome = new EventOutcome();
+		outcome.setEventId(job.getEventId());
+		outcome.setWinningDriverId(job.getWinningDriverId());
+		eventOutcomeRepository.save(outcome);
+
+		event.setStatus(EventStatus.SETTLED);
+		historicalEventRepository.save(event);
+		eventStatusRegistry.publish(job.getEventId(), EventStatus.SETTLED);
+
+		job.setStatus(SettlementJobStatus.COMPLETED);
+		job.setUpdatedAt(OffsetDateTime.now());
+		events.publishEvent(new EventSettled(job.getEventId(), job.getWinningDriverId(),
+				job.getTotalPoolEur(), job.getProcessedBets()));
+		log.info("Event {} is settled by job {}", job.getEventId(), jobId);
+	}
+}
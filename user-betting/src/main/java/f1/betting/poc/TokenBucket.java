@@ -0,0 +1,48 @@
+package f1.betting.poc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket refilling {@code ratePerSecond} tokens up to {@code burst}.
+ * The whole state is one theoretical-arrival time (the GCRA form of a token bucket), so taking a token
+ * is a single compare-and-set and an idle bucket costs one long.
+ */
+final class TokenBucket {
+
+	private final long emissionIntervalNanos;
+	private final long burstToleranceNanos;
+	private final AtomicLong theoreticalArrival;
+
+	TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+		this.emissionIntervalNanos = (long) (1_000_000_000L / ratePerSecond);
+		this.burstToleranceNanos = emissionIntervalNanos * burst;
+		// Starts full
+		this.theoreticalArrival = new AtomicLong(nowNanos);
+	}
+
+	/**
+	 * Take one token.
+	 *
+	 * @return 0 when a token was taken, otherwise the nanoseconds until one becomes available
+	 */
+	long tryAcquire(long nowNanos) {
+		while (true) {
+			long arrival = theoreticalArrival.get();
+			long next = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+			long wait = next - nowNanos - burstToleranceNanos;
+			if (wait > 0) {
+				return wait;
+			}
+			if (theoreticalArrival.compareAndSet(arrival, next)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Time after which an untouched bucket is full again, so forgetting it loses nothing.
+	 */
+	long refillNanos() {
+		return burstToleranceNanos;
+	}
+}
@@ -0,0 +1,107 @@
+package f1.betting.poc;
+
+import java.util.Arrays;
+
+/**
+ * Primitive long-to-long accumulator of payouts per user id.
+ * Open addressing with linear probing, so adding a payout does not box ids or amounts.
+ * Not thread-safe: one instance is meant to live for one settlement pass.
+ */
+public final class UserPayouts {
+
+	private static final long EMPTY = Long.MIN_VALUE;
+
+	private long[] userIds;
+	private long[] amounts;
+	private int size;
+
+	public UserPayouts() {
+		this(16);
+	}
+
+	public UserPayouts(int expectedUsers) {
+		int capacity = Integer.highestOneBit(Math.max(4, expectedUsers * 2 - 1)) << 1;
+		userIds = new long[capacity];
+		amounts = new long[capacity];
+		Arrays.fill(userIds, EMPTY);
+	}
+
+	/**
+	 * Adds {@code amount} to the payout of {@code userId}.
+	 */
+	public void add(long userId, long amount) {
+		if (userId == EMPTY) {
+			throw new IllegalArgumentException("Unsupported user id " + userId);
+		}
+		int slot = slotOf(userId, userIds);
+		if (userIds[slot] == EMPTY) {
+			userIds[slot] = userId;
+			size++;
+			if (size * 2 > userIds.length) {
+				grow();
+				slot = slotOf(userId, userIds);
+			}
+		}
+		amounts[slot] += amount;
+	}
+
+	public long get(long userId) {
+		int slot = slotOf(userId, userIds);
+		return userIds[slot] == EMPTY ? 0L : amounts[slot];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Visits every user with a non-zero payout in ascending user id order.
+	 * Applying credits in a stable order keeps concurrent settlements from deadlocking on the users table.
+	 */
+	public void forEachAscending(PayoutConsumer consumer) {
+		long[] sorted = new long[size];
+		int n = 0;
+		for (long id : userIds) {
+			if (id != EMPTY) sorted[n++] = id;
+		}
+		Arrays.sort(sorted);
+		for (long id : sorted) {
+			long amount = get(id);
+			if (amount != 0L) consumer.accept(id, amount);
+		}
+	}
+
+	private void grow() {
+		long[] oldIds = userIds;
+		long[] oldAmounts = amounts;
+		userIds = new long[oldIds.length << 1];
+		amounts = new long[oldIds.length << 1];
+		Arrays.fill(userIds, EMPTY);
+		for (int i = 0; i < oldIds.length; i++) {
+			if (oldIds[i] != EMPTY) {
+				int slot = slotOf(oldIds[i], userIds);
+				userIds[slot] = oldIds[i];
+				amounts[slot] = oldAmounts[i];
+			}
+		}
+	}
+
+	private static int slotOf(long userId, long[] table) {
+		int mask = table.length - 1;
+		// Fibonacci hashing spreads sequential BIGSERIAL ids across the table
+		int slot = (int) ((userId * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+		while (table[slot] != EMPTY && table[slot] != userId) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	@FunctionalInterface
+	public interface PayoutConsumer {
+		void accept(long userId, long amount);
+	}
+}
@@ -12,4 +12,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
 	@Transactional
  	@Query("UPDATE User u SET u.balanceEur = u.balanceEur - :amount WHERE u.id = :userId AND u.balanceEur >= :amount")
 	int debitUser(Long userId, Long amount);
+
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Transactional
+	@Query("UPDATE User u SET u.balanceEur = u.balanceEur + :amount WHERE u.id = :userId")
+	int creditUser(Long userId, Long amount);
 }
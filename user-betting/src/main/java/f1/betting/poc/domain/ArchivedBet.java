@@ -0,0 +1,22 @@
+package f1.betting.poc.domain;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A bet as stored in a cold-storage archive file.
+ */
+public record ArchivedBet(
+		Long betId,
+		Long userId,
+		Long eventId,
+		Long driverId,
+		String driverName,
+		Long amountEur,
+		Integer odds,
+		BetStatus status,
+		OffsetDateTime createdAt
+) {
+	public BetHistoryEntry toHistoryEntry() {
+		return new BetHistoryEntry(betId, eventId, driverId, driverName, amountEur, odds, status, createdAt);
+	}
+}
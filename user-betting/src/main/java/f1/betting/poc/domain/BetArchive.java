@@ -0,0 +1,30 @@
+package f1.betting.poc.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Catalog entry of an event whose bets were moved to an archive file.
+ */
+@Entity
+@Table(name = "bet_archives")
+@Getter
+@Setter
+public class BetArchive {
+	@Id
+	@Column(name = "event_id", nullable = false)
+	private Long eventId;
+
+	@Column(name = "file_path", nullable = false)
+	private String filePath;
+
+	@Column(name = "bet_count", nullable = false)
+	private long betCount;
+
+	@Column(name = "archived_at", updatable = false)
+	private OffsetDateTime archivedAt = OffsetDateTime.now();
+
+}
@@ -0,0 +1,17 @@
+package f1.betting.poc.domain;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Read-only projection of a bet for the history endpoint.
+ */
+public record BetHistoryEntry(
+		Long betId,
+		Long eventId,
+		Long driverId,
+		String driverName,
+		Long amountEur,
+		Integer odds,
+		BetStatus status,
+		OffsetDateTime createdAt
+) {}
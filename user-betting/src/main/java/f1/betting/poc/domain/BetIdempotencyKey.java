@@ -0,0 +1,30 @@
+package f1.betting.poc.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(name = "bet_idempotency_keys")
+@IdClass(BetIdempotencyKeyId.class)
+@Getter
+@Setter
+public class BetIdempotencyKey {
+	@Id
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Id
+	@Column(name = "idempotency_key", nullable = false)
+	private String idempotencyKey;
+
+	// Only null inside the placement transaction that claimed the key
+	@Column(name = "bet_id")
+	private Long betId;
+
+	@Column(name = "created_at", updatable = false)
+	private OffsetDateTime createdAt = OffsetDateTime.now();
+
+}
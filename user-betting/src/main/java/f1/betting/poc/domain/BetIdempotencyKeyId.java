@@ -0,0 +1,15 @@
+package f1.betting.poc.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BetIdempotencyKeyId implements Serializable {
+	private Long userId;
+	private String idempotencyKey;
+}
@@ -0,0 +1,13 @@
+package f1.betting.poc.domain;
+
+/**
+ * Published when a bet has been placed and the user debited.
+ */
+public record BetPlaced(
+		Long betId,
+		Long userId,
+		Long eventId,
+		Long driverId,
+		Long amountEur,
+		Integer odds
+) {}
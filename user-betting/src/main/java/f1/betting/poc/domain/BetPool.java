@@ -0,0 +1,31 @@
+package f1.betting.poc.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Running stake total for one driver in one event.
+ * Rows are only written through {@code BetPoolRepository.addStake}; the entity is read-only otherwise.
+ */
+@Entity
+@Table(name = "bet_pools")
+@IdClass(BetPoolId.class)
+@Getter
+@Setter
+public class BetPool {
+	@Id
+	@Column(name = "event_id", nullable = false)
+	private Long eventId;
+
+	@Id
+	@Column(name = "driver_id", nullable = false)
+	private Long driverId;
+
+	@Column(name = "stake_eur", nullable = false)
+	private long stakeEur;
+
+	@Column(name = "bet_count", nullable = false)
+	private long betCount;
+
+}
@@ -0,0 +1,8 @@
+package f1.betting.poc.domain;
+
+/**
+ * Published when an event stops accepting bets ahead of settlement.
+ */
+public record EventLocked(
+		Long eventId
+) {}
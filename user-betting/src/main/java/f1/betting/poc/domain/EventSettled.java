@@ -0,0 +1,11 @@
+package f1.betting.poc.domain;
+
+/**
+ * Published once all bets of an event are settled and winners are credited.
+ */
+public record EventSettled(
+		Long eventId,
+		Long winningDriverId,
+		Long totalPoolEur,
+		Long settledBets
+) {}
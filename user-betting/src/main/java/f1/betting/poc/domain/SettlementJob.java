@@ -0,0 +1,55 @@
+package f1.betting.poc.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Background settlement of one event.
+ * Totals are fixed once when the job starts; {@code lastBetId} is the checkpoint committed together with each chunk,
+ * so a restarted job continues after the last settled bet.
+ */
+@Entity
+@Table(name = "settlement_jobs")
+@Getter
+@Setter
+public class SettlementJob {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "event_id", nullable = false)
+	private Long eventId;
+
+	@Column(name = "winning_driver_id", nullable = false)
+	private Long winningDriverId;
+
+	@Enumerated(EnumType.STRING)
+	private SettlementJobStatus status = SettlementJobStatus.PENDING;
+
+	@Column(name = "total_pool_eur")
+	private Long totalPoolEur;
+
+	@Column(name = "winning_stake_eur")
+	private Long winningStakeEur;
+
+	@Column(name = "total_bets")
+	private Long totalBets;
+
+	@Column(name = "processed_bets", nullable = false)
+	private long processedBets;
+
+	@Column(name = "last_bet_id", nullable = false)
+	private long lastBetId;
+
+	private String error;
+
+	@Column(name = "created_at", updatable = false)
+	private OffsetDateTime createdAt = OffsetDateTime.now();
+
+	@Column(name = "updated_at")
+	private OffsetDateTime updatedAt = OffsetDateTime.now();
+
+}
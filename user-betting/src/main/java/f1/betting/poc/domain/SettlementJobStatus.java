@@ -0,0 +1,5 @@
+package f1.betting.poc.domain;
+
+public enum SettlementJobStatus {
+	PENDING, RUNNING, COMPLETED, FAILED
+}
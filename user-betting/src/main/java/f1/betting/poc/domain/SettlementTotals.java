@@ -0,0 +1,10 @@
+package f1.betting.poc.domain;
+
+/**
+ * Pool figures of an event needed to compute proportional payouts.
+ */
+public record SettlementTotals(
+		Long totalPoolEur,
+		Long winningStakeEur,
+		Long betCount
+) {}
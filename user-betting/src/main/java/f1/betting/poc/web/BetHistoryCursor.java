@@ -0,0 +1,36 @@
+package f1.betting.poc.web;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position in a user's bet history: the (created_at, id) of the last bet of the previous page.
+ * Exposed to clients as an opaque string.
+ */
+public record BetHistoryCursor(
+		OffsetDateTime createdAt,
+		Long betId
+) {
+
+	public String encode() {
+		long micros = ChronoUnit.MICROS.between(Instant.EPOCH, createdAt.toInstant());
+		String raw = micros + ":" + betId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	public static BetHistoryCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+			int sep = raw.indexOf(':');
+			long micros = Long.parseLong(raw.substring(0, sep));
+			long betId = Long.parseLong(raw.substring(sep + 1));
+			return new BetHistoryCursor(Instant.EPOCH.plus(micros, ChronoUnit.MICROS).atOffset(ZoneOffset.UTC), betId);
+		} catch (RuntimeException ex) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+}
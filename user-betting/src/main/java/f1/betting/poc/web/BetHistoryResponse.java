@@ -0,0 +1,13 @@
+package f1.betting.poc.web;
+
+import f1.betting.poc.domain.BetHistoryEntry;
+
+import java.util.List;
+
+/**
+ * One page of bet history, newest first. {@code nextCursor} is null on the last page.
+ */
+public record BetHistoryResponse(
+		List<BetHistoryEntry> items,
+		String nextCursor
+) {}
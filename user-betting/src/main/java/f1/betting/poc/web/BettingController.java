@@ -1,29 +1,94 @@
 package f1.betting.poc.web;
 
+import f1.betting.poc.BetArchiveService;
+import f1.betting.poc.BetHistoryService;
+import f1.betting.poc.BetIdempotency;
 import f1.betting.poc.BettingService;
+import f1.betting.poc.LivePoolOdds;
+import f1.betting.poc.PlacementAdmission;
+import f1.betting.poc.SettlementJobService;
+import f1.betting.poc.domain.ArchivedBet;
+import f1.betting.poc.domain.SettlementJob;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class BettingController {
 
 	private final BettingService bettingService;
+	private final SettlementJobService settlementJobService;
+	private final BetHistoryService betHistoryService;
+	private final LivePoolOdds livePoolOdds;
+	private final BetIdempotency betIdempotency;
+	private final BetArchiveService betArchiveService;
+	private final PlacementAdmission placementAdmission;
 
 	@PostMapping("/bets")
-	public ResponseEntity<BetResponse> placeBet(@Valid @RequestBody PlaceBetRequest request) {
-		BetResponse response = bettingService.placeBet(request);
+	public ResponseEntity<BetResponse> placeBet(
+			@Valid @RequestBody PlaceBetRequest request,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+	) {
+		placementAdmission.admit(request.userId());
+		BetResponse response = betIdempotency.placeBet(request, idempotencyKey);
 		return ResponseEntity.ok(response);
 	}
 
+	@GetMapping("/users/{userId}/bets")
+	public ResponseEntity<BetHistoryResponse> getUserBets(
+			@PathVariable Long userId,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "20") int limit
+	) {
+		return ResponseEntity.ok(betHistoryService.getUserBets(userId, cursor, limit));
+	}
+
+	@GetMapping("/users/{userId}/archived-bets")
+	public ResponseEntity<BetHistoryResponse> getUserArchivedBets(
+			@PathVariable Long userId,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "5") int limit
+	) {
+		return ResponseEntity.ok(betArchiveService.getUserBets(userId, cursor, limit));
+	}
+
+	@GetMapping("/events/{eventId}/archived-bets")
+	public ResponseEntity<List<ArchivedBet>> getEventArchivedBets(@PathVariable Long eventId) {
+		return betArchiveService.findEventBets(eventId)
+				.map(ResponseEntity::ok)
+				.orElse(ResponseEntity.notFound().build());
+	}
+
+	@GetMapping("/events/{eventId}/pool")
+	public ResponseEntity<EventPoolResponse> getEventPool(@PathVariable Long eventId) {
+		return ResponseEntity.ok(bettingService.getEventPool(eventId));
+	}
+
+	@GetMapping("/events/{eventId}/pool-odds")
+	public ResponseEntity<PoolOddsResponse> getPoolOdds(@PathVariable Long eventId) {
+		return ResponseEntity.ok(livePoolOdds.odds(eventId));
+	}
+
 	@PostMapping("/events/{eventId}/settle")
-	public ResponseEntity<Void> settleEvent(@PathVariable Long eventId) {
-		bettingService.lockEventForSettlement(eventId);
-		bettingService.processEventSettlement(eventId);
-		return ResponseEntity.ok().build();
+	public ResponseEntity<SettlementJobResponse> settleEvent(@PathVariable Long eventId) {
+		SettlementJob job = settlementJobService.startSettlement(eventId);
+		return ResponseEntity.accepted()
+				.location(URI.create("/api/settlement-jobs/" + job.getId()))
+				.body(SettlementJobResponse.of(job));
+	}
+
+	@GetMapping("/settlement-jobs/{jobId}")
+	public ResponseEntity<SettlementJobResponse> getSettlementJob(@PathVariable Long jobId) {
+		return settlementJobService.findJob(jobId)
+				.map(SettlementJobResponse::of)
+				.map(ResponseEntity::ok)
+				.orElse(ResponseEntity.notFound().build());
 	}
 }
 
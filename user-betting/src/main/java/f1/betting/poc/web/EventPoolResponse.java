@@ -0,0 +1,16 @@
+package f1.betting.poc.web;
+
+import java.util.List;
+
+public record EventPoolResponse(
+		Long eventId,
+		Long totalPoolEur,
+		Long betCount,
+		List<DriverPool> drivers
+) {
+	public record DriverPool(
+			Long driverId,
+			Long stakeEur,
+			Long betCount
+	) {}
+}
@@ -1,5 +1,9 @@
 package f1.betting.poc.web;
 
+import f1.betting.poc.AdmissionRejectedException;
+import f1.betting.poc.ArchiveUnavailableException;
+import f1.betting.poc.PlacementTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -20,6 +24,33 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
 
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyRequests(AdmissionRejectedException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "too_many_requests");
+        body.put("message", ex.getMessage());
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(body);
+    }
+
+    @ExceptionHandler(ArchiveUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleArchiveUnavailable(ArchiveUnavailableException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "archive_unavailable");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+
+    @ExceptionHandler(PlacementTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handlePlacementTimeout(PlacementTimeoutException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "placement_timeout");
+        body.put("message", ex.getMessage() + "; the bet may still be placed, check the bet history before retrying");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -0,0 +1,15 @@
+package f1.betting.poc.web;
+
+import java.util.List;
+
+public record PoolOddsResponse(
+		Long eventId,
+		Long totalPoolEur,
+		List<DriverOdds> drivers
+) {
+	public record DriverOdds(
+			Long driverId,
+			Long stakeEur,
+			Double impliedOdds
+	) {}
+}
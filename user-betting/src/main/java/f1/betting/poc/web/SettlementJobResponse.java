@@ -0,0 +1,23 @@
+package f1.betting.poc.web;
+
+import f1.betting.poc.domain.SettlementJob;
+
+public record SettlementJobResponse(
+		Long jobId,
+		Long eventId,
+		String status,
+		Long totalBets,
+		Long processedBets,
+		String error
+) {
+	public static SettlementJobResponse of(SettlementJob job) {
+		return new SettlementJobResponse(
+				job.getId(),
+				job.getEventId(),
+				job.getStatus().name(),
+				job.getTotalBets(),
+				job.getProcessedBets(),
+				job.getError()
+		);
+	}
+}
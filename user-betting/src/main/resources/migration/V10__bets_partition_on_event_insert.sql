@@ -0,0 +1,65 @@
+-- V10__bets_partition_on_event_insert.sql
+
+-- BETS PARTITIONS AHEAD OF PLACEMENTS
+-- The range partition of an event exists before any bet on it: BetPartitionMaintenance creates the next range
+-- ahead of the newest event, and a placement that first sees an event registers it (row and partition) in a short
+-- transaction of its own before the placement transaction starts (BettingService). Creating a partition clones the
+-- foreign keys of bets and so briefly locks users and historical_events; it never happens inside a placement.
+-- The default partition is dropped: without it, settled ranges can be detached CONCURRENTLY
+-- (see BetPartitionMaintenance) instead of under ACCESS EXCLUSIVE.
+
+-- Negative event ids are reserved for synthetic events (JitWarmUp); they share one partition created here,
+-- so they never need partition DDL
+CREATE TABLE bets_synthetic (LIKE bets INCLUDING DEFAULTS INCLUDING CONSTRAINTS);
+WITH moved AS (DELETE FROM bets_default WHERE event_id < 0 RETURNING *)
+INSERT INTO bets_synthetic SELECT * FROM moved;
+ALTER TABLE bets ATTACH PARTITION bets_synthetic FOR VALUES FROM (MINVALUE) TO (0);
+
+-- Every range still in use gets its partition, moving its rows out of bets_default (V8 version of the function)
+SELECT ensure_bets_partition(range_start)
+FROM (SELECT DISTINCT (event_id / 1000) * 1000 AS range_start FROM bets_default
+      UNION SELECT DISTINCT (event_id / 1000) * 1000 FROM historical_events
+            WHERE event_id >= 0 AND status IN ('OPEN', 'LOCKED')) ranges;
+
+DROP TABLE bets_default;
+
+-- Creates the partition holding p_event_id if it does not exist yet. Returns the partition name.
+-- The partition lock is taken shared until the end of the calling transaction; BetPartitionMaintenance takes it
+-- exclusively while it detaches a range. An event registered in the same transaction is therefore either seen by
+-- the detach re-check or registered after the detach, with a new partition.
+CREATE OR REPLACE FUNCTION ensure_bets_partition(p_event_id BIGINT) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    width       CONSTANT BIGINT := 1000;
+    range_start BIGINT := (p_event_id / width) * width;
+    part_name   TEXT := 'bets_p' || range_start;
+BEGIN
+    IF p_event_id < 0 THEN
+        RETURN 'bets_synthetic';
+    END IF;
+
+    PERFORM pg_advisory_xact_lock_shared(hashtext('bets_partitions'));
+
+    -- Most events fall into an existing range
+    IF EXISTS (SELECT 1 FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+               WHERE i.inhparent = 'bets'::regclass AND c.relname = part_name) THEN
+        RETURN part_name;
+    END IF;
+
+    -- Creators queue on a lock of their own, so two of them never wait on each other's shared lock
+    PERFORM pg_advisory_xact_lock(hashtext('bets_partitions_create'));
+
+    IF EXISTS (SELECT 1 FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+               WHERE i.inhparent = 'bets'::regclass AND c.relname = part_name) THEN
+        RETURN part_name;
+    END IF;
+
+    -- CREATE + ATTACH locks bets with SHARE UPDATE EXCLUSIVE only, so concurrent placements are not blocked
+    EXECUTE format('CREATE TABLE %I (LIKE bets INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part_name);
+    EXECUTE format('ALTER TABLE bets ATTACH PARTITION %I FOR VALUES FROM (%s) TO (%s)',
+                   part_name, range_start, range_start + width);
+    RETURN part_name;
+END $$;
+
+-- DETACH ... CONCURRENTLY cannot run inside a function; BetPartitionMaintenance issues it directly
+DROP FUNCTION detach_bets_partition(TEXT);
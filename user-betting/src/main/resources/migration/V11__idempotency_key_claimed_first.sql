@@ -0,0 +1,7 @@
+-- V11__idempotency_key_claimed_first.sql
+
+-- IDEMPOTENCY KEY CLAIMED FIRST
+-- A keyed placement claims its key as the first statement of its transaction, before the debit, so a concurrent
+-- retry waits on the key and then returns the original bet. The bet id is only known once the bet is inserted
+-- later in that transaction; bet_id is NULL until then and never NULL once committed.
+ALTER TABLE bet_idempotency_keys ALTER COLUMN bet_id DROP NOT NULL;
@@ -0,0 +1,25 @@
+-- V3__settlement_jobs.sql
+
+-- SETTLEMENT JOBS
+-- One background job per event; last_bet_id is the checkpoint committed with every chunk
+CREATE TABLE settlement_jobs (
+    id                  BIGSERIAL PRIMARY KEY,
+    event_id            BIGINT NOT NULL REFERENCES historical_events(event_id),
+    winning_driver_id   BIGINT NOT NULL,
+    status              TEXT NOT NULL DEFAULT 'PENDING',
+    total_pool_eur      BIGINT,
+    winning_stake_eur   BIGINT,
+    total_bets          BIGINT,
+    processed_bets      BIGINT NOT NULL DEFAULT 0,
+    last_bet_id         BIGINT NOT NULL DEFAULT 0,
+    error               TEXT,
+    created_at          TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at          TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE UNIQUE INDEX ux_settlement_jobs_event ON settlement_jobs(event_id);
+CREATE INDEX ix_settlement_jobs_status ON settlement_jobs(status);
+
+-- Settlement walks an event's bets in id order, chunk by chunk
+DROP INDEX ix_bets_event;
+CREATE INDEX ix_bets_event_id ON bets(event_id, id);
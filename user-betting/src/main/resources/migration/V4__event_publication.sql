@@ -0,0 +1,15 @@
+-- V4__event_publication.sql
+
+-- Spring Modulith event publication registry (transactional outbox).
+-- A row per event and listener is written in the publishing transaction and completed once the listener succeeds.
+CREATE TABLE event_publication (
+    id                  UUID NOT NULL PRIMARY KEY,
+    listener_id         TEXT NOT NULL,
+    event_type          TEXT NOT NULL,
+    serialized_event    TEXT NOT NULL,
+    publication_date    TIMESTAMPTZ NOT NULL,
+    completion_date     TIMESTAMPTZ
+);
+
+CREATE INDEX ix_event_publication_serialized_event_hash ON event_publication USING hash(serialized_event);
+CREATE INDEX ix_event_publication_completion_date ON event_publication(completion_date);
@@ -0,0 +1,9 @@
+-- V5__bet_history_index.sql
+
+-- Covering index for keyset-paginated bet history: newest first per user, with every column the
+-- history endpoint returns, so a page is served by an index-only scan.
+CREATE INDEX ix_bets_user_history ON bets(user_id, created_at DESC, id DESC)
+    INCLUDE (event_id, driver_id, driver_name, amount_eur, odds, status);
+
+-- Superseded by the index above (same leading column)
+DROP INDEX ix_bets_user;
@@ -0,0 +1,17 @@
+-- V6__bet_pools.sql
+
+-- BET POOLS
+-- Stake per (event, driver), maintained in the same transaction as every bet insert.
+-- Pool, odds and settlement totals read at most one row per driver instead of scanning bets.
+CREATE TABLE bet_pools (
+    event_id        BIGINT NOT NULL REFERENCES historical_events(event_id),
+    driver_id       BIGINT NOT NULL,
+    stake_eur       BIGINT NOT NULL DEFAULT 0,
+    bet_count       BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (event_id, driver_id)
+);
+
+INSERT INTO bet_pools (event_id, driver_id, stake_eur, bet_count)
+SELECT event_id, driver_id, SUM(amount_eur), COUNT(*)
+FROM bets
+GROUP BY event_id, driver_id;
@@ -0,0 +1,14 @@
+-- V7__bet_idempotency_keys.sql
+
+-- BET IDEMPOTENCY KEYS
+-- One row per (user, Idempotency-Key) of POST /api/bets, written in the placement transaction.
+-- The primary key is what makes a retried placement fail instead of debiting twice.
+CREATE TABLE bet_idempotency_keys (
+    user_id         BIGINT NOT NULL REFERENCES users(id),
+    idempotency_key TEXT NOT NULL,
+    bet_id          BIGINT NOT NULL,
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX ix_bet_idempotency_keys_created ON bet_idempotency_keys(created_at);
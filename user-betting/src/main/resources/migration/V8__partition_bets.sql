@@ -0,0 +1,80 @@
+-- V8__partition_bets.sql
+
+-- BETS, PARTITIONED BY EVENT
+-- bets becomes range-partitioned on event_id, 1000 OpenF1 session keys per partition.
+-- Settlement, pool and other per-event statements filter on event_id and are pruned to one partition;
+-- a fully settled range can be detached for archive instead of being deleted row by row.
+-- Bets for a range without a partition land in bets_default until maintenance creates one.
+
+ALTER TABLE bets RENAME TO bets_unpartitioned;
+ALTER SEQUENCE bets_id_seq OWNED BY NONE;
+
+CREATE TABLE bets (
+    id              BIGINT NOT NULL DEFAULT nextval('bets_id_seq'),
+    user_id         BIGINT NOT NULL REFERENCES users(id),
+    event_id        BIGINT NOT NULL REFERENCES historical_events(event_id),
+    driver_id       BIGINT NOT NULL,
+    driver_name     TEXT,
+    amount_eur      BIGINT NOT NULL,
+    odds            INT NOT NULL CHECK (odds IN (2,3,4)),
+    status          TEXT NOT NULL DEFAULT 'PENDING',
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT now()
+) PARTITION BY RANGE (event_id);
+
+CREATE TABLE bets_default PARTITION OF bets DEFAULT;
+
+-- Creates the partition holding p_event_id if it does not exist yet, moving any of its rows out of bets_default.
+-- Returns the partition name.
+CREATE FUNCTION ensure_bets_partition(p_event_id BIGINT) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    width       CONSTANT BIGINT := 1000;
+    range_start BIGINT := (p_event_id / width) * width;
+    part_name   TEXT := 'bets_p' || range_start;
+BEGIN
+    -- Serialise partition changes; concurrent callers for the same range would otherwise both create it
+    PERFORM pg_advisory_xact_lock(hashtext('bets_partitions'));
+
+    IF EXISTS (SELECT 1 FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+               WHERE i.inhparent = 'bets'::regclass AND c.relname = part_name) THEN
+        RETURN part_name;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE bets INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part_name);
+    EXECUTE format('WITH moved AS (DELETE FROM bets_default WHERE event_id >= %s AND event_id < %s RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved', range_start, range_start + width, part_name);
+    EXECUTE format('ALTER TABLE bets ATTACH PARTITION %I FOR VALUES FROM (%s) TO (%s)',
+                   part_name, range_start, range_start + width);
+    RETURN part_name;
+END $$;
+
+-- Detaches a partition and renames it so its range can be recreated; the table is kept for archive.
+-- Returns the new name of the detached table.
+CREATE FUNCTION detach_bets_partition(p_partition TEXT) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    detached TEXT := p_partition || '_detached_' || to_char(clock_timestamp(), 'YYYYMMDDHH24MISS');
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('bets_partitions'));
+    EXECUTE format('ALTER TABLE bets DETACH PARTITION %I', p_partition);
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', p_partition, detached);
+    RETURN detached;
+END $$;
+
+-- One partition per range that already has bets
+SELECT ensure_bets_partition(range_start)
+FROM (SELECT DISTINCT (event_id / 1000) * 1000 AS range_start FROM bets_unpartitioned) ranges;
+
+INSERT INTO bets (id, user_id, event_id, driver_id, driver_name, amount_eur, odds, status, created_at)
+SELECT id, user_id, event_id, driver_id, driver_name, amount_eur, odds, status, created_at
+FROM bets_unpartitioned;
+
+DROP TABLE bets_unpartitioned;
+ALTER SEQUENCE bets_id_seq OWNED BY bets.id;
+
+-- Primary and unique keys of a partitioned table must contain the partition key; ids stay unique via the sequence
+ALTER TABLE bets ADD PRIMARY KEY (id, event_id);
+
+CREATE INDEX ix_bets_event_id ON bets(event_id, id);
+CREATE INDEX ix_bets_user_history ON bets(user_id, created_at DESC, id DESC)
+    INCLUDE (event_id, driver_id, driver_name, amount_eur, odds, status);
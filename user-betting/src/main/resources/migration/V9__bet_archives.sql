@@ -0,0 +1,17 @@
+-- V9__bet_archives.sql
+
+-- BET ARCHIVES
+-- Catalog of events whose bets were moved from bets to compressed files under betting.archive.directory.
+CREATE TABLE bet_archives (
+    event_id        BIGINT PRIMARY KEY REFERENCES historical_events(event_id),
+    file_path       TEXT NOT NULL,
+    bet_count       BIGINT NOT NULL,
+    archived_at     TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Which archived events a user bet on, so archived history opens only that user's files
+CREATE TABLE bet_archive_users (
+    user_id         BIGINT NOT NULL REFERENCES users(id),
+    event_id        BIGINT NOT NULL REFERENCES bet_archives(event_id),
+    PRIMARY KEY (user_id, event_id)
+);
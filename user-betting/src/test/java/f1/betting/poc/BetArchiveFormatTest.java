@@ -0,0 +1,79 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.ArchivedBet;
+import f1.betting.poc.domain.BetStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BetArchiveFormatTest {
+
+    @Test
+    void archiveShouldRoundTripAcrossRowGroups() throws IOException {
+        // Given: more bets than fit in one row group, with repeated and missing driver names
+        long eventId = 9134L;
+        OffsetDateTime start = OffsetDateTime.of(2023, 7, 9, 14, 0, 0, 123_456_000, ZoneOffset.UTC);
+        List<ArchivedBet> bets = new ArrayList<>();
+        for (int i = 0; i < BetArchiveFormat.ROW_GROUP_SIZE + 10; i++) {
+            bets.add(new ArchivedBet(
+                    1_000L + i * 3L,
+                    (long) (i % 7) + 1,
+                    eventId,
+                    (long) (i % 20) + 1,
+                    i % 5 == 0 ? null : "Driver " + (i % 20),
+                    (long) i + 1,
+                    2 + i % 3,
+                    i % 2 == 0 ? BetStatus.WON : BetStatus.LOST,
+                    start.plusSeconds(i).minusNanos(i % 2 == 0 ? 0 : 1_000)));
+        }
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BetArchiveFormat.Writer writer = BetArchiveFormat.writer(out, eventId)) {
+            for (ArchivedBet bet : bets) writer.append(bet);
+        }
+        List<ArchivedBet> read = BetArchiveFormat.read(new ByteArrayInputStream(out.toByteArray()));
+
+        // Then
+        assertThat(read).containsExactlyElementsOf(bets);
+    }
+
+    @Test
+    void readingOneUserShouldOnlyReturnTheirBets() throws IOException {
+        // Given: two users interleaved across row groups
+        long eventId = 9134L;
+        OffsetDateTime start = OffsetDateTime.of(2023, 7, 9, 14, 0, 0, 0, ZoneOffset.UTC);
+        List<ArchivedBet> bets = new ArrayList<>();
+        for (int i = 0; i < BetArchiveFormat.ROW_GROUP_SIZE + 10; i++) {
+            bets.add(new ArchivedBet(1L + i, (long) (i % 2) + 1, eventId, 1L, "Driver", 1L, 2, BetStatus.LOST,
+                    start.plusSeconds(i)));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BetArchiveFormat.Writer writer = BetArchiveFormat.writer(out, eventId)) {
+            for (ArchivedBet bet : bets) writer.append(bet);
+        }
+
+        // When
+        List<ArchivedBet> read = BetArchiveFormat.read(new ByteArrayInputStream(out.toByteArray()), userId -> userId == 2L);
+
+        // Then
+        assertThat(read).containsExactlyElementsOf(bets.stream().filter(bet -> bet.userId() == 2L).toList());
+    }
+
+    @Test
+    void writerShouldRejectBetsOfAnotherEvent() throws IOException {
+        BetArchiveFormat.Writer writer = BetArchiveFormat.writer(new ByteArrayOutputStream(), 1L);
+        ArchivedBet other = new ArchivedBet(1L, 1L, 2L, 1L, null, 1L, 2, BetStatus.LOST, OffsetDateTime.now(ZoneOffset.UTC));
+
+        assertThatThrownBy(() -> writer.append(other)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,143 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.*;
+import f1.betting.poc.web.BetHistoryResponse;
+import f1.betting.poc.web.BetResponse;
+import f1.betting.poc.web.PlaceBetRequest;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@SpringBootTest(properties = "betting.archive.directory=${java.io.tmpdir}/bet-archive-test")
+@ContextConfiguration(initializers = TestcontainersConfiguration.class)
+@Transactional
+class BetArchiveServiceIntegrationTest {
+
+    @Autowired
+    BetArchiveService archiveService;
+    @Autowired
+    BettingService bettingService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    BetRepository betRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    SettlementJobService settlementJobService;
+    @Autowired
+    DataSource dataSource;
+
+    @MockitoBean
+    RestTemplate restTemplate;
+
+    Faker faker = new Faker();
+
+    @Test
+    void settledEventShouldMoveToArchiveAndStayReadable() {
+        // Given: a settled event with bets from two users, settled long ago
+        List<User> users = userRepository.findAll();
+        User u1 = users.get(0);
+        User u2 = users.get(1);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long winDriver = (long) faker.number().numberBetween(1, 50);
+        Long loseDriver = winDriver + 1;
+
+        Driver win = Driver.builder().driverNumber(winDriver).fullName(faker.name().fullName()).teamName("T1").odds(3).build();
+        Driver lose = Driver.builder().driverNumber(loseDriver).fullName(faker.name().fullName()).teamName("T2").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").drivers(List.of(win, lose)).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+        BetResponse b1 = bettingService.placeBet(new PlaceBetRequest(u1.getId(), eventId, winDriver, 10L));
+        BetResponse b2 = bettingService.placeBet(new PlaceBetRequest(u2.getId(), eventId, loseDriver, 5L));
+
+        EventResult winner = EventResult.builder().sessionKey(eventId).finished(true).winnerDriverNumber(winDriver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId + "/winner", EventResult.class))
+                .willReturn(winner);
+        settlementJobService.startSettlement(eventId);
+        jdbcTemplate.update("UPDATE event_outcomes SET settled_at = now() - interval '60 days' WHERE event_id = ?", eventId);
+
+        // When
+        List<Long> archived = archiveService.archiveSettledEvents();
+
+        // Then: rows left the hot table
+        assertThat(archived).contains(eventId);
+        assertThat(betRepository.findByEventId(eventId)).isEmpty();
+
+        // and are served from the archive
+        List<ArchivedBet> eventBets = archiveService.findEventBets(eventId).orElseThrow();
+        assertThat(eventBets).extracting(ArchivedBet::betId).containsExactly(b1.betId(), b2.betId());
+        assertThat(eventBets).extracting(ArchivedBet::status).containsExactly(BetStatus.WON, BetStatus.LOST);
+
+        BetHistoryResponse history = archiveService.getUserBets(u2.getId(), null, 5);
+        assertThat(history.items()).extracting(BetHistoryEntry::betId).contains(b2.betId()).doesNotContain(b1.betId());
+    }
+
+    @Test
+    void recentlySettledEventShouldStayHot() {
+        // Given
+        User user = userRepository.findAll().get(0);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+        bettingService.placeBet(new PlaceBetRequest(user.getId(), eventId, driverId, 3L));
+
+        EventResult winner = EventResult.builder().sessionKey(eventId).finished(true).winnerDriverNumber(driverId).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId + "/winner", EventResult.class))
+                .willReturn(winner);
+        settlementJobService.startSettlement(eventId);
+
+        // When
+        List<Long> archived = archiveService.archiveSettledEvents();
+
+        // Then
+        assertThat(archived).doesNotContain(eventId);
+        assertThat(betRepository.findByEventId(eventId)).hasSize(1);
+        assertThat(archiveService.findEventBets(eventId)).isEmpty();
+    }
+
+    @Test
+    void runShouldBeSkippedWhileAnotherNodeIsArchiving() throws Exception {
+        // Given: an event due for archiving
+        User user = userRepository.findAll().get(0);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+        bettingService.placeBet(new PlaceBetRequest(user.getId(), eventId, driverId, 3L));
+
+        EventResult winner = EventResult.builder().sessionKey(eventId).finished(true).winnerDriverNumber(driverId).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId + "/winner", EventResult.class))
+                .willReturn(winner);
+        settlementJobService.startSettlement(eventId);
+        jdbcTemplate.update("UPDATE event_outcomes SET settled_at = now() - interval '60 days' WHERE event_id = ?", eventId);
+
+        // When: another session, as another node would, holds the archive lock
+        List<Long> archived;
+        try (Connection otherNode = dataSource.getConnection(); Statement statement = otherNode.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(hashtext('bet_archive'))");
+            archived = archiveService.archiveSettledEvents();
+            statement.execute("SELECT pg_advisory_unlock(hashtext('bet_archive'))");
+        }
+
+        // Then
+        assertThat(archived).isEmpty();
+        assertThat(betRepository.findByEventId(eventId)).hasSize(1);
+    }
+}
@@ -0,0 +1,114 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.*;
+import f1.betting.poc.web.BetResponse;
+import f1.betting.poc.web.PlaceBetRequest;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@SpringBootTest
+@ContextConfiguration(initializers = TestcontainersConfiguration.class)
+@Transactional
+class BetPartitionMaintenanceIntegrationTest {
+
+    @Autowired
+    BetPartitionMaintenance maintenance;
+    @Autowired
+    BettingService bettingService;
+    @Autowired
+    SettlementJobService settlementJobService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    RestTemplate restTemplate;
+
+    Faker faker = new Faker();
+
+    @Test
+    void firstBetOnAnEventShouldLandInItsRangePartition() {
+        // Given: an event never seen before
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+
+        // When: its row is inserted by the placement
+        BetResponse bet = placeBet(eventId);
+
+        // Then: the partition was created with it
+        assertThat(partitionOf(bet.betId())).isEqualTo("bets_p" + rangeStart(eventId));
+    }
+
+    @Test
+    void nextRangeShouldBeCreatedAheadOfTheNewestEvent() {
+        // Given
+        placeBet((long) faker.number().numberBetween(1, Integer.MAX_VALUE));
+        Long newest = jdbcTemplate.queryForObject("SELECT max(event_id) FROM historical_events", Long.class);
+
+        // When
+        List<String> partitions = maintenance.createMissingPartitions();
+
+        // Then
+        assertThat(partitions).contains("bets_p" + rangeStart(newest + BetPartitionMaintenance.PARTITION_WIDTH));
+    }
+
+    // DETACH PARTITION CONCURRENTLY cannot run in a transaction, so this test commits and cleans up after itself
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void settledRangeShouldBeDetached() {
+        // Given: a settled event in its own partition, settled long enough ago
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = placeBet(eventId).driverId();
+
+        EventResult winner = EventResult.builder().sessionKey(eventId).finished(true).winnerDriverNumber(driverId).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId + "/winner", EventResult.class))
+                .willReturn(winner);
+        settlementJobService.startSettlement(eventId);
+        jdbcTemplate.update("UPDATE event_outcomes SET settled_at = now() - interval '30 days' WHERE event_id = ?", eventId);
+
+        // When
+        List<String> detached = maintenance.detachSettledPartitions();
+
+        // Then: the rows left the live table but are kept in the detached one
+        try {
+            String partition = "bets_p" + rangeStart(eventId);
+            assertThat(detached).anySatisfy(name -> assertThat(name).startsWith(partition + "_detached_"));
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM bets WHERE event_id = ?", Long.class, eventId)).isZero();
+            String table = detached.stream().filter(name -> name.startsWith(partition + "_detached_")).findFirst().orElseThrow();
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE event_id = ?", Long.class, eventId))
+                    .isEqualTo(1L);
+        } finally {
+            detached.forEach(table -> jdbcTemplate.execute("DROP TABLE " + table));
+        }
+    }
+
+    private BetResponse placeBet(Long eventId) {
+        User user = userRepository.findAll().get(0);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+        return bettingService.placeBet(new PlaceBetRequest(user.getId(), eventId, driverId, 1L));
+    }
+
+    private String partitionOf(Long betId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM bets WHERE id = ?", String.class, betId);
+    }
+
+    private static long rangeStart(Long eventId) {
+        return eventId / BetPartitionMaintenance.PARTITION_WIDTH * BetPartitionMaintenance.PARTITION_WIDTH;
+    }
+}
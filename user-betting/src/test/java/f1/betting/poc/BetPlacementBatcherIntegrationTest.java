@@ -0,0 +1,223 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.*;
+import f1.betting.poc.web.BetResponse;
+import f1.betting.poc.web.PlaceBetRequest;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+
+@SpringBootTest(properties = {
+        "betting.placement.batching.enabled=true",
+        "betting.placement.batching.max-wait=50ms"
+})
+@ContextConfiguration(initializers = TestcontainersConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BetPlacementBatcherIntegrationTest {
+
+    @Autowired
+    BettingService bettingService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    BetPoolRepository betPoolRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    HistoricalEventRepository historicalEventRepository;
+    @Autowired
+    LivePoolOdds livePoolOdds;
+    @Autowired
+    EventStatusRegistry eventStatusRegistry;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    ApplicationEventPublisher events;
+
+    @MockitoBean
+    RestTemplate restTemplate;
+
+    Faker faker = new Faker();
+
+    @Test
+    void concurrentPlacementsShouldShareCommitsAndEachGetTheirOwnBet() throws Exception {
+        // Given
+        int bettors = 20;
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < bettors; i++) {
+            users.add(newUser(100));
+        }
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        stubEvent(eventId, driverId);
+
+        // When
+        List<BetResponse> responses = placeConcurrently(users.stream()
+                .map(user -> new PlaceBetRequest(user.getId(), eventId, driverId, 10L))
+                .toList());
+
+        // Then: every caller got its own bet
+        assertThat(responses).extracting(BetResponse::betId).doesNotHaveDuplicates().hasSize(bettors);
+        assertThat(users).allSatisfy(user ->
+                assertThat(userRepository.findById(user.getId()).orElseThrow().getBalanceEur()).isEqualTo(90));
+        assertThat(betPoolRepository.findByEventIdOrderByDriverId(eventId))
+                .singleElement()
+                .satisfies(pool -> {
+                    assertThat(pool.getStakeEur()).isEqualTo(10L * bettors);
+                    assertThat(pool.getBetCount()).isEqualTo(bettors);
+                });
+
+        // and the bets were written by fewer transactions than there were bets
+        Integer transactions = jdbcTemplate.queryForObject(
+                "SELECT count(DISTINCT xmin::text) FROM bets WHERE event_id = ?", Integer.class, eventId);
+        assertThat(transactions).isLessThan(bettors);
+    }
+
+    @Test
+    void insufficientBalanceShouldOnlyFailItsOwnBet() throws Exception {
+        // Given
+        User poor = newUser(5);
+        User rich = newUser(100);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        stubEvent(eventId, driverId);
+
+        // When
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            CompletableFuture<BetResponse> poorBet = CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return bettingService.placeBet(new PlaceBetRequest(poor.getId(), eventId, driverId, 10L));
+            }, pool);
+            CompletableFuture<BetResponse> richBet = CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return bettingService.placeBet(new PlaceBetRequest(rich.getId(), eventId, driverId, 10L));
+            }, pool);
+            start.countDown();
+
+            // Then
+            assertThat(richBet.get().status()).isEqualTo(BetStatus.PENDING.name());
+            assertThatThrownBy(poorBet::join)
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Insufficient balance");
+        }
+        assertThat(userRepository.findById(poor.getId()).orElseThrow().getBalanceEur()).isEqualTo(5);
+        assertThat(userRepository.findById(rich.getId()).orElseThrow().getBalanceEur()).isEqualTo(90);
+    }
+
+    @Test
+    void stoppedBatcherShouldTurnPlacementsAway() {
+        // Given: a batcher of its own, so the shared one keeps running for the other tests
+        User user = newUser(100);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        // Registered up front, as BettingService does before handing a placement over
+        transactionTemplate.executeWithoutResult(status -> {
+            historicalEventRepository.ensureBetsPartition(eventId);
+            historicalEventRepository.insertIfNotExists(eventId, "Race", "X", null, "OPEN");
+        });
+        BetPlacementBatcher batcher = new BetPlacementBatcher(jdbcTemplate, livePoolOdds,
+                eventStatusRegistry, transactionTemplate, events, true, 200, Duration.ofMillis(50), Duration.ofSeconds(5));
+        batcher.startWriter();
+        assertThat(batcher.place(new PlaceBetRequest(user.getId(), eventId, driverId, 10L), ed, driver).status())
+                .isEqualTo(BetStatus.PENDING.name());
+
+        // When
+        batcher.stopWriter();
+
+        // Then
+        assertThatThrownBy(() -> batcher.place(new PlaceBetRequest(user.getId(), eventId, driverId, 10L), ed, driver))
+                .isInstanceOf(AdmissionRejectedException.class)
+                .hasMessageContaining("shutting down");
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getBalanceEur()).isEqualTo(90);
+    }
+
+    @Test
+    void placementOutlivingItsTimeoutShouldBeReportedAsPossiblyPlaced() throws Exception {
+        // Given: a batcher that waits 50ms for company but only lets its callers wait 10ms
+        User user = newUser(100);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        transactionTemplate.executeWithoutResult(status -> {
+            historicalEventRepository.ensureBetsPartition(eventId);
+            historicalEventRepository.insertIfNotExists(eventId, "Race", "X", null, "OPEN");
+        });
+        BetPlacementBatcher batcher = new BetPlacementBatcher(jdbcTemplate, livePoolOdds,
+                eventStatusRegistry, transactionTemplate, events, true, 200, Duration.ofMillis(50), Duration.ofMillis(10));
+        batcher.startWriter();
+        try {
+            // When & Then: the caller gets a retryable error...
+            assertThatThrownBy(() -> batcher.place(new PlaceBetRequest(user.getId(), eventId, driverId, 10L), ed, driver))
+                    .isInstanceOf(PlacementTimeoutException.class);
+        } finally {
+            batcher.stopWriter();
+        }
+        // ...while its batch still commits the bet
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getBalanceEur()).isEqualTo(90);
+    }
+
+    private List<BetResponse> placeConcurrently(List<PlaceBetRequest> requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService pool = Executors.newFixedThreadPool(requests.size())) {
+            List<CompletableFuture<BetResponse>> futures = requests.stream()
+                    .map(request -> CompletableFuture.supplyAsync(() -> {
+                        await(start);
+                        return bettingService.placeBet(request);
+                    }, pool))
+                    .toList();
+            start.countDown();
+            List<BetResponse> responses = new ArrayList<>();
+            for (CompletableFuture<BetResponse> future : futures) {
+                responses.add(future.get());
+            }
+            return responses;
+        }
+    }
+
+    private User newUser(long balance) {
+        User user = new User();
+        user.setUsername("user-" + faker.number().digits(9));
+        user.setBalanceEur(balance);
+        return userRepository.save(user);
+    }
+
+    private void stubEvent(Long eventId, Long driverId) {
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package f1.betting.poc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import f1.betting.poc.domain.*;
+import f1.betting.poc.web.BetResponse;
+import f1.betting.poc.web.PlaceBetRequest;
 import net.datafaker.Faker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,13 +15,20 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.atMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -36,6 +45,9 @@ class BettingControllerIntegrationTest {
     @Autowired HistoricalEventRepository historicalEventRepository;
     @Autowired EventOutcomeRepository eventOutcomeRepository;
     @Autowired ObjectMapper objectMapper; // configured to SNAKE_CASE in AppConfig
+    @Autowired BettingService bettingService;
+    @Autowired BetIdempotencyKeyRepository betIdempotencyKeyRepository;
+    @Autowired TransactionTemplate transactionTemplate;
 
     @MockitoBean RestTemplate restTemplate; // mock external event-service
 
@@ -134,8 +146,19 @@ class BettingControllerIntegrationTest {
                 .willReturn(winner);
 
         // When
-        mockMvc.perform(post("/api/events/" + eventId + "/settle"))
-                .andExpect(status().isOk());
+        var settleResult = mockMvc.perform(post("/api/events/" + eventId + "/settle"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.event_id").value(eventId))
+                .andExpect(jsonPath("$.job_id").isNumber())
+                .andReturn();
+        long jobId = objectMapper.readTree(settleResult.getResponse().getContentAsString()).get("job_id").asLong();
+
+        // Job ran to completion (synchronously in tests) and reports its progress
+        mockMvc.perform(get("/api/settlement-jobs/" + jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.total_bets").value(2))
+                .andExpect(jsonPath("$.processed_bets").value(2));
 
         // Then
         List<Bet> bets = betRepository.findByEventId(eventId);
@@ -199,7 +222,7 @@ class BettingControllerIntegrationTest {
 
         // Act: Settle the event
         mockMvc.perform(post("/api/events/" + eventId + "/settle"))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
 
         // Then: Verify proportional distribution
         List<Bet> bets = betRepository.findByEventId(eventId);
@@ -261,6 +284,153 @@ class BettingControllerIntegrationTest {
         assertThat(after).isEqualTo(starting);
     }
 
+    @Test
+    @DisplayName("Should page through a user's bet history newest first")
+    void getUserBetsShouldPageWithCursor() throws Exception {
+        // Given: a fresh user with three bets
+        User user = userRepository.save(newUser());
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class))
+                .willReturn(ed);
+
+        placeBetApi(user.getId(), eventId, driverId, 1L);
+        placeBetApi(user.getId(), eventId, driverId, 2L);
+        placeBetApi(user.getId(), eventId, driverId, 3L);
+
+        // When: first page
+        var firstPage = mockMvc.perform(get("/api/users/" + user.getId() + "/bets").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].amount_eur").value(3))
+                .andExpect(jsonPath("$.items[1].amount_eur").value(2))
+                .andExpect(jsonPath("$.next_cursor").isString())
+                .andReturn();
+        String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("next_cursor").asText();
+
+        // Then: second page continues after the cursor and is the last one
+        mockMvc.perform(get("/api/users/" + user.getId() + "/bets").param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].amount_eur").value(1))
+                .andExpect(jsonPath("$.items[0].status").value(BetStatus.PENDING.name()))
+                .andExpect(jsonPath("$.next_cursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return the original bet when a placement is retried with the same Idempotency-Key")
+    // NOT_SUPPORTED lets each request commit, as a real client retry would
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void createBetRetryShouldNotDebitTwice() throws Exception {
+        // Given
+        User user = userRepository.save(newUser());
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class))
+                .willReturn(ed);
+
+        var payload = new java.util.LinkedHashMap<String,Object>();
+        payload.put("user_id", user.getId());
+        payload.put("event_id", eventId);
+        payload.put("driver_id", driverId);
+        payload.put("amount_eur", 30L);
+        String json = objectMapper.writeValueAsString(payload);
+        String key = java.util.UUID.randomUUID().toString();
+
+        // When: the same request is sent twice
+        var first = mockMvc.perform(post("/api/bets").header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andReturn();
+        var retry = mockMvc.perform(post("/api/bets").header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then: one bet, one debit
+        long firstId = objectMapper.readTree(first.getResponse().getContentAsString()).get("bet_id").asLong();
+        long retryId = objectMapper.readTree(retry.getResponse().getContentAsString()).get("bet_id").asLong();
+        assertThat(retryId).isEqualTo(firstId);
+        assertThat(betRepository.findByEventId(eventId)).hasSize(1);
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getBalanceEur()).isEqualTo(70L);
+
+        // A different bet under the same key is rejected
+        payload.put("amount_eur", 5L);
+        mockMvc.perform(post("/api/bets").header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return the original bet to a retry on another node after the event was locked")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void retryOnAnotherNodeShouldGetTheOriginalBetAfterTheEventLocked() {
+        // Given: a keyed bet, then the event locked
+        User user = userRepository.save(newUser());
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class))
+                .willReturn(ed);
+        PlaceBetRequest request = new PlaceBetRequest(user.getId(), eventId, driverId, 30L);
+        String key = java.util.UUID.randomUUID().toString();
+        BetResponse original = bettingService.placeBet(request, key);
+        bettingService.lockEventForSettlement(eventId);
+
+        // When: the retry reaches a node whose cache and filter have never seen the key
+        BetIdempotency otherNode = new BetIdempotency(bettingService, betIdempotencyKeyRepository, betRepository,
+                transactionTemplate, 100, 1000, java.time.Duration.ofHours(24));
+        BetResponse retry = otherNode.placeBet(request, key);
+
+        // Then: the original bet, not a rejection for the locked event, and one debit
+        assertThat(retry.betId()).isEqualTo(original.betId());
+        assertThat(retry.status()).isEqualTo(BetStatus.PENDING.name());
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getBalanceEur()).isEqualTo(70L);
+    }
+
+    @Test
+    @DisplayName("Should answer a flood from one user with 429 before calling event-service")
+    void floodFromOneUserShouldBeRejectedWith429() throws Exception {
+        // Given: a user id nobody else uses, so its bucket starts full
+        long userId = Long.MAX_VALUE - faker.number().numberBetween(1, 1_000_000);
+        var payload = new java.util.LinkedHashMap<String,Object>();
+        payload.put("user_id", userId);
+        payload.put("event_id", 1L);
+        payload.put("driver_id", 1L);
+        payload.put("amount_eur", 1L);
+        String json = objectMapper.writeValueAsString(payload);
+
+        // When
+        int admitted = 0;
+        int rejected = 0;
+        for (int i = 0; i < 40; i++) {
+            var response = mockMvc.perform(post("/api/bets").contentType(MediaType.APPLICATION_JSON).content(json))
+                    .andReturn().getResponse();
+            if (response.getStatus() == 429) {
+                assertThat(response.getHeader("Retry-After")).isNotBlank();
+                rejected++;
+            } else {
+                admitted++;
+            }
+        }
+
+        // Then: rejected requests never reached event-service
+        assertThat(rejected).isPositive();
+        then(restTemplate).should(atMost(admitted)).getForObject(anyString(), eq(EventDetails.class));
+    }
+
+    @Test
+    @DisplayName("Should return 404 for unknown settlement job")
+    void getSettlementJobShouldReturn404WhenMissing() throws Exception {
+        mockMvc.perform(get("/api/settlement-jobs/" + Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
     private void placeBetApi(Long userId, Long eventId, Long driverId, Long amount) throws Exception {
         var payload = new java.util.LinkedHashMap<String,Object>();
         payload.put("user_id", userId);
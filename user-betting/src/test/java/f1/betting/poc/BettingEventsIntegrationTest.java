@@ -0,0 +1,120 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.*;
+import f1.betting.poc.web.BetResponse;
+import f1.betting.poc.web.PlaceBetRequest;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * BetPlaced, EventLocked and EventSettled go through the event publication registry: each is written to
+ * event_publication by the transaction that publishes it, and completed once {@link BettingEventsListener} has
+ * handled it after the commit. Completed rows are kept here (completion-mode=update) so they can be checked.
+ */
+@SpringBootTest(properties = "spring.modulith.events.completion-mode=update")
+@ContextConfiguration(initializers = TestcontainersConfiguration.class)
+// NOT_SUPPORTED: the listeners only run once the publishing transactions have really committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BettingEventsIntegrationTest {
+
+    @Autowired
+    BettingService bettingService;
+    @Autowired
+    SettlementJobService settlementJobService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    RestTemplate restTemplate;
+
+    Faker faker = new Faker();
+
+    @Test
+    void eventsShouldBeRecordedInTheirTransactionAndCompletedAfterIt() throws InterruptedException {
+        // Given
+        User user = userRepository.findAll().get(0);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId + "/winner", EventResult.class))
+                .willReturn(EventResult.builder().sessionKey(eventId).finished(true).winnerDriverNumber(driverId).build());
+
+        // When: each change is made in a transaction that also sees its own publication before committing
+        Long betId = transactionTemplate.execute(status -> {
+            BetResponse bet = bettingService.placeBet(new PlaceBetRequest(user.getId(), eventId, driverId, 1L));
+            assertThat(publications(BetPlaced.class, "\"betId\":" + bet.betId(), false)).isEqualTo(1);
+            return bet.betId();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            bettingService.lockEventForSettlement(eventId);
+            assertThat(publications(EventLocked.class, "\"eventId\":" + eventId, false)).isEqualTo(1);
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            settlementJobService.startSettlement(eventId);
+            assertThat(publications(EventSettled.class, "\"eventId\":" + eventId, false)).isEqualTo(1);
+        });
+
+        // Then: after the commits the listener completes each of them
+        assertThat(eventually(() -> publications(BetPlaced.class, "\"betId\":" + betId, true) == 1)).isTrue();
+        assertThat(eventually(() -> publications(EventLocked.class, "\"eventId\":" + eventId, true) == 1)).isTrue();
+        assertThat(eventually(() -> publications(EventSettled.class, "\"eventId\":" + eventId, true) == 1)).isTrue();
+    }
+
+    @Test
+    void rolledBackPlacementShouldLeaveNoPublication() {
+        // Given
+        User user = userRepository.findAll().get(0);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+
+        // When
+        Long betId = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return bettingService.placeBet(new PlaceBetRequest(user.getId(), eventId, driverId, 1L)).betId();
+        });
+
+        // Then
+        assertThat(publications(BetPlaced.class, "\"betId\":" + betId, false)).isZero();
+    }
+
+    // content is a "field":value pair of the serialized event
+    private int publications(Class<?> type, String content, boolean completed) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM event_publication WHERE event_type = ? AND serialized_event ~ ? " +
+                        "AND (completion_date IS NOT NULL) = ?",
+                Integer.class, type.getName(), content + "[,}]", completed);
+        return count == null ? 0 : count;
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) return false;
+            Thread.sleep(50);
+        }
+        return true;
+    }
+}
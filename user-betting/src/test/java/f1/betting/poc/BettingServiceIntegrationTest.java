@@ -2,6 +2,7 @@ package f1.betting.poc;
 
 import f1.betting.poc.domain.*;
 import f1.betting.poc.web.BetResponse;
+import f1.betting.poc.web.EventPoolResponse;
 import f1.betting.poc.web.PlaceBetRequest;
 import net.datafaker.Faker;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +38,8 @@ class BettingServiceIntegrationTest {
     HistoricalEventRepository historicalEventRepository;
     @Autowired
     EventOutcomeRepository eventOutcomeRepository;
+    @Autowired
+    SettlementJobService settlementJobService;
 
     @MockitoBean
     RestTemplate restTemplate; // mock external calls to event-service
@@ -138,8 +141,7 @@ class BettingServiceIntegrationTest {
                 .willReturn(winner);
 
         // When
-        bettingService.lockEventForSettlement(eventId);
-        bettingService.processEventSettlement(eventId);
+        settlementJobService.startSettlement(eventId);
 
         // Then
         Bet bet1 = betRepository.findById(b1.betId()).orElseThrow();
@@ -163,6 +165,36 @@ class BettingServiceIntegrationTest {
         assertThat(historicalEventRepository.findById(eventId).orElseThrow().getStatus()).isEqualTo(EventStatus.SETTLED);
     }
 
+    @Test
+    void placeBetShouldAccumulateEventPool() {
+        // Arrange
+        List<User> users = userRepository.findAll();
+        User u1 = users.get(0);
+        User u2 = users.get(1);
+
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverA = (long) faker.number().numberBetween(1, 50);
+        Long driverB = driverA + 1;
+
+        Driver a = Driver.builder().driverNumber(driverA).fullName(faker.name().fullName()).teamName("T1").odds(3).build();
+        Driver b = Driver.builder().driverNumber(driverB).fullName(faker.name().fullName()).teamName("T2").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").drivers(List.of(a, b)).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+
+        // When
+        bettingService.placeBet(new PlaceBetRequest(u1.getId(), eventId, driverA, 10L));
+        bettingService.placeBet(new PlaceBetRequest(u2.getId(), eventId, driverA, 4L));
+        bettingService.placeBet(new PlaceBetRequest(u2.getId(), eventId, driverB, 6L));
+
+        // Then
+        EventPoolResponse pool = bettingService.getEventPool(eventId);
+        assertThat(pool.totalPoolEur()).isEqualTo(20L);
+        assertThat(pool.betCount()).isEqualTo(3L);
+        assertThat(pool.drivers()).containsExactly(
+                new EventPoolResponse.DriverPool(driverA, 14L, 2L),
+                new EventPoolResponse.DriverPool(driverB, 6L, 1L));
+    }
+
     @Test
     void placeBetOnLockedEventShouldFail() {
         // Arrange
@@ -361,9 +393,8 @@ class BettingServiceIntegrationTest {
         given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId + "/winner", EventResult.class))
                 .willReturn(winner);
 
-        // Act: lock then settle
-        bettingService.lockEventForSettlement(eventId);
-        bettingService.processEventSettlement(eventId);
+        // Act: lock and settle, in this thread with betting.settlement.async=false
+        settlementJobService.startSettlement(eventId);
 
         // Assert: still no bets, but outcome persisted and event settled
         assertThat(betRepository.findByEventId(eventId)).isEmpty();
@@ -397,8 +428,8 @@ class BettingServiceIntegrationTest {
     }
 
     @Test
-    void processEventSettlementShouldFailWhenEventNotLocked() {
-        // Arrange: create an OPEN historical event (not locked)
+    void startSettlementShouldFailWhenEventAlreadySettled() {
+        // Arrange: an OPEN historical event, settled once
         Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
         Long winningDriverId = (long) faker.number().numberBetween(1, 99);
 
@@ -417,15 +448,16 @@ class BettingServiceIntegrationTest {
                 .build();
         given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId + "/winner", EventResult.class))
                 .willReturn(winner);
+        settlementJobService.startSettlement(eventId);
 
-        // When & Then: should fail because event is not locked
-        assertThatThrownBy(() -> bettingService.processEventSettlement(eventId))
+        // When & Then: a second settlement is rejected
+        assertThatThrownBy(() -> settlementJobService.startSettlement(eventId))
                 .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("must be locked");
+                .hasMessageContaining("already locked or settled");
 
-        // Event should remain OPEN
+        // Event stays SETTLED
         assertThat(historicalEventRepository.findById(eventId).orElseThrow().getStatus())
-                .isEqualTo(EventStatus.OPEN);
+                .isEqualTo(EventStatus.SETTLED);
     }
 
     private User newUser() {
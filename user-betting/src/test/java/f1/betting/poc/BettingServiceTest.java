@@ -3,22 +3,23 @@ package f1.betting.poc;
 import f1.betting.poc.domain.*;
 import f1.betting.poc.web.BetResponse;
 import f1.betting.poc.web.PlaceBetRequest;
-import net.datafaker.Faker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,8 +27,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -40,13 +40,38 @@ class BettingServiceTest {
     @Mock
     private BetRepository betRepository;
     @Mock
-    private EventOutcomeRepository eventOutcomeRepository;
+    private BetPoolRepository betPoolRepository;
+    @Mock
+    private LivePoolOdds livePoolOdds;
+    @Mock
+    private BetPlacementBatcher betPlacementBatcher;
+    @Mock
+    private EventStatusRegistry eventStatusRegistry;
+    @Mock
+    private BetIdempotencyKeyRepository betIdempotencyKeyRepository;
     @Mock
     private RestTemplate restTemplate;
+    @Spy
+    private SyncTaskExecutor quoteExecutor = new SyncTaskExecutor();
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private BettingMetrics bettingMetrics = new BettingMetrics(meterRegistry);
+    @Spy
+    private ObservationRegistry observationRegistry = ObservationRegistry.create();
+    @Mock
+    private ApplicationEventPublisher events;
 
     @InjectMocks
     private BettingService service;
 
+    @BeforeEach
+    void runTransactionCallbacksInline() {
+        given(transactionTemplate.execute(any()))
+                .willAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     @Test
     void placeBetShouldReturnResponse() {
         // Arrange input
@@ -80,6 +105,7 @@ class BettingServiceTest {
         he.setCountry("UK");
         he.setStatus(EventStatus.OPEN);
         given(historicalEventRepository.findById(eventId)).willReturn(Optional.of(he));
+        given(historicalEventRepository.findByIdForShare(eventId)).willReturn(Optional.of(he));
 
         // user and debit succeeds
         User user = new User();
@@ -108,132 +134,195 @@ class BettingServiceTest {
         assertThat(out.amountEur()).isEqualTo(amount);
         assertThat(out.odds()).isEqualTo(driver.getOdds());
         assertThat(out.status()).isEqualTo(BetStatus.PENDING.name());
+        then(betPoolRepository).should().addStake(eventId, driverId, amount);
+        then(livePoolOdds).should().recordStake(eventId, driverId, amount);
+        then(events).should().publishEvent(new BetPlaced(777L, userId, eventId, driverId, amount, driver.getOdds()));
+        assertThat(meterRegistry.get("betting.placement").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("betting.placement.phase").tag("phase", "debit").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("betting.event-service.requests").tag("operation", "event").tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
     }
 
     @Test
-    void placeBetShouldRejectInvalidAmount() {
-        // Arrange minimal event/driver so service reaches amount validation
-        Long eventId = 2L;
-        Long driverId = 3L;
-        PlaceBetRequest bad = new PlaceBetRequest(1L, eventId, driverId, 0L);
+    void placeBetShouldTagFailedPlacementAndPhaseWithOutcome() {
+        // Given
+        Long userId = 10L;
+        Long eventId = 200L;
+        Long driverId = 44L;
+        Driver driver = Driver.builder().driverNumber(driverId).fullName("Lewis Hamilton").teamName("Mercedes").odds(3).build();
+        EventDetails event = EventDetails.builder().sessionKey(eventId).sessionName("British GP").countryName("UK").driver(driver).build();
+        given(restTemplate.getForObject(anyString(), eq(EventDetails.class))).willReturn(event);
+        HistoricalEvent he = new HistoricalEvent();
+        he.setEventId(eventId);
+        he.setStatus(EventStatus.OPEN);
+        given(historicalEventRepository.findById(eventId)).willReturn(Optional.of(he));
+        given(historicalEventRepository.findByIdForShare(eventId)).willReturn(Optional.of(he));
+        User user = new User();
+        user.setId(userId);
+        given(userRepository.findById(userId)).willReturn(Optional.of(user));
+        given(userRepository.debitUser(userId, 25L)).willReturn(0);
 
-        Driver driver = Driver.builder()
-                .driverNumber(driverId)
-                .fullName("Test Driver")
-                .teamName("Test Team")
-                .odds(2)
-                .build();
-        EventDetails event = EventDetails.builder()
-                .sessionKey(eventId)
-                .sessionName("Any")
-                .countryName("Any")
-                .driver(driver)
-                .build();
-        given(restTemplate.getForObject(anyString(), eq(EventDetails.class)))
-                .willReturn(event);
+        // When
+        assertThatThrownBy(() -> service.placeBet(new PlaceBetRequest(userId, eventId, driverId, 25L)))
+                .hasMessageContaining("Insufficient balance");
+
+        // Then
+        assertThat(meterRegistry.get("betting.placement").tag("outcome", "insufficient_balance").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("betting.placement.phase").tag("phase", "debit").tag("outcome", "insufficient_balance")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("betting.placement.phase").tag("phase", "insert").timer()).isNull();
+    }
+
+    @Test
+    void placeBetShouldStopBeforeDebitingWhenIdempotencyKeyTaken() {
+        // Given
+        Long userId = 10L;
+        Long eventId = 200L;
+        Long driverId = 44L;
+        Driver driver = Driver.builder().driverNumber(driverId).fullName("Lewis Hamilton").teamName("Mercedes").odds(3).build();
+        EventDetails event = EventDetails.builder().sessionKey(eventId).sessionName("British GP").countryName("UK").driver(driver).build();
+        given(restTemplate.getForObject(anyString(), eq(EventDetails.class))).willReturn(event);
+
+        HistoricalEvent he = new HistoricalEvent();
+        he.setEventId(eventId);
+        he.setStatus(EventStatus.OPEN);
+        given(historicalEventRepository.findById(eventId)).willReturn(Optional.of(he));
+
+        User user = new User();
+        user.setId(userId);
+        given(userRepository.findById(userId)).willReturn(Optional.of(user));
+        given(betIdempotencyKeyRepository.claim(userId, "retry-1")).willReturn(0);
+
+        // When & Then
+        assertThatThrownBy(() -> service.placeBet(new PlaceBetRequest(userId, eventId, driverId, 25L), "retry-1"))
+                .isInstanceOf(DuplicateIdempotencyKeyException.class);
+        // The key is claimed first: neither balance nor pool is touched
+        then(userRepository).should(never()).debitUser(any(), any());
+        then(betPoolRepository).should(never()).addStake(any(), any(), any());
+        then(betRepository).should(never()).save(any(Bet.class));
+        then(events).should(never()).publishEvent(any(BetPlaced.class));
+    }
+
+    @Test
+    void placeBetShouldRejectInvalidAmount() {
+        PlaceBetRequest bad = new PlaceBetRequest(1L, 2L, 3L, 0L);
 
         // When & Then
         assertThatThrownBy(() -> service.placeBet(bad))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("positive");
+        // Rejected before the quote is requested
+        then(restTemplate).shouldHaveNoInteractions();
     }
 
     @Test
-    @DisplayName("Settle event should handle two-step process: locking and settlement")
-    void settleEventShouldUpdateBetsAndOutcome() {
-        // Arrange using Faker for realistic random but bounded values
-        Faker faker = new Faker();
-        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
-        Long winningDriverId = (long) faker.number().numberBetween(1, 99);
-
-        // Event is LOCKED initially (pre-locked for processEventSettlement)
+    void placeBetShouldRejectUnknownUserBeforeWriting() {
+        // Given
+        Long eventId = 2L;
+        Long driverId = 3L;
+        Driver driver = Driver.builder().driverNumber(driverId).fullName("Test Driver").teamName("Test Team").odds(2).build();
+        EventDetails event = EventDetails.builder().sessionKey(eventId).sessionName("Any").countryName("Any").driver(driver).build();
+        given(restTemplate.getForObject(anyString(), eq(EventDetails.class))).willReturn(event);
+        given(userRepository.findById(1L)).willReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> service.placeBet(new PlaceBetRequest(1L, eventId, driverId, 5L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("User not found");
+        then(historicalEventRepository).should(never()).insertIfNotExists(any(), any(), any(), any(), any());
+        then(userRepository).should(never()).debitUser(any(), any());
+        then(betRepository).should(never()).save(any());
+    }
+
+    @Test
+    void placeBetShouldRejectClosedEventBeforeWriting() {
+        // Given
+        Long eventId = 2L;
+        Long driverId = 3L;
+        Driver driver = Driver.builder().driverNumber(driverId).fullName("Test Driver").teamName("Test Team").odds(2).build();
+        EventDetails event = EventDetails.builder().sessionKey(eventId).sessionName("Any").countryName("Any").driver(driver).build();
+        given(restTemplate.getForObject(anyString(), eq(EventDetails.class))).willReturn(event);
+        given(userRepository.findById(1L)).willReturn(Optional.of(new User()));
         HistoricalEvent he = new HistoricalEvent();
         he.setEventId(eventId);
         he.setStatus(EventStatus.LOCKED);
         given(historicalEventRepository.findById(eventId)).willReturn(Optional.of(he));
 
-        // Users
-        User u1 = new User();
-        u1.setId(1L);
-        u1.setUsername("alice");
-        u1.setBalanceEur(100L);
-
-        User u2 = new User();
-        u2.setId(2L);
-        u2.setUsername("bob");
-        u2.setBalanceEur(200L);
-
-        // Bets: one winner, one loser
-        Bet b1 = new Bet();
-        b1.setUser(u1);
-        b1.setEventId(eventId);
-        b1.setDriverId(winningDriverId);
-        b1.setAmountEur(10L);
-        b1.setOdds(3);
-        b1.setStatus(BetStatus.PENDING);
-
-        Bet b2 = new Bet();
-        b2.setUser(u2);
-        b2.setEventId(eventId);
-        b2.setDriverId(winningDriverId + 1); // ensure different
-        b2.setAmountEur(5L);
-        b2.setOdds(2);
-        b2.setStatus(BetStatus.PENDING);
-
-        // Simulate pagination: first page has both bets, then no more pages
-        given(betRepository.findByEventId(eq(eventId), any(Pageable.class)))
-                .willReturn(new PageImpl<>(List.of(b1, b2), Pageable.ofSize(100), 2)) // First batch
-                .willReturn(new PageImpl<>(List.of(), Pageable.ofSize(100), 0)); // Empty page
-
-        // Winner fetched from event-service
-        EventResult winner = EventResult.builder().sessionKey(eventId).finished(true).winnerDriverNumber(winningDriverId).build();
-        given(restTemplate.getForObject(anyString(), eq(EventResult.class)))
-                .willReturn(winner);
-
-        // Echo saves for multiple calls
-        given(betRepository.saveAll(anyList())).willAnswer(inv -> inv.getArgument(0));
-        given(eventOutcomeRepository.save(any(EventOutcome.class))).willAnswer(inv -> inv.getArgument(0));
-        given(historicalEventRepository.save(any(HistoricalEvent.class))).willAnswer(inv -> inv.getArgument(0));
+        // When & Then
+        assertThatThrownBy(() -> service.placeBet(new PlaceBetRequest(1L, eventId, driverId, 5L)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not open");
+        then(userRepository).should(never()).debitUser(any(), any());
+    }
+
+    @Test
+    void placeBetShouldRejectEventKnownClosedWithoutAnyLookup() {
+        // Given
+        given(eventStatusRegistry.isClosed(2L)).willReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> service.placeBet(new PlaceBetRequest(1L, 2L, 3L, 5L)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not open");
+        then(restTemplate).shouldHaveNoInteractions();
+        then(userRepository).shouldHaveNoInteractions();
+        then(historicalEventRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void placeBetShouldSkipEventUpsertWhenEventKnownOpen() {
+        // Given
+        Long eventId = 2L;
+        Long driverId = 3L;
+        Driver driver = Driver.builder().driverNumber(driverId).fullName("Test Driver").teamName("Test Team").odds(2).build();
+        EventDetails event = EventDetails.builder().sessionKey(eventId).sessionName("Any").countryName("Any").driver(driver).build();
+        given(restTemplate.getForObject(anyString(), eq(EventDetails.class))).willReturn(event);
+        given(eventStatusRegistry.isKnown(eventId)).willReturn(true);
+        given(userRepository.findById(1L)).willReturn(Optional.of(new User()));
+        given(historicalEventRepository.findByIdForShare(eventId)).willReturn(Optional.of(openEvent(eventId)));
+        given(userRepository.debitUser(1L, 5L)).willReturn(1);
+        given(betRepository.save(any(Bet.class))).willAnswer(inv -> {
+            Bet b = inv.getArgument(0);
+            b.setId(779L);
+            return b;
+        });
 
         // When
-        service.processEventSettlement(eventId);
+        BetResponse out = service.placeBet(new PlaceBetRequest(1L, eventId, driverId, 5L));
 
         // Then
-        assertThat(b1.getStatus()).isEqualTo(BetStatus.WON);
-        assertThat(b2.getStatus()).isEqualTo(BetStatus.LOST);
-        // With proportional distribution: total pool = 10 + 5 = 15, winner gets full pool since only one winner
-        assertThat(u1.getBalanceEur()).isEqualTo(100L + 15L);
-        assertThat(u2.getBalanceEur()).isEqualTo(200L);
-
-        // Event outcome saved with correct values
-        ArgumentCaptor<EventOutcome> outcomeCaptor = ArgumentCaptor.forClass(EventOutcome.class);
-        verify(eventOutcomeRepository).save(outcomeCaptor.capture());
-        EventOutcome savedOutcome = outcomeCaptor.getValue();
-        assertThat(savedOutcome.getEventId()).isEqualTo(eventId);
-        assertThat(savedOutcome.getWinningDriverId()).isEqualTo(winningDriverId);
-        assertThat(savedOutcome.getSettledAt()).isNotNull();
-
-        // Event status transitions to SETTLED and save invoked once
-        assertThat(he.getStatus()).isEqualTo(EventStatus.SETTLED);
-		then(historicalEventRepository).should(times(1)).save(he);
-        // Bets persisted: saveAll called twice - once for losing bets batch, once for winning bets
-		then(betRepository).should(times(2)).saveAll(anyList());
+        assertThat(out.betId()).isEqualTo(779L);
+        then(historicalEventRepository).should(never()).insertIfNotExists(any(), any(), any(), any(), any());
     }
 
-    
-    
     @Test
-    void settleEventShouldFailWhenEventNotLocked() {
-        // Given
-        Long eventId = 456L;
-        HistoricalEvent he = new HistoricalEvent();
-        he.setEventId(eventId);
-        he.setStatus(EventStatus.OPEN); // Not locked
-        given(historicalEventRepository.findById(eventId)).willReturn(Optional.of(he));
+    void placeBetShouldRejectEventLockedElsewhereWhileKnownOpen() {
+        // Given: this node still has the event as open, but another node locked it
+        Long eventId = 2L;
+        Long driverId = 3L;
+        Driver driver = Driver.builder().driverNumber(driverId).fullName("Test Driver").teamName("Test Team").odds(2).build();
+        EventDetails event = EventDetails.builder().sessionKey(eventId).sessionName("Any").countryName("Any").driver(driver).build();
+        given(restTemplate.getForObject(anyString(), eq(EventDetails.class))).willReturn(event);
+        given(eventStatusRegistry.isKnown(eventId)).willReturn(true);
+        given(userRepository.findById(1L)).willReturn(Optional.of(new User()));
+        HistoricalEvent he = openEvent(eventId);
+        he.setStatus(EventStatus.LOCKED);
+        given(historicalEventRepository.findByIdForShare(eventId)).willReturn(Optional.of(he));
 
         // When & Then
-        assertThatThrownBy(() -> service.processEventSettlement(eventId))
+        assertThatThrownBy(() -> service.placeBet(new PlaceBetRequest(1L, eventId, driverId, 5L)))
                 .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("must be locked");
+                .hasMessageContaining("not open");
+        then(eventStatusRegistry).should().record(eventId, EventStatus.LOCKED);
+        then(userRepository).should(never()).debitUser(any(), any());
+    }
+
+    private static HistoricalEvent openEvent(Long eventId) {
+        HistoricalEvent he = new HistoricalEvent();
+        he.setEventId(eventId);
+        he.setStatus(EventStatus.OPEN);
+        return he;
     }
 }
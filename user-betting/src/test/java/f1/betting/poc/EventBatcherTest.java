@@ -0,0 +1,63 @@
+package f1.betting.poc;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventBatcherTest {
+
+    @Test
+    void concurrentEventsShouldBeHandledInOneBatch() throws Exception {
+        // Given: a batcher that waits long enough for all callers to arrive
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        try (EventBatcher<Integer> batcher = new EventBatcher<>("test-dispatcher", batches::add, 100, Duration.ofMillis(500));
+             ExecutorService callers = Executors.newFixedThreadPool(5)) {
+
+            // When
+            List<CompletableFuture<Void>> calls = IntStream.range(0, 5)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> batcher.handle(i), callers))
+                    .toList();
+            for (CompletableFuture<Void> call : calls) {
+                call.get();
+            }
+
+            // Then: every caller returned after its event was handled, all in a single batch
+            assertThat(batches).hasSize(1);
+            assertThat(batches.get(0)).containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+        }
+    }
+
+    @Test
+    void failedBatchShouldFailItsCallers() {
+        // Given
+        try (EventBatcher<Integer> batcher = new EventBatcher<>("test-dispatcher", batch -> {
+            throw new IllegalStateException("read model unavailable");
+        }, 100, Duration.ofMillis(1))) {
+
+            // When & Then: the caller fails, so the publication stays incomplete
+            assertThatThrownBy(() -> batcher.handle(1))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("read model unavailable");
+        }
+    }
+
+    @Test
+    void closedBatcherShouldRejectEvents() {
+        EventBatcher<Integer> batcher = new EventBatcher<>("test-dispatcher", batch -> { }, 100, Duration.ofMillis(1));
+
+        batcher.close();
+
+        assertThatThrownBy(() -> batcher.handle(1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("shutting down");
+    }
+}
@@ -0,0 +1,102 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.*;
+import f1.betting.poc.web.PlaceBetRequest;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+
+@SpringBootTest
+@ContextConfiguration(initializers = TestcontainersConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventStatusRegistryIntegrationTest {
+
+    @Autowired
+    EventStatusRegistry registry;
+    @Autowired
+    BettingService bettingService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    RestTemplate restTemplate;
+
+    Faker faker = new Faker();
+
+    @BeforeEach
+    void waitForListener() throws InterruptedException {
+        assertThat(eventually(registry::isListening)).isTrue();
+    }
+
+    @Test
+    void lockingShouldCloseEventOnCommit() {
+        // Given: a placed bet makes the event known as open
+        User user = userRepository.findAll().get(0);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+        bettingService.placeBet(new PlaceBetRequest(user.getId(), eventId, driverId, 1L));
+        assertThat(registry.isKnown(eventId)).isTrue();
+        assertThat(registry.isClosed(eventId)).isFalse();
+
+        // When
+        bettingService.lockEventForSettlement(eventId);
+
+        // Then
+        assertThat(registry.isClosed(eventId)).isTrue();
+    }
+
+    @Test
+    void notificationFromAnotherNodeShouldRejectBetsWithoutLookups() throws InterruptedException {
+        // Given: another node locks an event this node has never seen
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        jdbcTemplate.query("SELECT pg_notify('event_status', ?)", rs -> {}, eventId + ":LOCKED");
+
+        // When
+        assertThat(eventually(() -> registry.isClosed(eventId))).isTrue();
+
+        // Then
+        assertThatThrownBy(() -> bettingService.placeBet(new PlaceBetRequest(1L, eventId, 1L, 5L)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not open");
+        then(restTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void statusShouldNeverMoveBackwards() {
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+
+        registry.apply(eventId, EventStatus.SETTLED);
+        registry.apply(eventId, EventStatus.OPEN);
+
+        assertThat(registry.isClosed(eventId)).isTrue();
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) return false;
+            Thread.sleep(50);
+        }
+        return true;
+    }
+}
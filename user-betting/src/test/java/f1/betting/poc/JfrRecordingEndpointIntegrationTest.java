@@ -0,0 +1,109 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.*;
+import f1.betting.poc.monitoring.JfrRecordingEndpoint;
+import f1.betting.poc.web.PlaceBetRequest;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ContextConfiguration(initializers = TestcontainersConfiguration.class)
+@Transactional
+class JfrRecordingEndpointIntegrationTest {
+
+    @Autowired
+    JfrRecordingEndpoint jfrRecordingEndpoint;
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    BettingService bettingService;
+    @Autowired
+    UserRepository userRepository;
+
+    @MockitoBean
+    RestTemplate restTemplate;
+
+    Faker faker = new Faker();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void onDemandRecordingShouldContainPlacementEvents() throws Exception {
+        // Given
+        User user = userRepository.findAll().get(0);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long driverId = (long) faker.number().numberBetween(1, 99);
+        Driver driver = Driver.builder().driverNumber(driverId).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+
+        // When
+        assertThat(jfrRecordingEndpoint.control("start", "default", null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        bettingService.placeBet(new PlaceBetRequest(user.getId(), eventId, driverId, 1L));
+        assertThat(jfrRecordingEndpoint.control("stop", null, null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        WebEndpointResponse<Resource> download = jfrRecordingEndpoint.download(JfrRecordingEndpoint.ON_DEMAND);
+
+        // Then
+        assertThat(download.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        Path file = tempDir.resolve("on-demand.jfr");
+        try (InputStream in = download.getBody().getInputStream()) {
+            Files.copy(in, file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("f1.betting.BetPlacement"))
+                .anySatisfy(e -> {
+                    assertThat(e.getLong("eventId")).isEqualTo(eventId);
+                    assertThat(e.getString("outcome")).isEqualTo("success");
+                });
+        assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("f1.betting.EventServiceCall"))
+                .anySatisfy(e -> assertThat(e.getString("operation")).isEqualTo("event"));
+    }
+
+    @Test
+    void unknownActionsAndRecordingsShouldBeRejected() {
+        assertThat(jfrRecordingEndpoint.control("pause", null, null).getStatus())
+                .isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+        assertThat(jfrRecordingEndpoint.control("start", "no-such-settings", null).getStatus())
+                .isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+        assertThat(jfrRecordingEndpoint.download("other").getStatus())
+                .isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @Test
+    void endpointShouldOnlyBeReachableFromLocalhost() throws Exception {
+        // MockMvc requests come from 127.0.0.1 unless told otherwise
+        mockMvc.perform(get("/actuator/jfr")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/jfr/continuous").with(request -> {
+                    request.setRemoteAddr("10.0.0.7");
+                    return request;
+                }))
+                .andExpect(status().is4xxClientError());
+    }
+}
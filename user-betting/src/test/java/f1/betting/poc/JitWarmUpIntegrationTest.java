@@ -0,0 +1,78 @@
+package f1.betting.poc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "betting.jit-warmup.iterations=50")
+@ContextConfiguration(initializers = TestcontainersConfiguration.class)
+class JitWarmUpIntegrationTest {
+
+    @Autowired
+    JitWarmUp jitWarmUp;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    LivePoolOdds livePoolOdds;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @MockitoBean
+    RestTemplate restTemplate; // the warm-up must not call event-service
+
+    @Test
+    void warmUpShouldPlaceBetsWithoutCommittingAnything() {
+        // Given
+        long users = count("SELECT count(*) FROM users");
+        long balances = count("SELECT coalesce(sum(balance_eur), 0) FROM users");
+        long bets = count("SELECT count(*) FROM bets");
+        long placements = placementsTimed();
+        long partitions = count("SELECT count(*) FROM pg_inherits WHERE inhparent = 'bets'::regclass");
+
+        // When
+        jitWarmUp.warmUp();
+
+        // Then: every placement went through and was rolled back
+        assertThat(jitWarmUp.isDone()).isTrue();
+        assertThat(jitWarmUp.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(jitWarmUp.health().getDetails()).containsEntry("iterations", 50);
+        assertThat(count("SELECT count(*) FROM users")).isEqualTo(users);
+        assertThat(count("SELECT coalesce(sum(balance_eur), 0) FROM users")).isEqualTo(balances);
+        assertThat(count("SELECT count(*) FROM bets")).isEqualTo(bets);
+        assertThat(count("SELECT count(*) FROM historical_events WHERE event_id < 0")).isZero();
+        assertThat(count("SELECT count(*) FROM bet_pools WHERE event_id < 0")).isZero();
+        assertThat(livePoolOdds.odds(-1L).totalPoolEur()).isZero();
+        verify(restTemplate, never()).getForObject(anyString(), any());
+        // and none of them was timed as a real placement or needed partition DDL
+        assertThat(placementsTimed()).isEqualTo(placements);
+        assertThat(count("SELECT count(*) FROM pg_inherits WHERE inhparent = 'bets'::regclass")).isEqualTo(partitions);
+    }
+
+    @Test
+    void syntheticEventsShouldShareTheReservedPartition() {
+        // Negative ids would otherwise truncate into bets_p0, whose range does not hold them
+        assertThat(jdbcTemplate.queryForObject("SELECT ensure_bets_partition(-1)", String.class)).isEqualTo("bets_synthetic");
+        assertThat(jdbcTemplate.queryForObject("SELECT ensure_bets_partition(-1001)", String.class)).isEqualTo("bets_synthetic");
+    }
+
+    private long placementsTimed() {
+        return meterRegistry.find("betting.placement").timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
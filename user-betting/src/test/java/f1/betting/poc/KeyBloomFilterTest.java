@@ -0,0 +1,35 @@
+package f1.betting.poc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyBloomFilterTest {
+
+    @Test
+    void addedKeysShouldAlwaysBeReported() {
+        KeyBloomFilter filter = new KeyBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(i % 50, "key-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(i % 50, "key-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateShouldStayNearTarget() {
+        KeyBloomFilter filter = new KeyBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(1L, "key-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            // Same keys under another user are different entries
+            if (filter.mightContain(2L, "key-" + i)) falsePositives++;
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
@@ -0,0 +1,98 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.BetPool;
+import f1.betting.poc.domain.EventStatus;
+import f1.betting.poc.web.PoolOddsResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class LivePoolOddsTest {
+
+    @Mock
+    private BetPoolRepository betPoolRepository;
+
+    @InjectMocks
+    private LivePoolOdds livePoolOdds;
+
+    @Test
+    void oddsShouldReflectRebuiltPoolsAndNewStakes() {
+        // Given: 30 EUR on driver 1 and 10 EUR on driver 44 in the database
+        given(betPoolRepository.findByEventStatusIn(List.of(EventStatus.OPEN, EventStatus.LOCKED)))
+                .willReturn(List.of(pool(7L, 44L, 10L), pool(7L, 1L, 30L)));
+        livePoolOdds.rebuild();
+
+        // When: a new stake is placed outside a transaction
+        livePoolOdds.recordStake(7L, 44L, 10L);
+
+        // Then: pool = 50, driver 1 pays 50/30, driver 44 pays 50/20
+        PoolOddsResponse odds = livePoolOdds.odds(7L);
+        assertThat(odds.totalPoolEur()).isEqualTo(50L);
+        assertThat(odds.drivers()).containsExactly(
+                new PoolOddsResponse.DriverOdds(1L, 30L, 1.67),
+                new PoolOddsResponse.DriverOdds(44L, 20L, 2.5));
+    }
+
+    @Test
+    void evictedEventShouldHaveEmptyPool() {
+        livePoolOdds.recordStake(8L, 1L, 5L);
+
+        livePoolOdds.evict(8L);
+
+        PoolOddsResponse odds = livePoolOdds.odds(8L);
+        assertThat(odds.totalPoolEur()).isZero();
+        assertThat(odds.drivers()).isEmpty();
+    }
+
+    @Test
+    void oddsShouldStayServedWhileRebuilding() {
+        // Given: a pool already loaded
+        livePoolOdds.recordStake(9L, 1L, 5L);
+        given(betPoolRepository.findByEventStatusIn(List.of(EventStatus.OPEN, EventStatus.LOCKED))).willAnswer(invocation -> {
+            // Then: a reader arriving while the pools are read still sees it
+            assertThat(livePoolOdds.odds(9L).totalPoolEur()).isEqualTo(5L);
+            return List.of(pool(9L, 1L, 5L), pool(9L, 2L, 15L));
+        });
+
+        // When
+        livePoolOdds.rebuild();
+
+        // Then
+        assertThat(livePoolOdds.odds(9L).totalPoolEur()).isEqualTo(20L);
+    }
+
+    @Test
+    void refreshShouldPickUpStakesPlacedOnOtherNodes() {
+        // Given: this node counted its own stake
+        livePoolOdds.recordStake(10L, 1L, 5L);
+        // another node has since added 20 EUR on driver 2
+        given(betPoolRepository.findByEventStatusIn(List.of(EventStatus.OPEN, EventStatus.LOCKED)))
+                .willReturn(List.of(pool(10L, 1L, 5L), pool(10L, 2L, 20L)));
+
+        // When
+        livePoolOdds.refresh();
+
+        // Then
+        assertThat(livePoolOdds.odds(10L).totalPoolEur()).isEqualTo(25L);
+        assertThat(livePoolOdds.odds(10L).drivers()).containsExactly(
+                new PoolOddsResponse.DriverOdds(1L, 5L, 5.0),
+                new PoolOddsResponse.DriverOdds(2L, 20L, 1.25));
+    }
+
+    private static BetPool pool(Long eventId, Long driverId, long stake) {
+        BetPool p = new BetPool();
+        p.setEventId(eventId);
+        p.setDriverId(driverId);
+        p.setStakeEur(stake);
+        p.setBetCount(1);
+        return p;
+    }
+}
@@ -0,0 +1,67 @@
+package f1.betting.poc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlacementAdmissionTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void bucketShouldAllowBurstThenRefillAtRate() {
+        long start = 0;
+        TokenBucket bucket = new TokenBucket(10, 3, start);
+
+        assertThat(bucket.tryAcquire(start)).isZero();
+        assertThat(bucket.tryAcquire(start)).isZero();
+        assertThat(bucket.tryAcquire(start)).isZero();
+        // Empty: the next token is 100ms away
+        assertThat(bucket.tryAcquire(start)).isEqualTo(100_000_000L);
+
+        assertThat(bucket.tryAcquire(start + 100_000_000L)).isZero();
+        assertThat(bucket.tryAcquire(start + 100_000_000L)).isPositive();
+    }
+
+    @Test
+    void userOverLimitShouldBeRejectedWithoutAffectingOthers() {
+        PlacementAdmission admission = new PlacementAdmission(meterRegistry, true, 1, 2, 1000, 1000, 100);
+
+        admission.admit(1L);
+        admission.admit(1L);
+        assertThatThrownBy(() -> admission.admit(1L))
+                .isInstanceOf(AdmissionRejectedException.class)
+                .satisfies(ex -> assertThat(((AdmissionRejectedException) ex).getRetryAfter()).isPositive());
+        admission.admit(2L);
+
+        assertThat(count("admitted", "none")).isEqualTo(3);
+        assertThat(count("rejected", "user")).isEqualTo(1);
+    }
+
+    @Test
+    void globalLimitShouldApplyAcrossUsers() {
+        PlacementAdmission admission = new PlacementAdmission(meterRegistry, true, 100, 100, 1, 2, 100);
+
+        admission.admit(1L);
+        admission.admit(2L);
+        assertThatThrownBy(() -> admission.admit(3L)).isInstanceOf(AdmissionRejectedException.class);
+
+        assertThat(count("rejected", "global")).isEqualTo(1);
+    }
+
+    @Test
+    void disabledAdmissionShouldAdmitEverything() {
+        PlacementAdmission admission = new PlacementAdmission(meterRegistry, false, 1, 1, 1, 1, 100);
+
+        for (int i = 0; i < 10; i++) {
+            admission.admit(1L);
+        }
+        assertThat(count("rejected", "user")).isZero();
+    }
+
+    private double count(String outcome, String limit) {
+        return meterRegistry.get("betting.admission.decisions").tag("outcome", outcome).tag("limit", limit).counter().count();
+    }
+}
@@ -0,0 +1,123 @@
+package f1.betting.poc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing between two independent Postgres containers: the replica is migrated separately and holds rows
+ * the primary does not, which shows where each transaction read from.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = ReadReplicaIntegrationTest.ReplicaInitializer.class)
+class ReadReplicaIntegrationTest {
+
+    static final PostgreSQLContainer<?> replica =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withDatabaseName("betting")
+                    .withUsername("betting")
+                    .withPassword("betting");
+
+    static {
+        replica.start();
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .locations("classpath:/migration")
+                .load()
+                .migrate();
+    }
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ReplicaLagMonitor lagMonitor;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @MockitoBean
+    RestTemplate restTemplate;
+
+    JdbcTemplate replicaJdbc = new JdbcTemplate(
+            new DriverManagerDataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+
+    @AfterEach
+    void resetLag() {
+        lagMonitor.recordLag(0);
+    }
+
+    @Test
+    void readOnlyTransactionsShouldReadFromReplica() {
+        // Given: a user that only exists on the replica
+        Long userId = replicaOnlyUser();
+
+        // When & Then
+        assertThat(readOnly().execute(status -> userRepository.findById(userId))).isPresent();
+        assertThat(readWrite().execute(status -> userRepository.findById(userId))).isEmpty();
+
+        // Both pools report their own metrics
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "replica").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "primary").gauge()).isNotNull();
+        assertThat(meterRegistry.find("betting.datasource.replica.lag").gauge()).isNotNull();
+    }
+
+    @Test
+    void laggingReplicaShouldFallBackToPrimary() {
+        // Given
+        Long userId = replicaOnlyUser();
+
+        // When: the replica falls behind
+        lagMonitor.recordLag(60);
+
+        // Then: read-only work is served by the primary
+        assertThat(lagMonitor.isUsable()).isFalse();
+        assertThat(readOnly().execute(status -> userRepository.findById(userId))).isEmpty();
+    }
+
+    private Long replicaOnlyUser() {
+        return replicaJdbc.queryForObject(
+                "INSERT INTO users(username, balance_eur) VALUES ('replica-only', 100) RETURNING id", Long.class);
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private TransactionTemplate readWrite() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    static class ReplicaInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+        @Override
+        public void initialize(ConfigurableApplicationContext context) {
+            new TestcontainersConfiguration().initialize(context);
+            TestPropertyValues.of(
+                    "betting.datasource.replica.url=" + replica.getJdbcUrl(),
+                    "betting.datasource.replica.username=" + replica.getUsername(),
+                    "betting.datasource.replica.password=" + replica.getPassword(),
+                    // Lag is driven by the tests, not the scheduled check
+                    "betting.datasource.replica.lag-check-interval=1h"
+            ).applyTo(context.getEnvironment());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package f1.betting.poc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SettlementCalculatorTest {
+
+    @Test
+    void winnersShouldShareThePoolRoundedDownPerBet() {
+        // Given: pool of 100, 30 EUR on the winning driver 44 split 10/20 over users 1 and 2
+        SettlementCalculator calculator = new SettlementCalculator(44L, 100L, 30L);
+        long[] userIds = {1L, 2L, 3L, 1L};
+        long[] driverIds = {44L, 44L, 7L, 7L};
+        long[] stakes = {10L, 20L, 50L, 20L};
+        UserPayouts payouts = new UserPayouts();
+
+        // When
+        calculator.accumulate(userIds, driverIds, stakes, 4, payouts);
+
+        // Then: 10 * 100 / 30 = 33.3 -> 33, 20 * 100 / 30 = 66.6 -> 66
+        assertThat(payouts.get(1L)).isEqualTo(33L);
+        assertThat(payouts.get(2L)).isEqualTo(66L);
+        assertThat(payouts.get(3L)).isZero();
+        assertThat(payouts.size()).isEqualTo(2);
+    }
+
+    @Test
+    void eachBetShouldBeRoundedBeforeSummingPerUser() {
+        // Given: two winning bets of the same user, each worth 10 * 100 / 30 = 33.3
+        SettlementCalculator calculator = new SettlementCalculator(44L, 100L, 30L);
+        UserPayouts payouts = new UserPayouts();
+
+        // When
+        calculator.accumulate(new long[]{5L, 5L}, new long[]{44L, 44L}, new long[]{10L, 10L}, 2, payouts);
+
+        // Then: 33 + 33, as when the bets were settled one by one
+        assertThat(payouts.get(5L)).isEqualTo(66L);
+    }
+
+    @Test
+    void shouldMatchPerBetProportionalShares() {
+        // Given
+        Random random = new Random(42);
+        int bets = 10_000;
+        long winningDriver = 3L;
+        long[] userIds = new long[bets];
+        long[] driverIds = new long[bets];
+        long[] stakes = new long[bets];
+        long totalPool = 0;
+        long winningStake = 0;
+        for (int i = 0; i < bets; i++) {
+            userIds[i] = 1 + random.nextInt(500);
+            driverIds[i] = 1 + random.nextInt(20);
+            stakes[i] = 1 + random.nextInt(100);
+            totalPool += stakes[i];
+            if (driverIds[i] == winningDriver) winningStake += stakes[i];
+        }
+        UserPayouts expected = new UserPayouts();
+        for (int i = 0; i < bets; i++) {
+            if (driverIds[i] == winningDriver) {
+                expected.add(userIds[i], BettingService.proportionalShare(stakes[i], totalPool, winningStake));
+            }
+        }
+
+        // When
+        UserPayouts actual = new UserPayouts();
+        new SettlementCalculator(winningDriver, totalPool, winningStake)
+                .accumulate(userIds, driverIds, stakes, bets, actual);
+
+        // Then
+        assertThat(actual.size()).isEqualTo(expected.size());
+        expected.forEachAscending((userId, amount) -> assertThat(actual.get(userId)).isEqualTo(amount));
+    }
+
+    @Test
+    void onlyTheFirstCountBetsShouldBeSettled() {
+        // Given: reused columns with a stale bet past the count
+        SettlementCalculator calculator = new SettlementCalculator(44L, 100L, 50L);
+        UserPayouts payouts = new UserPayouts();
+
+        // When
+        calculator.accumulate(new long[]{1L, 2L}, new long[]{44L, 44L}, new long[]{50L, 50L}, 1, payouts);
+
+        // Then
+        assertThat(payouts.get(1L)).isEqualTo(100L);
+        assertThat(payouts.get(2L)).isZero();
+    }
+
+    @Test
+    void countBeyondColumnsShouldBeRejected() {
+        SettlementCalculator calculator = new SettlementCalculator(44L, 100L, 50L);
+
+        assertThatThrownBy(() -> calculator.accumulate(new long[1], new long[1], new long[1], 2, new UserPayouts()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
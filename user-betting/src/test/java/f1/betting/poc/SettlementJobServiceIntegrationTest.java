@@ -0,0 +1,217 @@
+package f1.betting.poc;
+
+import f1.betting.poc.domain.*;
+import f1.betting.poc.web.BetResponse;
+import f1.betting.poc.web.PlaceBetRequest;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+
+@SpringBootTest(properties = "betting.settlement.chunk-size=1")
+@ContextConfiguration(initializers = TestcontainersConfiguration.class)
+@Transactional
+class SettlementJobServiceIntegrationTest {
+
+    @Autowired
+    SettlementJobService settlementJobService;
+    @Autowired
+    SettlementJobRepository jobRepository;
+    @Autowired
+    BettingService bettingService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    BetRepository betRepository;
+    @Autowired
+    HistoricalEventRepository historicalEventRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    EventOutcomeRepository eventOutcomeRepository;
+
+    @MockitoBean
+    RestTemplate restTemplate;
+
+    Faker faker = new Faker();
+
+    @Test
+    void unfinishedJobShouldResumeAfterCheckpoint() {
+        // Given: three winning bets, of which the first was settled before a simulated crash
+        List<User> users = userRepository.findAll();
+        User u1 = users.get(0);
+        User u2 = users.get(1);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long winDriver = (long) faker.number().numberBetween(1, 99);
+
+        Driver driver = Driver.builder().driverNumber(winDriver).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+
+        BetResponse first = bettingService.placeBet(new PlaceBetRequest(u1.getId(), eventId, winDriver, 4L));
+        BetResponse second = bettingService.placeBet(new PlaceBetRequest(u1.getId(), eventId, winDriver, 6L));
+        BetResponse third = bettingService.placeBet(new PlaceBetRequest(u2.getId(), eventId, winDriver, 10L));
+        bettingService.lockEventForSettlement(eventId);
+
+        long u1Before = userRepository.findById(u1.getId()).orElseThrow().getBalanceEur();
+        long u2Before = userRepository.findById(u2.getId()).orElseThrow().getBalanceEur();
+
+        SettlementJob job = new SettlementJob();
+        job.setEventId(eventId);
+        job.setWinningDriverId(winDriver);
+        job.setStatus(SettlementJobStatus.RUNNING);
+        job.setTotalPoolEur(20L);
+        job.setWinningStakeEur(20L);
+        job.setTotalBets(3L);
+        job.setProcessedBets(1);
+        job.setLastBetId(first.betId());
+        job = jobRepository.save(job);
+
+        // When
+        settlementJobService.resumeUnfinishedJobs();
+
+        // Then: only bets after the checkpoint are settled and paid out
+        SettlementJob finished = jobRepository.findById(job.getId()).orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo(SettlementJobStatus.COMPLETED);
+        assertThat(finished.getProcessedBets()).isEqualTo(3);
+        assertThat(finished.getLastBetId()).isEqualTo(third.betId());
+
+        assertThat(betRepository.findById(first.betId()).orElseThrow().getStatus()).isEqualTo(BetStatus.PENDING);
+        assertThat(betRepository.findById(second.betId()).orElseThrow().getStatus()).isEqualTo(BetStatus.WON);
+        assertThat(betRepository.findById(third.betId()).orElseThrow().getStatus()).isEqualTo(BetStatus.WON);
+
+        assertThat(userRepository.findById(u1.getId()).orElseThrow().getBalanceEur()).isEqualTo(u1Before + 6L);
+        assertThat(userRepository.findById(u2.getId()).orElseThrow().getBalanceEur()).isEqualTo(u2Before + 10L);
+        assertThat(historicalEventRepository.findById(eventId).orElseThrow().getStatus()).isEqualTo(EventStatus.SETTLED);
+    }
+
+    @Test
+    void settlementShouldPayEachWinnerTheirShareOfThePool() {
+        // Given: u7 backs the winner twice, u3 once, and u3's losing bet feeds the pool
+        User u7 = newUser(100);
+        User u3 = newUser(100);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long winDriver = (long) faker.number().numberBetween(1, 50);
+        Long loseDriver = winDriver + 1;
+
+        Driver win = Driver.builder().driverNumber(winDriver).fullName(faker.name().fullName()).teamName("T1").odds(2).build();
+        Driver lose = Driver.builder().driverNumber(loseDriver).fullName(faker.name().fullName()).teamName("T2").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").drivers(List.of(win, lose)).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+        EventResult winner = EventResult.builder().sessionKey(eventId).finished(true).winnerDriverNumber(winDriver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId + "/winner", EventResult.class))
+                .willReturn(winner);
+
+        BetResponse b1 = bettingService.placeBet(new PlaceBetRequest(u7.getId(), eventId, winDriver, 10L));
+        BetResponse b2 = bettingService.placeBet(new PlaceBetRequest(u3.getId(), eventId, winDriver, 5L));
+        BetResponse b3 = bettingService.placeBet(new PlaceBetRequest(u7.getId(), eventId, winDriver, 5L));
+        BetResponse b4 = bettingService.placeBet(new PlaceBetRequest(u3.getId(), eventId, loseDriver, 20L));
+
+        // When
+        SettlementJob job = settlementJobService.startSettlement(eventId);
+
+        // Then: pool = 40, winning stake = 20; u7 gets (10*40)/20 + (5*40)/20 = 30, u3 gets (5*40)/20 = 10
+        SettlementJob finished = jobRepository.findById(job.getId()).orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo(SettlementJobStatus.COMPLETED);
+        assertThat(finished.getTotalPoolEur()).isEqualTo(40L);
+        assertThat(finished.getWinningStakeEur()).isEqualTo(20L);
+        assertThat(List.of(b1, b2, b3)).allSatisfy(bet ->
+                assertThat(betRepository.findById(bet.betId()).orElseThrow().getStatus()).isEqualTo(BetStatus.WON));
+        assertThat(betRepository.findById(b4.betId()).orElseThrow().getStatus()).isEqualTo(BetStatus.LOST);
+        assertThat(userRepository.findById(u7.getId()).orElseThrow().getBalanceEur()).isEqualTo(100 - 15 + 30);
+        assertThat(userRepository.findById(u3.getId()).orElseThrow().getBalanceEur()).isEqualTo(100 - 25 + 10);
+        assertThat(eventOutcomeRepository.findById(eventId).orElseThrow().getWinningDriverId()).isEqualTo(winDriver);
+        assertThat(historicalEventRepository.findById(eventId).orElseThrow().getStatus()).isEqualTo(EventStatus.SETTLED);
+    }
+
+    @Test
+    void startSettlementShouldKeepEventOpenWhenWinnerUnavailable() {
+        // Given
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        HistoricalEvent he = new HistoricalEvent();
+        he.setEventId(eventId);
+        he.setEventName("Race-" + faker.lorem().word());
+        he.setStatus(EventStatus.OPEN);
+        historicalEventRepository.save(he);
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId + "/winner", EventResult.class))
+                .willReturn(null);
+
+        // When & Then
+        assertThatThrownBy(() -> settlementJobService.startSettlement(eventId))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(historicalEventRepository.findById(eventId).orElseThrow().getStatus()).isEqualTo(EventStatus.OPEN);
+    }
+
+    @Test
+    // NOT_SUPPORTED lets every chunk commit on its own, so the failed one rolls back alone
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void failedJobShouldCompleteWhenStartedAgain() {
+        // Given: three winning bets, one per chunk, and the second chunk failing
+        User u1 = newUser(100);
+        User u2 = newUser(100);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+        Long winDriver = (long) faker.number().numberBetween(1, 99);
+
+        Driver driver = Driver.builder().driverNumber(winDriver).fullName(faker.name().fullName()).teamName("T").odds(2).build();
+        EventDetails ed = EventDetails.builder().sessionKey(eventId).sessionName("Race").countryName("X").driver(driver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId, EventDetails.class)).willReturn(ed);
+        EventResult winner = EventResult.builder().sessionKey(eventId).finished(true).winnerDriverNumber(winDriver).build();
+        given(restTemplate.getForObject("http://localhost:8081/api/events/" + eventId + "/winner", EventResult.class))
+                .willReturn(winner);
+
+        BetResponse first = bettingService.placeBet(new PlaceBetRequest(u1.getId(), eventId, winDriver, 4L));
+        BetResponse second = bettingService.placeBet(new PlaceBetRequest(u1.getId(), eventId, winDriver, 6L));
+        BetResponse third = bettingService.placeBet(new PlaceBetRequest(u2.getId(), eventId, winDriver, 10L));
+
+        jdbcTemplate.execute("CREATE FUNCTION fail_settlement() RETURNS trigger AS $$ "
+                + "BEGIN RAISE EXCEPTION 'simulated chunk failure'; END $$ LANGUAGE plpgsql");
+        jdbcTemplate.execute("CREATE TRIGGER fail_settlement BEFORE UPDATE ON bets FOR EACH ROW "
+                + "WHEN (OLD.id = " + second.betId() + ") EXECUTE FUNCTION fail_settlement()");
+        SettlementJob job;
+        try {
+            job = settlementJobService.startSettlement(eventId);
+        } finally {
+            jdbcTemplate.execute("DROP TRIGGER fail_settlement ON bets");
+            jdbcTemplate.execute("DROP FUNCTION fail_settlement()");
+        }
+        SettlementJob failed = jobRepository.findById(job.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(SettlementJobStatus.FAILED);
+        assertThat(failed.getError()).contains("simulated chunk failure");
+        assertThat(failed.getLastBetId()).isEqualTo(first.betId());
+        assertThat(historicalEventRepository.findById(eventId).orElseThrow().getStatus()).isEqualTo(EventStatus.LOCKED);
+
+        // When
+        SettlementJob retried = settlementJobService.startSettlement(eventId);
+
+        // Then: the same job finished, and every bet was paid out exactly once
+        assertThat(retried.getId()).isEqualTo(job.getId());
+        SettlementJob finished = jobRepository.findById(job.getId()).orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo(SettlementJobStatus.COMPLETED);
+        assertThat(finished.getError()).isNull();
+        assertThat(finished.getProcessedBets()).isEqualTo(3);
+        assertThat(List.of(first, second, third)).allSatisfy(bet ->
+                assertThat(betRepository.findById(bet.betId()).orElseThrow().getStatus()).isEqualTo(BetStatus.WON));
+        assertThat(userRepository.findById(u1.getId()).orElseThrow().getBalanceEur()).isEqualTo(100);
+        assertThat(userRepository.findById(u2.getId()).orElseThrow().getBalanceEur()).isEqualTo(100);
+        assertThat(historicalEventRepository.findById(eventId).orElseThrow().getStatus()).isEqualTo(EventStatus.SETTLED);
+    }
+
+    private User newUser(long balance) {
+        User user = new User();
+        user.setUsername("user-" + faker.number().digits(9));
+        user.setBalanceEur(balance);
+        return userRepository.save(user);
+    }
+}
@@ -31,7 +31,11 @@ public class TestcontainersConfiguration
 				"spring.jpa.hibernate.ddl-auto=none",
 				"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
 				"spring.flyway.enabled=true",
-				"spring.flyway.locations=classpath:/migration"
+				"spring.flyway.locations=classpath:/migration",
+				// Run settlement jobs in the calling thread so they join the test transaction
+				"betting.settlement.async=false",
+				// Tests need no JIT warm-up, and its placements would run alongside theirs
+				"betting.jit-warmup.enabled=false"
 		).applyTo(context.getEnvironment());
 	}
 }
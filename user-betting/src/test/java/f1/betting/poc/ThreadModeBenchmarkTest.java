@@ -0,0 +1,206 @@
+package f1.betting.poc;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Places bets against a running user-betting instance in platform-thread and in virtual-thread mode and prints
+ * throughput and latency percentiles for both. event-service is replaced by a stub with a fixed delay, so request
+ * threads spend most of their time blocked, as they do in production.
+ * <p>
+ * Run with {@code ./gradlew :user-betting:benchmark}; tune with -Dbenchmark.concurrency, -Dbenchmark.requests
+ * and -Dbenchmark.upstream-delay-ms. Excluded from the regular test task.
+ */
+@Tag("benchmark")
+class ThreadModeBenchmarkTest {
+
+    static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    static final int UPSTREAM_DELAY_MS = Integer.getInteger("benchmark.upstream-delay-ms", 50);
+    static final int USERS = 1_000;
+    static final int EVENTS = 20;
+    static final int DRIVERS = 20;
+    static final long FIRST_EVENT_ID = 900_000L;
+
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withDatabaseName("betting")
+                    .withUsername("betting")
+                    .withPassword("betting");
+
+    static HttpServer eventServiceStub;
+
+    @BeforeAll
+    static void startDependencies() throws IOException {
+        postgres.start();
+
+        eventServiceStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        eventServiceStub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        eventServiceStub.createContext("/api/events/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            long eventId = Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+            byte[] body = eventJson(eventId).getBytes(StandardCharsets.UTF_8);
+            try {
+                Thread.sleep(UPSTREAM_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        eventServiceStub.start();
+    }
+
+    @AfterAll
+    static void stopDependencies() {
+        eventServiceStub.stop(0);
+        postgres.stop();
+    }
+
+    @Test
+    void compareThreadModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%n%-10s %10s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+        for (Result r : List.of(platform, virtual)) {
+            System.out.printf("%-10s %10.0f %10.1f %10.1f %10.1f %8d%n",
+                    r.mode(), r.throughput(), r.percentile(50), r.percentile(99), r.percentile(99.9), r.errors());
+        }
+
+        assertThat(platform.errors()).isZero();
+        assertThat(virtual.errors()).isZero();
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(BettingApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "event.service.base-url=http://localhost:" + eventServiceStub.getAddress().getPort(),
+                        "betting.admission.enabled=false",
+                        "betting.jit-warmup.enabled=false",
+                        "logging.level.f1.betting.poc=WARN")
+                .run()) {
+            seedUsers();
+            URI bets = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port") + "/api/bets");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            // Warm-up, then the measured run
+            load(client, bets, REQUESTS / 10);
+            return load(client, bets, REQUESTS).withMode(mode);
+        }
+    }
+
+    private Result load(HttpClient client, URI bets, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < CONCURRENCY; w++) {
+                futures.add(workers.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        HttpRequest request = HttpRequest.newBuilder(bets)
+                                .header("Content-Type", "application/json")
+                                .timeout(Duration.ofSeconds(30))
+                                .POST(HttpRequest.BodyPublishers.ofString(betJson(i)))
+                                .build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) errors.incrementAndGet();
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result("", requests * 1e9 / elapsed, latencies, errors.get());
+    }
+
+    private static void seedUsers() {
+        JdbcTemplate jdbc = new JdbcTemplate(
+                new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        Integer existing = jdbc.queryForObject("SELECT count(*) FROM users WHERE username LIKE 'bench-%'", Integer.class);
+        if (existing != null && existing > 0) {
+            jdbc.update("UPDATE users SET balance_eur = 1000000000 WHERE username LIKE 'bench-%'");
+            return;
+        }
+        jdbc.update("INSERT INTO users(username, balance_eur) " +
+                "SELECT 'bench-' || g, 1000000000 FROM generate_series(1, ?) g", USERS);
+    }
+
+    private static String betJson(int i) {
+        // Spread bets over users, events and drivers so row locks do not serialize the run
+        long userId = 3 + i % USERS; // ids 1 and 2 are the seeded alice and bob
+        long eventId = FIRST_EVENT_ID + i % EVENTS;
+        long driverId = 1 + (i / EVENTS) % DRIVERS;
+        return "{\"user_id\":" + userId + ",\"event_id\":" + eventId + ",\"driver_id\":" + driverId + ",\"amount_eur\":1}";
+    }
+
+    private static String eventJson(long eventId) {
+        StringBuilder drivers = new StringBuilder();
+        for (int d = 1; d <= DRIVERS; d++) {
+            if (d > 1) drivers.append(',');
+            drivers.append("{\"driver_number\":").append(d)
+                    .append(",\"full_name\":\"Driver ").append(d)
+                    .append("\",\"team_name\":\"Team\",\"odds\":").append(2 + d % 3).append('}');
+        }
+        return "{\"session_key\":" + eventId + ",\"session_name\":\"Race\",\"country_name\":\"Bench\",\"drivers\":[" + drivers + "]}";
+    }
+
+    record Result(String mode, double throughput, long[] sortedLatencies, int errors) {
+
+        Result withMode(String mode) {
+            return new Result(mode, throughput, sortedLatencies, errors);
+        }
+
+        double percentile(double p) {
+            int index = (int) Math.ceil(p / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
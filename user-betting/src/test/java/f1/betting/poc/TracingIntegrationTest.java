@@ -0,0 +1,118 @@
+package f1.betting.poc;
+
+import com.sun.net.httpserver.HttpServer;
+import f1.betting.poc.domain.User;
+import f1.betting.poc.web.PlaceBetRequest;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ContextConfiguration(initializers = TestcontainersConfiguration.class)
+@AutoConfigureObservability
+@Import(TracingTestConfiguration.class)
+class TracingIntegrationTest {
+
+    static final List<String> traceparents = new CopyOnWriteArrayList<>();
+    static final HttpServer eventServiceStub = startEventServiceStub();
+
+    @Autowired
+    BettingService bettingService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    InMemorySpanExporter spanExporter;
+    @Autowired
+    SdkTracerProvider tracerProvider;
+
+    Faker faker = new Faker();
+
+    @DynamicPropertySource
+    static void eventService(DynamicPropertyRegistry registry) {
+        registry.add("event.service.base-url", () -> "http://localhost:" + eventServiceStub.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopStub() {
+        eventServiceStub.stop(0);
+    }
+
+    @Test
+    void placementShouldBeOneTraceAcrossEventServiceCallAndStatements() {
+        // Given
+        User user = new User();
+        user.setUsername("user-" + faker.number().digits(9));
+        user.setBalanceEur(100);
+        user = userRepository.save(user);
+        Long eventId = (long) faker.number().numberBetween(1, Integer.MAX_VALUE);
+
+        // When
+        bettingService.placeBet(new PlaceBetRequest(user.getId(), eventId, 44L, 10L));
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        // Then
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        String traceId = spans.stream()
+                .filter(span -> span.getName().equals("place bet"))
+                .filter(span -> span.getAttributes().asMap().values().contains(String.valueOf(eventId)))
+                .findFirst()
+                .orElseThrow()
+                .getTraceId();
+        List<SpanData> trace = spans.stream().filter(span -> span.getTraceId().equals(traceId)).toList();
+
+        // the quote fetch ran on another thread but stayed in the trace, and passed it on to event-service
+        assertThat(trace).anySatisfy(span -> {
+            assertThat(span.getKind()).isEqualTo(SpanKind.CLIENT);
+            assertThat(span.getName()).startsWith("http get");
+        });
+        assertThat(traceparents).anySatisfy(header -> assertThat(header).contains(traceId));
+        // and every SQL statement of the placement is part of it
+        assertThat(trace).filteredOn(span -> span.getName().equals("query")).hasSizeGreaterThanOrEqualTo(3);
+    }
+
+    private static HttpServer startEventServiceStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/api/events/", exchange -> {
+                String traceparent = exchange.getRequestHeaders().getFirst("traceparent");
+                if (traceparent != null) traceparents.add(traceparent);
+                String path = exchange.getRequestURI().getPath();
+                long eventId = Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+                byte[] body = ("{\"session_key\":" + eventId + ",\"session_name\":\"Race\",\"country_name\":\"Belgium\","
+                        + "\"drivers\":[{\"driver_number\":44,\"full_name\":\"Lewis Hamilton\",\"team_name\":\"Mercedes\",\"odds\":3}]}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}